@@ -0,0 +1,54 @@
+package quiz.bench;
+
+import quiz.model.Question;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+//date sintetice si payload-uri inregistrate folosite de benchmark-uri
+final class BenchmarkData {
+    static final String[] CATEGORIES = {
+            "Science and Technology", "History", "Geography", "Literature",
+            "Mathematics", "Arts", "Sports", "General Knowledge", "Nature", "Culture"
+    };
+
+    private BenchmarkData() {
+    }
+
+    //seed fix ca rularile sa fie comparabile intre ele
+    static List<Question> questions(int size) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Question> questions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int category = random.nextInt(CATEGORIES.length);
+            Question q = new Question();
+            q.setId(i + 1);
+            q.setCategoryId(category + 1);
+            q.setCategoryName(CATEGORIES[category]);
+            q.setText("Benchmark question " + i + "?");
+            q.setOptionA("A" + i);
+            q.setOptionB("B" + i);
+            q.setOptionC("C" + i);
+            q.setOptionD("D" + i);
+            q.setCorrectOption("ABCD".charAt(random.nextInt(4)));
+            q.setDifficultyLevel(1 + random.nextInt(3));
+            questions.add(q);
+        }
+        return questions;
+    }
+
+    static byte[] geminiPayload(String name) {
+        try (InputStream in = BenchmarkData.class.getResourceAsStream("/gemini/" + name + ".json")) {
+            if (in == null) {
+                throw new IllegalArgumentException("Unknown Gemini payload: " + name);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
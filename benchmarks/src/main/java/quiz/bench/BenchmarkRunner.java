@@ -0,0 +1,38 @@
+package quiz.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+//punct de intrare pentru benchmarks.jar: accepta aceleasi argumente ca JMH (ex. "QuestionService -p size=1000")
+//rezultatele se scriu mereu ca JSON in results/, cu data in nume, ca rularile sa poata fi comparate
+public class BenchmarkRunner {
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        Path resultsDir = Paths.get(System.getProperty("quiz.bench.resultsDir", "results"));
+        Files.createDirectories(resultsDir);
+        Path resultFile = resultsDir.resolve("jmh-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".json");
+
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile.toString())
+                .build();
+
+        new Runner(options).run();
+        System.out.println("Benchmark results written to " + resultFile.toAbsolutePath());
+    }
+}
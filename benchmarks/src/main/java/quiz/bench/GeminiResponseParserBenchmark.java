@@ -0,0 +1,95 @@
+package quiz.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import quiz.ai.GeminiResponseParser;
+import quiz.exceptions.DatabaseException;
+import quiz.model.Question;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//parsarea raspunsurilor gemini inregistrate (src/main/resources/gemini)
+//treeModel = varianta veche cu readTree, pastrata ca referinta
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeminiResponseParserBenchmark {
+
+    @Param({"chunk-5", "fenced-20", "truncated-20"})
+    private String payload;
+
+    private byte[] body;
+    private String bodyText;
+    private GeminiResponseParser parser;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        body = BenchmarkData.geminiPayload(payload);
+        bodyText = new String(body, StandardCharsets.UTF_8);
+        parser = new GeminiResponseParser();
+        objectMapper = new ObjectMapper();
+    }
+
+    @Benchmark
+    public List<Question> streamingFromBytes() throws DatabaseException {
+        return parser.parse(new ByteArrayInputStream(body), "General Knowledge", 2);
+    }
+
+    @Benchmark
+    public List<Question> streamingFromString() throws DatabaseException {
+        return parser.parse(bodyText, "General Knowledge", 2);
+    }
+
+    @Benchmark
+    public List<Question> treeModel() {
+        List<Question> questions = new ArrayList<>();
+        try {
+            JsonNode root = objectMapper.readTree(bodyText);
+            String content = root.path("candidates").get(0)
+                    .path("content").path("parts").get(0)
+                    .path("text").asText().trim();
+            if (content.startsWith("```json")) {
+                content = content.substring(7);
+            }
+            if (content.endsWith("```")) {
+                content = content.substring(0, content.length() - 3);
+            }
+            for (JsonNode node : objectMapper.readTree(content.trim())) {
+                Question question = new Question();
+                question.setCategoryName("General Knowledge");
+                question.setText(node.path("question").asText());
+                question.setOptionA(node.path("optionA").asText());
+                question.setOptionB(node.path("optionB").asText());
+                question.setOptionC(node.path("optionC").asText());
+                question.setOptionD(node.path("optionD").asText());
+                String correct = node.path("correctOption").asText();
+                question.setCorrectOption(correct.isEmpty() ? 'A' : correct.charAt(0));
+                question.setDifficultyLevel(2);
+                questions.add(question);
+            }
+        } catch (IOException e) {
+            //payload-ul trunchiat nu poate fi citit deloc cu readTree
+        }
+        return questions;
+    }
+}
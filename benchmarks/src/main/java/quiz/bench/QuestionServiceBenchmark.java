@@ -0,0 +1,82 @@
+package quiz.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import quiz.model.Question;
+import quiz.service.QuestionService;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+//filtrarea si sortarea din QuestionService pe liste de 1k / 100k / 1M intrebari
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class QuestionServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private QuestionService service;
+
+    @Setup
+    public void setUp() {
+        service = new QuestionService(BenchmarkData.questions(size));
+    }
+
+    @Benchmark
+    public List<Question> filterByDifficulty() {
+        return service.getQuestionsByDifficulty(2);
+    }
+
+    @Benchmark
+    public List<Question> filterByCategoryId() {
+        return service.getQuestionsByCategoryId(4);
+    }
+
+    @Benchmark
+    public List<Question> sortByCategory() {
+        return service.getQuestionsSortedByCategory();
+    }
+
+    @Benchmark
+    public List<Question> sortByDifficulty() {
+        return service.getQuestionsSortedByDifficulty();
+    }
+
+    @Benchmark
+    public List<Question> hardQuestionsSorted() {
+        return service.getHardQuestionsSorted();
+    }
+
+    //filter/sorted aleg singure modul paralel peste -Dquiz.questionService.parallelThreshold
+    @Benchmark
+    public List<Question> filterPredicate() {
+        return service.filter(q -> q.getCategoryId() % 3 == 0 && q.getDifficultyLevel() > 1);
+    }
+
+    @Benchmark
+    public List<Question> sortedComparator() {
+        return service.sorted(Comparator.comparingInt(Question::getCategoryId).thenComparing(Question::getDifficultyLevel));
+    }
+
+    //ultima categorie din lista, ca sa nu masuram doar primul element
+    @Benchmark
+    public Optional<Question> findFirstByCategory() {
+        return service.findFirstQuestionByCategory("Culture");
+    }
+}
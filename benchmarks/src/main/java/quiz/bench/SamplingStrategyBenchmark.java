@@ -0,0 +1,55 @@
+package quiz.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import quiz.dao.QuestionDAO;
+import quiz.dao.SamplingStrategy;
+import quiz.exceptions.DatabaseException;
+import quiz.model.Question;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//compara strategiile de selectie aleatoare din QuestionDAO pe baza de date locala
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SamplingStrategyBenchmark {
+
+    @Param({"ORDER_BY_RANDOM", "KEYSET", "ID_ARRAY"})
+    private SamplingStrategy strategy;
+
+    @Param({"10"})
+    private int count;
+
+    private QuestionDAO questionDAO;
+    private int categoryId;
+
+    @Setup
+    public void setUp() {
+        questionDAO = new QuestionDAO();
+        categoryId = Integer.getInteger("quiz.bench.categoryId", 1);
+    }
+
+    @Benchmark
+    public List<Question> randomQuestions() throws DatabaseException {
+        return questionDAO.getRandomQuestions(count, strategy);
+    }
+
+    @Benchmark
+    public List<Question> questionsByCategory() throws DatabaseException {
+        return questionDAO.getQuestionsByCategory(categoryId, count, strategy);
+    }
+}
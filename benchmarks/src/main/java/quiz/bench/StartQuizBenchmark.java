@@ -0,0 +1,73 @@
+package quiz.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import quiz.controller.QuizController;
+import quiz.dao.AchievementDAO;
+import quiz.dao.AnalyticsDAO;
+import quiz.dao.QuestionDAO;
+import quiz.dao.QuizSessionDAO;
+import quiz.dao.ScoreDAO;
+import quiz.dao.UserDAO;
+import quiz.exceptions.DatabaseException;
+import quiz.model.Question;
+import quiz.model.User;
+import util.DBUtil;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//QuizController.startQuiz cap-coada pe PostgreSQL-ul local din DBUtil (localhost:5432/quizdb)
+//atentie: fiecare apel creeaza un rand in quiz_sessions pentru utilizatorul -Dquiz.bench.userId (implicit 1)
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StartQuizBenchmark {
+
+    @Param({"random", "category"})
+    private String quizType;
+
+    @Param({"10"})
+    private int questionCount;
+
+    private QuizController controller;
+    private int userId;
+    private int categoryId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws DatabaseException {
+        userId = Integer.getInteger("quiz.bench.userId", 1);
+        categoryId = Integer.getInteger("quiz.bench.categoryId", 1);
+        User user = new UserDAO().getUserById(userId);
+        if (user == null) {
+            throw new IllegalStateException("Benchmark user " + userId + " not found, set -Dquiz.bench.userId");
+        }
+        controller = new QuizController(user, new QuestionDAO(), new QuizSessionDAO(), new ScoreDAO(),
+                new AchievementDAO(), new AnalyticsDAO(), null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println("Pool after trial: " + DBUtil.getPool());
+    }
+
+    @Benchmark
+    public List<Question> startQuiz() throws DatabaseException {
+        controller.startQuiz(userId, quizType, questionCount, categoryId);
+        return controller.getQuestions();
+    }
+}
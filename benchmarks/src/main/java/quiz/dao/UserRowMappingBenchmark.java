@@ -0,0 +1,67 @@
+package quiz.dao;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import quiz.model.User;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+//maparea unui rand din users (UserDAO.mapResultSetToUser) fara baza de date
+//ResultSet-ul e un proxy peste valori fixe; costul lui e inclus si in baseline
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserRowMappingBenchmark {
+
+    private UserDAO userDAO;
+    private ResultSet row;
+
+    @Setup
+    public void setUp() {
+        userDAO = new UserDAO();
+        Map<String, Object> values = Map.of(
+                "id", 42,
+                "username", "benchmark_user",
+                "password", "$2a$10$abcdefghijklmnopqrstuv",
+                "email", "benchmark@example.com",
+                "registration_date", Timestamp.valueOf("2024-03-01 10:15:30"),
+                "total_score", 1250,
+                "games_played", 37,
+                "best_streak", 9,
+                "current_level", 4);
+        row = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    if (args != null && args.length == 1 && args[0] instanceof String column && method.getName().startsWith("get")) {
+                        return values.get(column);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @Benchmark
+    public User mapRow() throws SQLException {
+        return userDAO.mapResultSetToUser(row);
+    }
+
+    //doar accesul la coloane, fara construirea obiectului User
+    @Benchmark
+    public int columnAccessBaseline() throws SQLException {
+        return row.getInt("id") + row.getString("username").length() + row.getInt("total_score");
+    }
+}
@@ -0,0 +1,224 @@
+package quiz.ai;
+
+import quiz.dao.QuestionDAO;
+import quiz.model.Question;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+//rezerva de intrebari ai generate dinainte, pe fiecare pereche subiect x dificultate
+//sub pragul de jos se reumple asincron pana la pragul de sus
+//intrebarile modificate sau sterse prin QuestionDAO ies din rezerva (listener-e de update/delete)
+public class AiQuestionPool {
+    private static final int LOW_WATERMARK = Integer.getInteger("quiz.aiPool.lowWatermark", 5);
+    private static final int HIGH_WATERMARK = Integer.getInteger("quiz.aiPool.highWatermark", 15);
+    private static final int[] DIFFICULTY_LEVELS = {1, 2, 3};
+
+    private static AiQuestionPool instance;
+
+    private final GeminiQuestionGeneratorService generator;
+    private final int lowWatermark;
+    private final int highWatermark;
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refills = new AtomicLong();
+    private final AtomicLong failedRefills = new AtomicLong();
+    private final AtomicLong totalRefillMillis = new AtomicLong();
+    private volatile long lastRefillMillis;
+
+    public AiQuestionPool(GeminiQuestionGeneratorService generator, int lowWatermark, int highWatermark) {
+        this.generator = generator;
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = Math.max(lowWatermark + 1, highWatermark);
+        for (String topic : GeminiQuestionGeneratorService.TOPICS) {
+            for (int difficulty : DIFFICULTY_LEVELS) {
+                slots.put(key(topic, difficulty), new Slot(topic, difficulty));
+            }
+        }
+        QuestionDAO.addUpdateListener(question -> removeQuestion(question.getId()));
+        QuestionDAO.addDeleteListener(this::removeQuestion);
+    }
+
+    //un singur pool pe proces, pornit la prima cerere
+    public static synchronized AiQuestionPool getInstance(GeminiQuestionGeneratorService generator) {
+        if (instance == null) {
+            instance = new AiQuestionPool(generator, LOW_WATERMARK, HIGH_WATERMARK);
+            instance.warmUp();
+        }
+        return instance;
+    }
+
+    public void warmUp() {
+        for (Slot slot : slots.values()) {
+            refillIfNeeded(slot);
+        }
+    }
+
+    //intrebari dintr-un subiect ales aleator care are destule in rezerva; lista goala = miss
+    public List<Question> takeRandom(int difficultyLevel, int count) {
+        List<Slot> ready = new ArrayList<>();
+        for (String topic : GeminiQuestionGeneratorService.TOPICS) {
+            Slot slot = slots.get(key(topic, difficultyLevel));
+            if (slot == null) {
+                continue;
+            }
+            if (slot.size.get() >= count) {
+                ready.add(slot);
+            } else {
+                refillIfNeeded(slot);
+            }
+        }
+        if (ready.isEmpty()) {
+            misses.incrementAndGet();
+            return new ArrayList<>();
+        }
+        Slot slot = ready.get(ThreadLocalRandom.current().nextInt(ready.size()));
+        return take(slot, count);
+    }
+
+    public List<Question> take(String topic, int difficultyLevel, int count) {
+        Slot slot = slots.computeIfAbsent(key(topic, difficultyLevel), k -> new Slot(topic, difficultyLevel));
+        if (slot.size.get() < count) {
+            misses.incrementAndGet();
+            refillIfNeeded(slot);
+            return new ArrayList<>();
+        }
+        return take(slot, count);
+    }
+
+    private List<Question> take(Slot slot, int count) {
+        List<Question> taken = new ArrayList<>(count);
+        Question q;
+        while (taken.size() < count && (q = slot.questions.pollFirst()) != null) {
+            slot.size.decrementAndGet();
+            taken.add(q);
+        }
+        if (taken.size() < count) {
+            //alt thread a golit rezerva intre timp: intrebarile se pun inapoi
+            for (Question back : taken) {
+                slot.questions.offerFirst(back);
+                slot.size.incrementAndGet();
+            }
+            misses.incrementAndGet();
+            taken.clear();
+        } else {
+            hits.incrementAndGet();
+        }
+        refillIfNeeded(slot);
+        return taken;
+    }
+
+    //varianta din rezerva nu mai corespunde bd-ului (raspunsul corect poate fi altul); rezerva se reumple
+    private void removeQuestion(int questionId) {
+        for (Slot slot : slots.values()) {
+            boolean removed = false;
+            for (Question q : slot.questions) {
+                //remove() e false daca un take() a luat-o intre timp
+                if (q.getId() == questionId && slot.questions.remove(q)) {
+                    slot.size.decrementAndGet();
+                    removed = true;
+                }
+            }
+            if (removed) {
+                refillIfNeeded(slot);
+            }
+        }
+    }
+
+    private void refillIfNeeded(Slot slot) {
+        if (slot.size.get() > lowWatermark || !slot.refilling.compareAndSet(false, true)) {
+            return;
+        }
+        int missing = highWatermark - slot.size.get();
+        long start = System.currentTimeMillis();
+        generator.generateQuestionsForTopicStreaming(slot.topic, missing, slot.difficulty, false, chunk -> {
+                    for (Question question : chunk) {
+                        slot.questions.offerLast(question);
+                        slot.size.incrementAndGet();
+                    }
+                })
+                .whenComplete((questions, error) -> {
+                    long elapsed = System.currentTimeMillis() - start;
+                    slot.refilling.set(false);
+                    if (error != null) {
+                        failedRefills.incrementAndGet();
+                        System.err.println("AI pool refill failed for " + slot.topic + "/" + slot.difficulty + ": " + error.getMessage());
+                        return;
+                    }
+                    refills.incrementAndGet();
+                    totalRefillMillis.addAndGet(elapsed);
+                    lastRefillMillis = elapsed;
+                });
+    }
+
+    private static String key(String topic, int difficulty) {
+        return topic + "|" + difficulty;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    public long getRefillCount() {
+        return refills.get();
+    }
+
+    public long getFailedRefillCount() {
+        return failedRefills.get();
+    }
+
+    public double getAverageRefillMillis() {
+        long count = refills.get();
+        return count == 0 ? 0.0 : (double) totalRefillMillis.get() / count;
+    }
+
+    public long getLastRefillMillis() {
+        return lastRefillMillis;
+    }
+
+    public int getPooledCount() {
+        int total = 0;
+        for (Slot slot : slots.values()) {
+            total += slot.size.get();
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AiQuestionPool[pooled=%d, hits=%d, misses=%d, hitRate=%.1f%%, refills=%d, failed=%d, avgRefill=%.0fms]",
+                getPooledCount(), getHits(), getMisses(), getHitRate() * 100, getRefillCount(),
+                getFailedRefillCount(), getAverageRefillMillis());
+    }
+
+    private static final class Slot {
+        private final String topic;
+        private final int difficulty;
+        private final ConcurrentLinkedDeque<Question> questions = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean refilling = new AtomicBoolean();
+
+        private Slot(String topic, int difficulty) {
+            this.topic = topic;
+            this.difficulty = difficulty;
+        }
+    }
+}
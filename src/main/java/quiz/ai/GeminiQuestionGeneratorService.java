@@ -3,42 +3,93 @@ package quiz.ai;
 import quiz.model.Question;
 import quiz.model.Category;
 import quiz.exceptions.DatabaseException;
+import quiz.dao.BatchInsertResult;
 import quiz.dao.QuestionDAO;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
-public class GeminiQuestionGeneratorService {
+public class GeminiQuestionGeneratorService implements AutoCloseable {
     private static final String GEMINI_API_URL = "https://generativelanguage.googleapis.com/v1beta/models/gemini-1.5-flash-latest:generateContent";
+    public static final String[] TOPICS = {
+        "Science and Technology", "History", "Geography", "Literature", 
+        "Mathematics", "Arts", "Sports", "General Knowledge", "Nature", "Culture"
+    };
+    private static final int DEFAULT_CHUNK_SIZE = 5;
+    private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 4;
+    //o cerere blocata nu trebuie sa tina ocupat un permis la nesfarsit
+    private static final long CONNECT_TIMEOUT_MILLIS = Long.getLong("quiz.gemini.connectTimeoutMillis", 10_000L);
+    private static final long REQUEST_TIMEOUT_MILLIS = Long.getLong("quiz.gemini.requestTimeoutMillis", 60_000L);
+    //fiecare bucata primeste alt unghi al subiectului, ca cererile paralele sa nu intoarca aceleasi intrebari
+    private static final String[] SUB_FOCUSES = {
+        "key facts and definitions", "notable people", "important events and dates", "places and landmarks",
+        "causes and consequences", "records, numbers and measurements", "terminology", "lesser-known details"
+    };
+
+    private static GeminiQuestionGeneratorService instance;
+
     private final String apiKey;
+    private final String apiUrl;
+    private final int chunkSize;
+    private final Semaphore requestPermits;
+    private final ExecutorService requestExecutor;
     private final HttpClient httpClient;
-    private final ObjectMapper objectMapper;
+    private final GeminiResponseParser responseParser;
     private final Random random;
     private final QuestionDAO questionDAO;
+    private final QuestionDeduplicator deduplicator;
+    private final GeminiResponseCache responseCache;
 
     public GeminiQuestionGeneratorService(String apiKey) {
+        this(apiKey, GEMINI_API_URL, DEFAULT_CHUNK_SIZE, DEFAULT_MAX_CONCURRENT_REQUESTS);
+    }
+
+    //apiUrl configurabil ca serviciul sa poata fi rulat si pe un server http local (stub)
+    public GeminiQuestionGeneratorService(String apiKey, String apiUrl, int chunkSize, int maxConcurrentRequests) {
         this.apiKey = apiKey;
-        this.httpClient = HttpClient.newHttpClient();
-        this.objectMapper = new ObjectMapper();
+        this.apiUrl = apiUrl;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.requestPermits = new Semaphore(Math.max(1, maxConcurrentRequests));
+        this.requestExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        this.httpClient = HttpClient.newBuilder()
+                .executor(requestExecutor)
+                .connectTimeout(Duration.ofMillis(CONNECT_TIMEOUT_MILLIS))
+                .build();
+        this.responseParser = new GeminiResponseParser();
         this.random = new Random();
         this.questionDAO = new QuestionDAO();
+        this.deduplicator = QuestionDeduplicator.getInstance();
+        this.responseCache = GeminiResponseCache.getInstance();
+    }
+
+    //un singur serviciu (client http + executor) pe proces, inchis la oprire
+    public static synchronized GeminiQuestionGeneratorService getInstance(String apiKey) {
+        if (instance == null) {
+            instance = new GeminiQuestionGeneratorService(apiKey);
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::close, "gemini-shutdown"));
+        }
+        return instance;
     }
 
     public List<Question> generateRandomQuestions(int count, int difficultyLevel) throws DatabaseException {
-        String[] topics = {
-            "Science and Technology", "History", "Geography", "Literature", 
-            "Mathematics", "Arts", "Sports", "General Knowledge", "Nature", "Culture"
-        };
-        
-        String selectedTopic = topics[random.nextInt(topics.length)];
+        String selectedTopic = TOPICS[random.nextInt(TOPICS.length)];
         return generateQuestionsForTopic(selectedTopic, count, difficultyLevel);
     }
 
@@ -47,43 +98,174 @@ public class GeminiQuestionGeneratorService {
     }
 
     private List<Question> generateQuestionsForTopic(String topic, int count, int difficultyLevel) throws DatabaseException {
+        try {
+            return generateQuestionsForTopicStreaming(topic, count, difficultyLevel, chunk -> { }).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof DatabaseException) {
+                throw (DatabaseException) cause;
+            }
+            throw new DatabaseException("Error generating AI questions: " + cause.getMessage(), cause);
+        }
+    }
+
+    public CompletableFuture<List<Question>> generateRandomQuestionsStreaming(int count, int difficultyLevel,
+                                                                              Consumer<List<Question>> onChunk) {
+        String selectedTopic = TOPICS[random.nextInt(TOPICS.length)];
+        return generateQuestionsForTopicStreaming(selectedTopic, count, difficultyLevel, onChunk);
+    }
+
+    public CompletableFuture<List<Question>> generateQuestionsForTopicStreaming(String topic, int count, int difficultyLevel,
+                                                                                Consumer<List<Question>> onChunk) {
+        return generateQuestionsForTopicStreaming(topic, count, difficultyLevel, true, onChunk);
+    }
+
+    //cererea e impartita in bucati mici trimise in paralel (cel mult requestPermits simultan);
+    //onChunk primeste intrebarile fiecarei bucati imediat ce sunt salvate, de pe un thread de fundal
+    //useCache = false cere intrebari noi (ex. rezerva ai, care nu trebuie sa primeasca aceleasi intrebari)
+    public CompletableFuture<List<Question>> generateQuestionsForTopicStreaming(String topic, int count, int difficultyLevel,
+                                                                                boolean useCache, Consumer<List<Question>> onChunk) {
         String difficulty = getDifficultyText(difficultyLevel);
-        String prompt = createPrompt(topic, count, difficulty);
-        
+        String cacheKey = GeminiResponseCache.keyFor(createPrompt(topic, count, difficulty, null));
+        if (useCache) {
+            List<Question> cached = cachedQuestions(cacheKey);
+            if (cached != null) {
+                System.out.println("Serving " + cached.size() + " cached AI questions for " + topic + " (" + difficulty + ")");
+                onChunk.accept(cached);
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+        Object callbackLock = new Object();
+        AtomicInteger exactDuplicates = new AtomicInteger();
+        AtomicInteger nearDuplicates = new AtomicInteger();
+        List<CompletableFuture<List<Question>>> chunks = new ArrayList<>();
+        boolean singleChunk = count <= chunkSize;
+        int firstFocus = random.nextInt(SUB_FOCUSES.length);
+
+        for (int offset = 0; offset < count; offset += chunkSize) {
+            int chunkCount = Math.min(chunkSize, count - offset);
+            String focus = singleChunk ? null : SUB_FOCUSES[(firstFocus + offset / chunkSize) % SUB_FOCUSES.length];
+            String prompt = createPrompt(topic, chunkCount, difficulty, focus);
+
+            CompletableFuture<List<Question>> chunk = CompletableFuture
+                    .runAsync(requestPermits::acquireUninterruptibly, requestExecutor)
+                    //orTimeout acopera si citirea corpului (timeout-ul cererii http se opreste la antete);
+                    //permisul se elibereaza pe etapa exterioara, deci si daca apelul arunca sincron
+                    .thenCompose(v -> callGeminiAPIAsync(prompt, topic, difficultyLevel)
+                            .orTimeout(REQUEST_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS))
+                    .whenComplete((parsed, error) -> requestPermits.release())
+                    .thenApplyAsync(parsed -> {
+                        try {
+                            //salveaza intrebarile generate in bd
+                            List<Question> saved = saveQuestionsToDatabase(parsed, exactDuplicates, nearDuplicates);
+                            synchronized (callbackLock) {
+                                onChunk.accept(saved);
+                            }
+                            return saved;
+                        } catch (DatabaseException e) {
+                            throw new CompletionException(e);
+                        }
+                    }, requestExecutor);
+            chunks.add(chunk);
+        }
+
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0]))
+                .handle((v, ignored) -> {
+                    List<Question> questions = new ArrayList<>();
+                    Throwable firstError = null;
+                    for (CompletableFuture<List<Question>> chunk : chunks) {
+                        try {
+                            questions.addAll(chunk.join());
+                        } catch (CompletionException e) {
+                            //o bucata esuata nu anuleaza restul
+                            System.err.println("AI question chunk failed: " + e.getCause().getMessage());
+                            if (firstError == null) {
+                                firstError = e.getCause();
+                            }
+                        }
+                    }
+                    if (exactDuplicates.get() + nearDuplicates.get() > 0) {
+                        System.out.println("Dedup for " + topic + ": rejected " + exactDuplicates.get() + " exact and "
+                                + nearDuplicates.get() + " near-duplicate AI questions");
+                    }
+                    if (questions.isEmpty() && firstError != null) {
+                        throw new CompletionException(firstError instanceof DatabaseException ? firstError
+                                : new DatabaseException("Error generating AI questions: " + firstError.getMessage(), firstError));
+                    }
+                    //doar un raspuns complet intra in cache: o lista scurta (bucati esuate, duplicate respinse)
+                    //s-ar servi altfel pana la expirare
+                    if (firstError == null && questions.size() == count) {
+                        responseCache.put(cacheKey, questions);
+                    }
+                    return questions;
+                });
+    }
+
+    //intrebarile din cache recitite dupa id, ca sa nu se serveasca intrebari modificate sau sterse intre timp
+    //null (si intrarea scoasa din cache) daca vreuna nu mai exista
+    private List<Question> cachedQuestions(String cacheKey) {
+        List<Question> cached = responseCache.get(cacheKey);
+        if (cached == null) {
+            return null;
+        }
+        int[] ids = new int[cached.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = cached.get(i).getId();
+        }
         try {
-            String response = callGeminiAPI(prompt);
-            List<Question> questions = parseAIResponse(response, topic, difficultyLevel);
-            
-            //salveaza intrebarile generate in bd
-            return saveQuestionsToDatabase(questions);
-            
-        } catch (IOException | InterruptedException e) {
-            throw new DatabaseException("Error generating AI questions: " + e.getMessage(), e);
+            List<Question> current = questionDAO.getQuestionsByIds(ids);
+            if (current.size() == ids.length) {
+                for (int i = 0; i < ids.length; i++) {
+                    current.get(i).setCategoryName(cached.get(i).getCategoryName());
+                }
+                return current;
+            }
+            responseCache.remove(cacheKey);
+        } catch (DatabaseException e) {
+            System.err.println("Could not revalidate cached AI questions: " + e.getMessage());
         }
+        return null;
     }
 
-    //salvare in bd
-    private List<Question> saveQuestionsToDatabase(List<Question> questions) throws DatabaseException {
+    //salvare in bd, toate intrebarile generate intr-un singur insert
+    //duplicatele (exacte sau aproape identice) sunt respinse inainte de insert
+    private List<Question> saveQuestionsToDatabase(List<Question> generated, AtomicInteger exactDuplicates,
+                                                   AtomicInteger nearDuplicates) throws DatabaseException {
         List<Question> savedQuestions = new ArrayList<>();
+        QuestionDeduplicator.DedupResult dedup = deduplicator.filter(generated);
+        exactDuplicates.addAndGet(dedup.getExactDuplicates());
+        nearDuplicates.addAndGet(dedup.getNearDuplicates());
+        List<Question> questions = dedup.getAccepted();
+        if (questions.isEmpty()) {
+            return savedQuestions;
+        }
         
         for (Question question : questions) {
-            try {
-                //gaseste/creeaza categoria
-                int categoryId = findOrCreateCategory(question.getCategoryName());
-                question.setCategoryId(categoryId);
-                
-                //salveaza intrebarea in bd
-                int questionId = questionDAO.addQuestion(question);
-                question.setId(questionId); // IMPORTANT: Setează ID-ul real din baza de date
-                
-                savedQuestions.add(question);
-                System.out.println("Saved AI question with ID: " + questionId);
-                
-            } catch (DatabaseException e) {
-                System.err.println("Failed to save AI question: " + e.getMessage());
-                //continua cu urmatoarea intrebare
+            //gaseste/creeaza categoria
+            int categoryId = findOrCreateCategory(question.getCategoryName());
+            question.setCategoryId(categoryId);
+        }
+
+        BatchInsertResult result;
+        try {
+            result = questionDAO.addQuestions(questions);
+        } catch (DatabaseException e) {
+            deduplicator.release(questions);
+            throw e;
+        }
+        List<Question> failed = new ArrayList<>();
+        for (int i = 0; i < questions.size(); i++) {
+            if (result.isInserted(i)) {
+                savedQuestions.add(questions.get(i)); // ID-ul real din baza de date e setat de DAO
+            } else {
+                System.err.println("Failed to save AI question: " + result.getFailures().get(i));
+                failed.add(questions.get(i));
             }
         }
+        //rezervarile din filter() pentru intrebarile neinserate
+        if (!failed.isEmpty()) {
+            deduplicator.release(failed);
+        }
         
         return savedQuestions;
     }
@@ -93,7 +275,9 @@ public class GeminiQuestionGeneratorService {
         return 1; // ID-ul categoriei "General Knowledge"
     }
 
-    private String createPrompt(String topic, int count, String difficulty) {
+    //focus = null pentru prompt-ul intreg (si pentru cheia din cache)
+    private String createPrompt(String topic, int count, String difficulty, String focus) {
+        String subject = focus != null ? topic + ", focusing on " + focus : topic;
         return String.format(
             "Generate %d multiple choice questions about %s with %s difficulty level. " +
             "Format the response as a valid JSON array where each question has this exact structure:\n" +
@@ -108,11 +292,12 @@ public class GeminiQuestionGeneratorService {
             "  }\n" +
             "]\n" +
             "IMPORTANT: Return ONLY the JSON array, no other text. Make sure questions are educational, accurate, and appropriate for a quiz game. Ensure correct option is one of A, B, C, or D.",
-            count, topic, difficulty
+            count, subject, difficulty
         );
     }
 
-    private String callGeminiAPI(String prompt) throws IOException, InterruptedException {
+    //raspunsul e parsat direct din stream, pe masura ce soseste, fara sa fie copiat intr-un String
+    private CompletableFuture<List<Question>> callGeminiAPIAsync(String prompt, String topic, int difficultyLevel) {
         String requestBody = String.format(
             "{\n" +
             "  \"contents\": [{\n" +
@@ -129,65 +314,31 @@ public class GeminiQuestionGeneratorService {
         );
 
         HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(GEMINI_API_URL + "?key=" + apiKey))
+                .uri(URI.create(apiUrl + "?key=" + apiKey))
                 .header("Content-Type", "application/json")
+                .timeout(Duration.ofMillis(REQUEST_TIMEOUT_MILLIS))
                 .POST(HttpRequest.BodyPublishers.ofString(requestBody))
                 .build();
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        
-        if (response.statusCode() != 200) {
-            throw new IOException("Gemini API error: " + response.statusCode() + " - " + response.body());
-        }
-
-        return response.body();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .thenApplyAsync(response -> {
+                    try (InputStream body = response.body()) {
+                        if (response.statusCode() != 200) {
+                            throw new CompletionException(new IOException("Gemini API error: " + response.statusCode()
+                                    + " - " + new String(body.readAllBytes(), StandardCharsets.UTF_8)));
+                        }
+                        return responseParser.parse(body, topic, difficultyLevel);
+                    } catch (IOException | DatabaseException e) {
+                        throw new CompletionException(e);
+                    }
+                }, requestExecutor);
     }
 
-    private List<Question> parseAIResponse(String apiResponse, String topic, int difficultyLevel) throws DatabaseException {
-        try {
-            JsonNode root = objectMapper.readTree(apiResponse);
-            String content = root.path("candidates").get(0)
-                               .path("content").path("parts").get(0)
-                               .path("text").asText();
-            
-            content = content.trim();
-            if (content.startsWith("```json")) {
-                content = content.substring(7);
-            }
-            if (content.endsWith("```")) {
-                content = content.substring(0, content.length() - 3);
-            }
-            content = content.trim();
-            
-            JsonNode questionsArray = objectMapper.readTree(content);
-            List<Question> questions = new ArrayList<>();
-            
-            for (JsonNode questionNode : questionsArray) {
-                Question question = new Question();
-                // NU setăm ID-ul aici - va fi setat când salvăm în baza de date
-                question.setCategoryId(1);
-                question.setCategoryName(topic);
-                question.setText(questionNode.path("question").asText());
-                question.setOptionA(questionNode.path("optionA").asText());
-                question.setOptionB(questionNode.path("optionB").asText());
-                question.setOptionC(questionNode.path("optionC").asText());
-                question.setOptionD(questionNode.path("optionD").asText());
-                
-                String correctOption = questionNode.path("correctOption").asText();
-                if (correctOption.length() > 0) {
-                    question.setCorrectOption(correctOption.charAt(0));
-                } else {
-                    question.setCorrectOption('A');
-                }
-                question.setDifficultyLevel(difficultyLevel);
-                questions.add(question);
-            }
-            
-            return questions;
-        } catch (Exception e) {
-            System.err.println("Debug - Raw API response: " + apiResponse);
-            throw new DatabaseException("Error parsing Gemini response: " + e.getMessage(), e);
-        }
+    //opreste cererile in curs; dupa close serviciul nu mai poate fi folosit
+    @Override
+    public void close() {
+        httpClient.shutdownNow();
+        requestExecutor.shutdownNow();
     }
 
     private String getDifficultyText(int level) {
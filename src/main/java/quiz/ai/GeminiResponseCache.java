@@ -0,0 +1,219 @@
+package quiz.ai;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import quiz.dao.QuestionDAO;
+import quiz.model.Question;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+//cache pentru raspunsurile gemini, cheia este hash-ul prompt-ului (subiect, dificultate, numar)
+//in memorie: LRU cu TTL; pe disc: fisier append-only reincarcat la pornire
+//intrarile care contin o intrebare modificata sau stearsa prin QuestionDAO se scot imediat;
+//pentru modificarile facute din alte procese apelantul reciteste id-urile din bd la hit
+public class GeminiResponseCache {
+    private static final int DEFAULT_MAX_ENTRIES = Integer.getInteger("quiz.geminiCache.maxEntries", 200);
+    private static final long DEFAULT_TTL_MILLIS = Long.getLong("quiz.geminiCache.ttlMillis", 15 * 60 * 1000L);
+    private static final Path DEFAULT_FILE = Paths.get(System.getProperty("user.home"), ".quizgame", "gemini-cache.jsonl");
+
+    private static final GeminiResponseCache INSTANCE = new GeminiResponseCache(DEFAULT_FILE, DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MILLIS);
+
+    private final Path file;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final ObjectMapper objectMapper;
+    private final LinkedHashMap<String, CacheEntry> entries;
+    private int linesOnDisk;
+
+    private long hits;
+    private long misses;
+
+    public GeminiResponseCache(Path file, int maxEntries, long ttlMillis) {
+        this.file = file;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                return size() > GeminiResponseCache.this.maxEntries;
+            }
+        };
+        loadFromDisk();
+        QuestionDAO.addUpdateListener(question -> removeQuestion(question.getId()));
+        QuestionDAO.addDeleteListener(this::removeQuestion);
+    }
+
+    public static GeminiResponseCache getInstance() {
+        return INSTANCE;
+    }
+
+    public static String keyFor(String prompt) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(prompt.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    //copii ale intrebarilor salvate, sau null daca nu exista / au expirat
+    public synchronized List<Question> get(String key) {
+        CacheEntry entry = entries.get(key);
+        if (entry == null || entry.expiresAt < System.currentTimeMillis()) {
+            if (entry != null) {
+                entries.remove(key);
+            }
+            misses++;
+            return null;
+        }
+        hits++;
+        List<Question> copies = new ArrayList<>(entry.questions.size());
+        for (Question q : entry.questions) {
+            copies.add(q.copy());
+        }
+        return copies;
+    }
+
+    public synchronized void put(String key, List<Question> questions) {
+        if (questions.isEmpty()) {
+            return;
+        }
+        CacheEntry entry = new CacheEntry();
+        entry.key = key;
+        entry.expiresAt = System.currentTimeMillis() + ttlMillis;
+        entry.questions = new ArrayList<>();
+        for (Question q : questions) {
+            entry.questions.add(q.copy());
+        }
+        entries.put(key, entry);
+        append(entry);
+    }
+
+    //intrare invalida (ex. o intrebare din ea nu mai exista); pe disc se scrie o linie expirata peste ea
+    public synchronized void remove(String key) {
+        if (entries.remove(key) == null) {
+            return;
+        }
+        CacheEntry tombstone = new CacheEntry();
+        tombstone.key = key;
+        tombstone.expiresAt = 0;
+        tombstone.questions = new ArrayList<>();
+        append(tombstone);
+    }
+
+    //scoate toate intrarile in care apare intrebarea
+    public synchronized void removeQuestion(int questionId) {
+        List<String> stale = new ArrayList<>();
+        for (CacheEntry entry : entries.values()) {
+            for (Question q : entry.questions) {
+                if (q.getId() == questionId) {
+                    stale.add(entry.key);
+                    break;
+                }
+            }
+        }
+        for (String key : stale) {
+            remove(key);
+        }
+    }
+
+    private void loadFromDisk() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                linesOnDisk++;
+                try {
+                    CacheEntry entry = objectMapper.readValue(line, CacheEntry.class);
+                    if (entry.expiresAt >= now && entry.questions != null) {
+                        entries.put(entry.key, entry);
+                    } else {
+                        entries.remove(entry.key);
+                    }
+                } catch (IOException e) {
+                    //linie incompleta (ex. oprire in timpul scrierii), se ignora
+                }
+            }
+            System.out.println("Gemini response cache loaded " + entries.size() + " entries from " + file);
+        } catch (IOException e) {
+            System.err.println("Could not read Gemini cache file " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void append(CacheEntry entry) {
+        try {
+            Files.createDirectories(file.getParent());
+            if (linesOnDisk >= maxEntries * 2) {
+                compact();
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(objectMapper.writeValueAsString(entry));
+                writer.newLine();
+            }
+            linesOnDisk++;
+        } catch (IOException e) {
+            System.err.println("Could not write Gemini cache file " + file + ": " + e.getMessage());
+        }
+    }
+
+    //rescrie fisierul doar cu intrarile inca valide
+    private void compact() throws IOException {
+        long now = System.currentTimeMillis();
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        int written = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            Iterator<CacheEntry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                CacheEntry entry = it.next();
+                if (entry.expiresAt < now) {
+                    it.remove();
+                    continue;
+                }
+                writer.write(objectMapper.writeValueAsString(entry));
+                writer.newLine();
+                written++;
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        linesOnDisk = written;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public static class CacheEntry {
+        public String key;
+        public long expiresAt;
+        public List<Question> questions;
+    }
+}
@@ -0,0 +1,154 @@
+package quiz.ai;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import quiz.exceptions.DatabaseException;
+import quiz.model.Question;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+//parser in flux pentru raspunsurile gemini: de la InputStream direct la obiecte Question,
+//fara arbori JsonNode si fara copii intermediare ale textului generat
+public class GeminiResponseParser {
+    private final JsonFactory jsonFactory;
+
+    public GeminiResponseParser(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    public GeminiResponseParser() {
+        this(new JsonFactory());
+    }
+
+    public List<Question> parse(InputStream body, String topic, int difficultyLevel) throws DatabaseException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            return parse(parser, topic, difficultyLevel);
+        } catch (IOException e) {
+            throw new DatabaseException("Error parsing Gemini response: " + e.getMessage(), e);
+        }
+    }
+
+    public List<Question> parse(String body, String topic, int difficultyLevel) throws DatabaseException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            return parse(parser, topic, difficultyLevel);
+        } catch (IOException e) {
+            throw new DatabaseException("Error parsing Gemini response: " + e.getMessage(), e);
+        }
+    }
+
+    //candidates[0].content.parts[*].text -> se parseaza direct din buffer-ul parser-ului
+    private List<Question> parse(JsonParser parser, String topic, int difficultyLevel) throws IOException, DatabaseException {
+        List<Question> questions = new ArrayList<>();
+        if (parser.nextToken() != JsonToken.START_OBJECT || !moveToField(parser, "candidates")
+                || parser.nextToken() != JsonToken.START_ARRAY || parser.nextToken() != JsonToken.START_OBJECT
+                || !moveToField(parser, "content") || parser.nextToken() != JsonToken.START_OBJECT
+                || !moveToField(parser, "parts") || parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new DatabaseException("Error parsing Gemini response: no candidates[0].content.parts in response");
+        }
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("text".equals(field) && parser.currentToken() == JsonToken.VALUE_STRING) {
+                    //tabloul de caractere ramane valid pana la urmatorul token
+                    parseQuestions(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength(),
+                            topic, difficultyLevel, questions);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return questions;
+    }
+
+    //textul generat poate avea ```json ... ``` in jur sau poate fi taiat (maxOutputTokens);
+    //se pastreaza intrebarile complete
+    private void parseQuestions(char[] text, int offset, int length, String topic, int difficultyLevel,
+                                List<Question> questions) throws IOException {
+        int end = offset + length;
+        int start = offset;
+        while (start < end && text[start] != '[') {
+            start++;
+        }
+        if (start == end) {
+            return;
+        }
+
+        try (JsonParser inner = jsonFactory.createParser(text, start, end - start)) {
+            inner.nextToken();
+            while (inner.nextToken() == JsonToken.START_OBJECT) {
+                Question question = readQuestion(inner, topic, difficultyLevel);
+                if (question.getText() != null) {
+                    questions.add(question);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            //raspuns trunchiat: ultima intrebare incompleta se ignora
+            System.err.println("Gemini output truncated after " + questions.size() + " complete questions: " + e.getOriginalMessage());
+        }
+    }
+
+    private Question readQuestion(JsonParser inner, String topic, int difficultyLevel) throws IOException {
+        Question question = new Question();
+        question.setCategoryId(1);
+        question.setCategoryName(topic);
+        question.setDifficultyLevel(difficultyLevel);
+        question.setCorrectOption('A');
+
+        while (inner.nextToken() == JsonToken.FIELD_NAME) {
+            String field = inner.getCurrentName();
+            JsonToken value = inner.nextToken();
+            if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                inner.skipChildren();
+                continue;
+            }
+            switch (field) {
+                case "question":
+                    question.setText(inner.getText());
+                    break;
+                case "optionA":
+                    question.setOptionA(inner.getText());
+                    break;
+                case "optionB":
+                    question.setOptionB(inner.getText());
+                    break;
+                case "optionC":
+                    question.setOptionC(inner.getText());
+                    break;
+                case "optionD":
+                    question.setOptionD(inner.getText());
+                    break;
+                case "correctOption":
+                    if (inner.getTextLength() > 0) {
+                        question.setCorrectOption(inner.getTextCharacters()[inner.getTextOffset()]);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (inner.currentToken() != JsonToken.END_OBJECT) {
+            throw new JsonParseException(inner, "Unexpected end of question object");
+        }
+        return question;
+    }
+
+    //avanseaza in obiectul curent pana la campul cerut, sarind peste celelalte valori
+    private boolean moveToField(JsonParser parser, String name) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            if (name.equals(parser.getCurrentName())) {
+                return true;
+            }
+            parser.nextToken();
+            parser.skipChildren();
+        }
+        return false;
+    }
+}
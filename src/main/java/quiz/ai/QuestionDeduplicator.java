@@ -0,0 +1,404 @@
+package quiz.ai;
+
+import quiz.dao.QuestionDAO;
+import quiz.exceptions.DatabaseException;
+import quiz.model.Question;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+//filtru de duplicate pentru intrebarile generate de ai, aplicat inainte de insert:
+//hash pe continutul normalizat (duplicate exacte) + semnatura MinHash cu index LSH (aproape duplicate)
+//intrebarile acceptate de filter() sunt rezervate in index imediat, ca doua loturi paralele sa nu accepte
+//acelasi duplicat; apelantul elibereaza cu release() rezervarile pentru care insertul a esuat
+//intrebarile modificate sau sterse prin QuestionDAO ies din index (listener-e de update/delete)
+//tabela se citeste fara monitorul obiectului, ca listener-ele (si deci insert/update/delete din QuestionDAO)
+//sa nu astepte dupa incarcare; modificarile facute intre timp se aplica peste paginile citite
+public class QuestionDeduplicator {
+    private static final int SHINGLE_SIZE = 5;
+    private static final int BANDS = 8;
+    private static final int ROWS_PER_BAND = 4;
+    private static final int SIGNATURE_SIZE = BANDS * ROWS_PER_BAND;
+    private static final double NEAR_DUPLICATE_THRESHOLD = 0.8;
+    private static final int LOAD_PAGE_SIZE = 10_000;
+    //dupa o incarcare esuata, urmatoarea incercare nu mai devreme de atat
+    private static final long LOAD_RETRY_MILLIS = 30_000;
+    private static final long[] SEEDS = new long[SIGNATURE_SIZE];
+
+    static {
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            seed = mix64(seed + i);
+            SEEDS[i] = seed;
+        }
+    }
+
+    private static final QuestionDeduplicator INSTANCE = new QuestionDeduplicator(new QuestionDAO());
+
+    private final QuestionDAO questionDAO;
+    //hash -> cate intrebari indexate il au (pot exista duplicate vechi in bd)
+    private final Map<Long, Integer> contentHashes = new HashMap<>();
+    //semnaturile stocate una dupa alta intr-un singur int[]
+    private int[] signatures = new int[SIGNATURE_SIZE * 1024];
+    private long[] hashesByPosition = new long[1024];
+    private int indexedCount;
+    //pozitii scoase din index (rezervari eliberate, intrebari modificate/sterse); raman in lanturile LSH, dar sunt sarite
+    private final BitSet removed = new BitSet();
+    //hash -> pozitie, pentru intrebarile acceptate de filter() si inca neconfirmate de insert
+    private final Map<Long, Integer> reserved = new HashMap<>();
+    //id intrebare -> pozitie, pentru intrebarile deja in bd
+    private final Map<Integer, Integer> positionsById = new HashMap<>();
+    //pentru fiecare banda: cheie -> ultima pozitie; next[] inlantuieste pozitiile cu aceeasi cheie
+    private final List<Map<Long, Integer>> bandHeads = new ArrayList<>();
+    private int[] next = new int[BANDS * 1024];
+    private volatile boolean loaded;
+    //o singura incarcare odata; filter() asteapta aici, nu pe monitor
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private long nextLoadAttemptAt;
+    //modificari venite in timpul incarcarii (id -> continut nou, respectiv id-uri sterse)
+    private boolean loading;
+    private final Map<Integer, Question> changedWhileLoading = new HashMap<>();
+    private final Set<Integer> deletedWhileLoading = new HashSet<>();
+
+    private long totalExactRejected;
+    private long totalNearRejected;
+
+    public QuestionDeduplicator(QuestionDAO questionDAO) {
+        this.questionDAO = questionDAO;
+        for (int b = 0; b < BANDS; b++) {
+            bandHeads.add(new HashMap<>());
+        }
+        QuestionDAO.addInsertListener(this::onQuestionInserted);
+        QuestionDAO.addUpdateListener(this::onQuestionUpdated);
+        QuestionDAO.addDeleteListener(this::onQuestionDeleted);
+    }
+
+    public static QuestionDeduplicator getInstance() {
+        return INSTANCE;
+    }
+
+    public static class DedupResult {
+        private final List<Question> accepted;
+        private final int exactDuplicates;
+        private final int nearDuplicates;
+
+        DedupResult(List<Question> accepted, int exactDuplicates, int nearDuplicates) {
+            this.accepted = accepted;
+            this.exactDuplicates = exactDuplicates;
+            this.nearDuplicates = nearDuplicates;
+        }
+
+        public List<Question> getAccepted() { return accepted; }
+        public int getExactDuplicates() { return exactDuplicates; }
+        public int getNearDuplicates() { return nearDuplicates; }
+        public int getRejected() { return exactDuplicates + nearDuplicates; }
+    }
+
+    //pastreaza doar intrebarile noi (fata de bd si fata de celelalte din acelasi lot)
+    public DedupResult filter(List<Question> candidates) {
+        ensureLoaded();
+        synchronized (this) {
+            return filterLoaded(candidates);
+        }
+    }
+
+    private DedupResult filterLoaded(List<Question> candidates) {
+        List<Question> accepted = new ArrayList<>();
+        Set<Long> batchHashes = new HashSet<>();
+        List<int[]> batchSignatures = new ArrayList<>();
+        List<Long> acceptedHashes = new ArrayList<>();
+        int exact = 0;
+        int near = 0;
+
+        for (Question question : candidates) {
+            long hash = contentHash(question);
+            if (contentHashes.containsKey(hash) || !batchHashes.add(hash)) {
+                exact++;
+                continue;
+            }
+            int[] signature = signature(normalize(question.getText()));
+            if (hasNearDuplicate(signature) || hasNearDuplicate(signature, batchSignatures)) {
+                near++;
+                continue;
+            }
+            batchSignatures.add(signature);
+            acceptedHashes.add(hash);
+            accepted.add(question);
+        }
+        for (int i = 0; i < accepted.size(); i++) {
+            reserved.put(acceptedHashes.get(i), index(acceptedHashes.get(i), batchSignatures.get(i)));
+        }
+
+        totalExactRejected += exact;
+        totalNearRejected += near;
+        return new DedupResult(accepted, exact, near);
+    }
+
+    //intrebari acceptate de filter() care nu au ajuns in bd; pot fi acceptate din nou
+    public synchronized void release(List<Question> questions) {
+        for (Question question : questions) {
+            Integer position = reserved.remove(contentHash(question));
+            if (position != null) {
+                unindex(position);
+            }
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loadLock.lock();
+        try {
+            if (loaded || System.currentTimeMillis() < nextLoadAttemptAt) {
+                return;
+            }
+            synchronized (this) {
+                loading = true;
+            }
+            //hash-urile si semnaturile se calculeaza tot aici, fara monitor
+            List<LoadedQuestion> rows = new ArrayList<>();
+            try {
+                int afterId = 0;
+                List<Question> page;
+                do {
+                    page = questionDAO.getQuestionsAfterId(afterId, LOAD_PAGE_SIZE);
+                    for (Question q : page) {
+                        rows.add(new LoadedQuestion(q.getId(), contentHash(q), signature(normalize(q.getText()))));
+                        afterId = q.getId();
+                    }
+                } while (page.size() == LOAD_PAGE_SIZE);
+            } catch (DatabaseException e) {
+                //pana la urmatoarea incercare se filtreaza doar in interiorul lotului (si fata de rezervari)
+                System.err.println("Could not load dedup index: " + e.getMessage());
+                nextLoadAttemptAt = System.currentTimeMillis() + LOAD_RETRY_MILLIS;
+                synchronized (this) {
+                    loading = false;
+                    changedWhileLoading.clear();
+                    deletedWhileLoading.clear();
+                }
+                return;
+            }
+            synchronized (this) {
+                for (LoadedQuestion row : rows) {
+                    //deja indexate (rezervari confirmate) sau modificate/sterse intre timp
+                    if (!positionsById.containsKey(row.id) && !changedWhileLoading.containsKey(row.id)
+                            && !deletedWhileLoading.contains(row.id)) {
+                        positionsById.put(row.id, index(row.hash, row.signature));
+                    }
+                }
+                for (Question q : changedWhileLoading.values()) {
+                    if (!positionsById.containsKey(q.getId())) {
+                        positionsById.put(q.getId(), index(q));
+                    }
+                }
+                changedWhileLoading.clear();
+                deletedWhileLoading.clear();
+                loading = false;
+                loaded = true;
+                System.out.println("Dedup index loaded " + indexedCount + " questions");
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    //intrebarile rezervate de filter() sunt deja in index; insertul doar confirma rezervarea
+    private synchronized void onQuestionInserted(Question question) {
+        Integer position = reserved.remove(contentHash(question));
+        if (position == null) {
+            if (loaded) {
+                position = index(question);
+            } else if (loading) {
+                changedWhileLoading.put(question.getId(), question.copy());
+            }
+        }
+        if (position != null) {
+            positionsById.put(question.getId(), position);
+        }
+    }
+
+    //continutul vechi iese din index; cel nou intra daca indexul e deja incarcat (altfel il aduce incarcarea)
+    private synchronized void onQuestionUpdated(Question question) {
+        Integer position = positionsById.remove(question.getId());
+        if (position != null) {
+            unindex(position);
+        }
+        if (loaded) {
+            positionsById.put(question.getId(), index(question));
+        } else if (loading) {
+            changedWhileLoading.put(question.getId(), question.copy());
+        }
+    }
+
+    private synchronized void onQuestionDeleted(int id) {
+        Integer position = positionsById.remove(id);
+        if (position != null) {
+            unindex(position);
+        }
+        if (loading) {
+            changedWhileLoading.remove(id);
+            deletedWhileLoading.add(id);
+        }
+    }
+
+    private int index(Question question) {
+        return index(contentHash(question), signature(normalize(question.getText())));
+    }
+
+    private int index(long hash, int[] signature) {
+        contentHashes.merge(hash, 1, Integer::sum);
+
+        int position = indexedCount++;
+        if ((position + 1) * SIGNATURE_SIZE > signatures.length) {
+            signatures = Arrays.copyOf(signatures, signatures.length * 2);
+            next = Arrays.copyOf(next, next.length * 2);
+        }
+        if (position == hashesByPosition.length) {
+            hashesByPosition = Arrays.copyOf(hashesByPosition, hashesByPosition.length * 2);
+        }
+        hashesByPosition[position] = hash;
+        System.arraycopy(signature, 0, signatures, position * SIGNATURE_SIZE, SIGNATURE_SIZE);
+        for (int b = 0; b < BANDS; b++) {
+            Integer previous = bandHeads.get(b).put(bandKey(signature, b), position);
+            next[position * BANDS + b] = previous == null ? -1 : previous;
+        }
+        return position;
+    }
+
+    private void unindex(int position) {
+        if (removed.get(position)) {
+            return;
+        }
+        removed.set(position);
+        contentHashes.computeIfPresent(hashesByPosition[position], (hash, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private boolean hasNearDuplicate(int[] signature) {
+        Set<Integer> checked = new HashSet<>();
+        for (int b = 0; b < BANDS; b++) {
+            Integer head = bandHeads.get(b).get(bandKey(signature, b));
+            for (int position = head == null ? -1 : head; position != -1; position = next[position * BANDS + b]) {
+                if (checked.add(position) && !removed.get(position) && similarity(signature, signatures, position * SIGNATURE_SIZE) >= NEAR_DUPLICATE_THRESHOLD) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasNearDuplicate(int[] signature, List<int[]> others) {
+        for (int[] other : others) {
+            if (similarity(signature, other, 0) >= NEAR_DUPLICATE_THRESHOLD) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //fractiunea de minime egale estimeaza similaritatea Jaccard a shingle-urilor
+    private static double similarity(int[] signature, int[] other, int offset) {
+        int equal = 0;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            if (signature[i] == other[offset + i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIGNATURE_SIZE;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = Normalizer.normalize(text, Normalizer.Form.NFKD).replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT).replaceAll("[^\\p{Alnum}]+", " ").trim();
+    }
+
+    //textul si variantele normalizate; ordinea variantelor nu conteaza
+    private static long contentHash(Question question) {
+        String[] options = {
+                normalize(question.getOptionA()), normalize(question.getOptionB()),
+                normalize(question.getOptionC()), normalize(question.getOptionD())
+        };
+        Arrays.sort(options);
+        String content = normalize(question.getText()) + "\u0000" + String.join("\u0000", options);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < 8; i++) {
+                hash = (hash << 8) | (digest[i] & 0xFF);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static int[] signature(String normalizedText) {
+        int[] signature = new int[SIGNATURE_SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        int shingles = Math.max(1, normalizedText.length() - SHINGLE_SIZE + 1);
+        for (int s = 0; s < shingles; s++) {
+            int end = Math.min(normalizedText.length(), s + SHINGLE_SIZE);
+            long shingleHash = mix64(normalizedText.substring(s, end).hashCode());
+            for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                int h = (int) mix64(shingleHash ^ SEEDS[i]);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private static long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int r = 0; r < ROWS_PER_BAND; r++) {
+            key = mix64(key * 31 + signature[band * ROWS_PER_BAND + r]);
+        }
+        return key;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    private static final class LoadedQuestion {
+        private final int id;
+        private final long hash;
+        private final int[] signature;
+
+        private LoadedQuestion(int id, long hash, int[] signature) {
+            this.id = id;
+            this.hash = hash;
+            this.signature = signature;
+        }
+    }
+
+    public synchronized long getTotalExactRejected() {
+        return totalExactRejected;
+    }
+
+    public synchronized long getTotalNearRejected() {
+        return totalNearRejected;
+    }
+
+    public synchronized int getIndexedCount() {
+        return indexedCount;
+    }
+}
@@ -0,0 +1,15 @@
+package quiz.api;
+
+//eroare de cerere cu statusul http de intors (400, 404, 409 ...); erorile de bd raman DatabaseException
+public class ApiException extends RuntimeException {
+    private final int status;
+
+    public ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
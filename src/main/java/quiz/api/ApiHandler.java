@@ -0,0 +1,218 @@
+package quiz.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import quiz.exceptions.DatabaseException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+
+//baza pentru handler-ele rest: rutare dupa segmentele caii, json in/out, erori mapate pe statusuri
+//si raspunsuri cu ETag (GET conditionat cu If-None-Match -> 304 fara corp)
+public abstract class ApiHandler implements HttpHandler {
+    protected static final ObjectMapper MAPPER = createMapper();
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    //foreign_key_violation in postgres
+    private static final String FOREIGN_KEY_VIOLATION = "23503";
+
+    private final String contextPath;
+
+    protected ApiHandler(String contextPath) {
+        this.contextPath = contextPath;
+    }
+
+    private static ObjectMapper createMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        //fara modulul jsr310: datele ies ca text iso (2024-05-01T10:15:30)
+        SimpleModule dates = new SimpleModule();
+        dates.addSerializer(LocalDateTime.class, ToStringSerializer.instance);
+        mapper.registerModule(dates);
+        return mapper;
+    }
+
+    //segments = calea de dupa context, impartita dupa '/'; ex. /api/quizzes/12/finish -> [12, finish]
+    protected abstract void handle(HttpExchange exchange, String method, String[] segments) throws IOException, DatabaseException;
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath().substring(contextPath.length());
+            String trimmed = path.replaceAll("^/+|/+$", "");
+            String[] segments = trimmed.isEmpty() ? new String[0] : trimmed.split("/+");
+            handle(exchange, exchange.getRequestMethod().toUpperCase(), segments);
+        } catch (ApiException e) {
+            sendError(exchange, e.getStatus(), e.getMessage());
+        } catch (JsonProcessingException e) {
+            sendError(exchange, 400, "Invalid JSON: " + e.getOriginalMessage());
+        } catch (DatabaseException e) {
+            if (isForeignKeyViolation(e)) {
+                sendError(exchange, 409, "Resource is still referenced by other records");
+            } else {
+                System.err.println("API database error on " + exchange.getRequestURI() + ": " + e.getMessage());
+                sendError(exchange, 500, "Database error");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("API error on " + exchange.getRequestURI() + ": " + e);
+            sendError(exchange, 500, "Internal error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static boolean isForeignKeyViolation(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof SQLException && FOREIGN_KEY_VIOLATION.equals(((SQLException) t).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected <T> T readJson(HttpExchange exchange, Class<T> type) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            byte[] bytes = body.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new ApiException(413, "Request body too large");
+            }
+            if (bytes.length == 0) {
+                throw new ApiException(400, "Request body is required");
+            }
+            return MAPPER.readValue(bytes, type);
+        }
+    }
+
+    protected void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        send(exchange, status, MAPPER.writeValueAsBytes(body));
+    }
+
+    //raspuns cache-uibil: ETag din continut; daca clientul are deja versiunea, 304 fara corp
+    protected void sendCacheable(HttpExchange exchange, Object body, String cacheControl) throws IOException {
+        sendCacheable(exchange, CachedBody.of(body), cacheControl);
+    }
+
+    protected void sendCacheable(HttpExchange exchange, CachedBody body, String cacheControl) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("ETag", body.etag);
+        headers.set("Cache-Control", cacheControl);
+        if (matches(exchange.getRequestHeaders().getFirst("If-None-Match"), body.etag)) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        send(exchange, 200, body.bytes);
+    }
+
+    protected void sendNoContent(HttpExchange exchange) throws IOException {
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) {
+        try {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", status);
+            error.put("error", message);
+            exchange.getResponseHeaders().set("Cache-Control", "no-store");
+            send(exchange, status, MAPPER.writeValueAsBytes(error));
+        } catch (IOException e) {
+            System.err.println("Could not send API error response: " + e.getMessage());
+        }
+    }
+
+    private void send(HttpExchange exchange, int status, byte[] bytes) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    //If-None-Match poate contine mai multe etag-uri, variante slabe (W/) sau *
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected static int parseId(String value, String name) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Invalid " + name + ": " + value);
+        }
+    }
+
+    protected static Map<String, String> queryParams(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.put(key, value);
+        }
+        return params;
+    }
+
+    protected static ApiException methodNotAllowed(String method) {
+        return new ApiException(405, "Method " + method + " not allowed here");
+    }
+
+    protected static ApiException notFound(String what) {
+        return new ApiException(404, what + " not found");
+    }
+
+    //corpul json deja serializat + etag-ul lui; se poate tine in memorie pentru resursele care nu se mai schimba
+    protected static final class CachedBody {
+        private final byte[] bytes;
+        private final String etag;
+
+        private CachedBody(byte[] bytes, String etag) {
+            this.bytes = bytes;
+            this.etag = etag;
+        }
+
+        static CachedBody of(Object body) throws JsonProcessingException {
+            byte[] bytes = MAPPER.writeValueAsBytes(body);
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+                return new CachedBody(bytes, "\"" + HexFormat.of().formatHex(digest, 0, 12) + "\"");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+}
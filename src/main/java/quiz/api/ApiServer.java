@@ -0,0 +1,81 @@
+package quiz.api;
+
+import com.sun.net.httpserver.HttpServer;
+import quiz.dao.AchievementDAO;
+import quiz.dao.AnalyticsDAO;
+import quiz.dao.QuestionDAO;
+import quiz.dao.QuizSessionDAO;
+import quiz.dao.ScoreDAO;
+import quiz.dao.UserDAO;
+import quiz.exceptions.DatabaseException;
+import quiz.service.CategoryCache;
+import quiz.service.LeaderboardService;
+import quiz.service.QuizService;
+import quiz.service.UserPerformanceService;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+//api rest peste aceleasi controller-e, servicii si dao-uri ca aplicatia swing
+//fiecare cerere ruleaza pe propriul thread virtual: apelurile jdbc blocante nu tin ocupate thread-uri de platforma
+//(numarul de cereri care lucreaza simultan cu bd e limitat oricum de pool-ul din DBUtil)
+//nu are autentificare: userId vine in cerere, ca in serverul multiplayer
+public class ApiServer {
+    private static final int DEFAULT_PORT = Integer.getInteger("quiz.api.port", 8080);
+    private static final int BACKLOG = Integer.getInteger("quiz.api.backlog", 1024);
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ApiServer(int port) throws IOException {
+        QuestionDAO questionDAO = new QuestionDAO();
+        QuizSessionDAO quizSessionDAO = new QuizSessionDAO();
+
+        server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        server.createContext("/api/quizzes", new QuizApiHandler("/api/quizzes", new UserDAO(), questionDAO,
+                quizSessionDAO, new ScoreDAO(), new AchievementDAO(), new AnalyticsDAO(), new QuizService()));
+        server.createContext("/api/questions", new QuestionApiHandler("/api/questions", questionDAO, CategoryCache.getInstance()));
+        server.createContext("/api/categories", new CategoryApiHandler("/api/categories", CategoryCache.getInstance()));
+        server.createContext("/api/users", new UserApiHandler("/api/users", UserPerformanceService.getInstance()));
+        server.createContext("/api/leaderboards", new LeaderboardApiHandler("/api/leaderboards", LeaderboardService.getInstance()));
+        server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+        System.out.println("Quiz REST API listening on port " + getPort());
+    }
+
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public static void main(String[] args) {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        try {
+            ApiServer api = new ApiServer(port);
+            rebuildLeaderboards();
+            api.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(api::stop, "quiz-api-shutdown"));
+        } catch (IOException e) {
+            System.err.println("Could not start REST API: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    //clasamentele se construiesc inainte de primele cereri; daca nu merge, se reincearca la primul acces
+    private static void rebuildLeaderboards() {
+        try {
+            LeaderboardService.getInstance().rebuild();
+        } catch (DatabaseException e) {
+            System.err.println("Could not rebuild leaderboards at startup: " + e.getMessage());
+        }
+    }
+}
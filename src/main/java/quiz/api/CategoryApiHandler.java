@@ -0,0 +1,44 @@
+package quiz.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import quiz.exceptions.DatabaseException;
+import quiz.model.Category;
+import quiz.service.CategoryCache;
+
+import java.io.IOException;
+import java.util.List;
+
+//GET /api/categories
+//lista vine din CategoryCache; json-ul si etag-ul se refac doar cand cache-ul s-a reincarcat (alta instanta de lista)
+public class CategoryApiHandler extends ApiHandler {
+    private static final String CACHE_CONTROL = "public, max-age=60";
+
+    private final CategoryCache categoryCache;
+    private List<Category> cachedFor;
+    private CachedBody cachedBody;
+
+    public CategoryApiHandler(String contextPath, CategoryCache categoryCache) {
+        super(contextPath);
+        this.categoryCache = categoryCache;
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange, String method, String[] segments) throws IOException, DatabaseException {
+        if (segments.length != 0) {
+            throw notFound("Resource");
+        }
+        if (!method.equals("GET") && !method.equals("HEAD")) {
+            throw methodNotAllowed(method);
+        }
+        sendCacheable(exchange, body(), CACHE_CONTROL);
+    }
+
+    private synchronized CachedBody body() throws IOException, DatabaseException {
+        List<Category> categories = categoryCache.getAllCategories();
+        if (categories != cachedFor) {
+            cachedBody = CachedBody.of(categories);
+            cachedFor = categories;
+        }
+        return cachedBody;
+    }
+}
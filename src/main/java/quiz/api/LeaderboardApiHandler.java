@@ -0,0 +1,92 @@
+package quiz.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import quiz.exceptions.DatabaseException;
+import quiz.model.LeaderboardEntry;
+import quiz.service.LeaderboardService;
+import quiz.service.LeaderboardService.Scope;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+//clasamente, citite din LeaderboardService (fara drum la bd):
+//  GET /api/leaderboards/{global|daily|weekly}?limit=10
+//  GET /api/leaderboards/categories/{id}?limit=10
+//  GET /api/leaderboards/{...}/users/{userId}?radius=5   jucatorul si vecinii lui din clasament
+public class LeaderboardApiHandler extends ApiHandler {
+    private static final int MAX_LIMIT = 100;
+    private static final int MAX_RADIUS = 50;
+    private static final String CACHE_CONTROL = "public, max-age=5";
+
+    private final LeaderboardService leaderboardService;
+
+    public LeaderboardApiHandler(String contextPath, LeaderboardService leaderboardService) {
+        super(contextPath);
+        this.leaderboardService = leaderboardService;
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange, String method, String[] segments) throws IOException, DatabaseException {
+        if (!method.equals("GET") && !method.equals("HEAD")) {
+            throw methodNotAllowed(method);
+        }
+        if (segments.length == 0) {
+            throw notFound("Resource");
+        }
+
+        Scope scope;
+        int categoryId = 0;
+        int next;
+        if (segments[0].equals("categories") && segments.length >= 2) {
+            scope = Scope.CATEGORY;
+            categoryId = parseId(segments[1], "category id");
+            next = 2;
+        } else {
+            scope = parseScope(segments[0]);
+            next = 1;
+        }
+
+        Map<String, String> params = queryParams(exchange);
+        if (segments.length == next) {
+            int limit = boundedParam(params, "limit", 10, MAX_LIMIT);
+            sendCacheable(exchange, leaderboardService.getTop(scope, categoryId, limit), CACHE_CONTROL);
+            return;
+        }
+        if (segments.length == next + 2 && segments[next].equals("users")) {
+            int userId = parseId(segments[next + 1], "user id");
+            int radius = boundedParam(params, "radius", 5, MAX_RADIUS);
+            List<LeaderboardEntry> around = leaderboardService.getAround(scope, categoryId, userId, radius);
+            if (around.isEmpty()) {
+                throw notFound("User " + userId + " in this leaderboard");
+            }
+            sendCacheable(exchange, around, CACHE_CONTROL);
+            return;
+        }
+        throw notFound("Resource");
+    }
+
+    private static Scope parseScope(String value) {
+        switch (value) {
+            case "global":
+                return Scope.GLOBAL;
+            case "daily":
+                return Scope.DAILY;
+            case "weekly":
+                return Scope.WEEKLY;
+            default:
+                throw notFound("Leaderboard " + value);
+        }
+    }
+
+    private static int boundedParam(Map<String, String> params, String name, int defaultValue, int max) {
+        if (!params.containsKey(name)) {
+            return defaultValue;
+        }
+        int value = parseId(params.get(name), name);
+        if (value < 0 || value > max) {
+            throw new ApiException(400, name + " must be between 0 and " + max);
+        }
+        return value;
+    }
+}
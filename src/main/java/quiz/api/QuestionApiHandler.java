@@ -0,0 +1,123 @@
+package quiz.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import quiz.dao.QuestionDAO;
+import quiz.exceptions.DatabaseException;
+import quiz.model.Question;
+import quiz.service.CategoryCache;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+//CRUD pe intrebari:
+//  GET    /api/questions?afterId=0&limit=50   pagina dupa id (keyset)
+//  GET    /api/questions/{id}
+//  POST   /api/questions
+//  PUT    /api/questions/{id}
+//  DELETE /api/questions/{id}                 409 daca intrebarea are deja raspunsuri
+public class QuestionApiHandler extends ApiHandler {
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final String CACHE_CONTROL = "private, max-age=0, must-revalidate";
+
+    private final QuestionDAO questionDAO;
+    private final CategoryCache categoryCache;
+
+    public QuestionApiHandler(String contextPath, QuestionDAO questionDAO, CategoryCache categoryCache) {
+        super(contextPath);
+        this.questionDAO = questionDAO;
+        this.categoryCache = categoryCache;
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange, String method, String[] segments) throws IOException, DatabaseException {
+        if (segments.length == 0) {
+            switch (method) {
+                case "GET":
+                case "HEAD":
+                    list(exchange);
+                    return;
+                case "POST":
+                    create(exchange);
+                    return;
+                default:
+                    throw methodNotAllowed(method);
+            }
+        }
+        if (segments.length != 1) {
+            throw notFound("Resource");
+        }
+
+        int id = parseId(segments[0], "question id");
+        switch (method) {
+            case "GET":
+            case "HEAD": {
+                Question question = questionDAO.getQuestionById(id);
+                if (question == null) {
+                    throw notFound("Question " + id);
+                }
+                sendCacheable(exchange, question, CACHE_CONTROL);
+                return;
+            }
+            case "PUT": {
+                Question question = readJson(exchange, Question.class);
+                question.setId(id);
+                validate(question);
+                if (!questionDAO.updateQuestion(question)) {
+                    throw notFound("Question " + id);
+                }
+                sendJson(exchange, 200, question);
+                return;
+            }
+            case "DELETE":
+                if (!questionDAO.deleteQuestion(id)) {
+                    throw notFound("Question " + id);
+                }
+                sendNoContent(exchange);
+                return;
+            default:
+                throw methodNotAllowed(method);
+        }
+    }
+
+    private void list(HttpExchange exchange) throws IOException, DatabaseException {
+        Map<String, String> params = queryParams(exchange);
+        int afterId = params.containsKey("afterId") ? parseId(params.get("afterId"), "afterId") : 0;
+        int limit = params.containsKey("limit") ? parseId(params.get("limit"), "limit") : 50;
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ApiException(400, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<Question> questions = questionDAO.getQuestionsAfterId(afterId, limit);
+        sendJson(exchange, 200, questions);
+    }
+
+    private void create(HttpExchange exchange) throws IOException, DatabaseException {
+        Question question = readJson(exchange, Question.class);
+        validate(question);
+        int id = questionDAO.addQuestion(question);
+        exchange.getResponseHeaders().set("Location", "/api/questions/" + id);
+        sendJson(exchange, 201, question);
+    }
+
+    private void validate(Question question) throws DatabaseException {
+        if (isBlank(question.getText()) || isBlank(question.getOptionA()) || isBlank(question.getOptionB())
+                || isBlank(question.getOptionC()) || isBlank(question.getOptionD())) {
+            throw new ApiException(400, "text and optionA..optionD are required");
+        }
+        char correct = Character.toUpperCase(question.getCorrectOption());
+        if (correct < 'A' || correct > 'D') {
+            throw new ApiException(400, "correctOption must be one of A, B, C, D");
+        }
+        question.setCorrectOption(correct);
+        if (question.getDifficultyLevel() < 1 || question.getDifficultyLevel() > 3) {
+            throw new ApiException(400, "difficultyLevel must be 1, 2 or 3");
+        }
+        if (categoryCache.getCategory(question.getCategoryId()) == null) {
+            throw new ApiException(400, "Unknown category " + question.getCategoryId());
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
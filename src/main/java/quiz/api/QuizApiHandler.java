@@ -0,0 +1,389 @@
+package quiz.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpExchange;
+import quiz.controller.QuizController;
+import quiz.dao.AchievementDAO;
+import quiz.dao.AnalyticsDAO;
+import quiz.dao.QuestionDAO;
+import quiz.dao.QuizSessionDAO;
+import quiz.dao.ScoreDAO;
+import quiz.dao.UserDAO;
+import quiz.exceptions.DatabaseException;
+import quiz.model.Question;
+import quiz.model.QuizCompletionResult;
+import quiz.model.QuizSession;
+import quiz.model.User;
+import quiz.service.AnswerVerificationService;
+import quiz.service.QuizCompletionPipeline;
+import quiz.service.QuizService;
+import quiz.service.ScoreWriteBehindQueue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+//jocul prin http:
+//  POST /api/quizzes                            {userId, quizType, categoryId, questionCount} -> 201 {sessionId, ...}
+//  GET  /api/quizzes/{id}                       sesiunea; cele terminate au ETag si nu se mai citesc din bd
+//  GET  /api/quizzes/{id}/questions/{index}     intrebarea fara raspunsul corect
+//  POST /api/quizzes/{id}/answers               {questionIndex, option} sau [{...}, {...}]
+//  POST /api/quizzes/{id}/finish                -> rezultatul (achievements, performanta)
+//quiz-urile in curs sunt tinute in memorie (ca in GameFrame); cele abandonate expira dupa quiz.api.quizIdleMillis
+public class QuizApiHandler extends ApiHandler {
+    private static final long IDLE_MILLIS = Long.getLong("quiz.api.quizIdleMillis", 60 * 60 * 1000L);
+    private static final int MAX_QUESTIONS = 50;
+    private static final int MAX_CACHED_SESSIONS = Integer.getInteger("quiz.api.cachedSessions", 10_000);
+    private static final String FINISHED_CACHE_CONTROL = "private, max-age=86400";
+    private static final Set<String> QUIZ_TYPES = Set.of("random", "category", "ai_random", "hybrid", "adaptive");
+
+    private final UserDAO userDAO;
+    private final QuestionDAO questionDAO;
+    private final QuizSessionDAO quizSessionDAO;
+    private final ScoreDAO scoreDAO;
+    private final AchievementDAO achievementDAO;
+    private final AnalyticsDAO analyticsDAO;
+    private final QuizService quizService;
+    private final QuizCompletionPipeline completionPipeline;
+    private final AnswerVerificationService answerVerifier = AnswerVerificationService.getInstance();
+
+    //un QuizController pe utilizator (ca in GameFrame), cu QuizService partajat
+    private final Map<Integer, PlayerState> players = new ConcurrentHashMap<>();
+    private final Map<Integer, ActiveQuiz> activeQuizzes = new ConcurrentHashMap<>();
+    //sesiunile terminate nu se mai schimba: json-ul lor ramane in memorie (LRU)
+    private final Map<Integer, CachedBody> finishedSessions = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, CachedBody> eldest) {
+            return size() > MAX_CACHED_SESSIONS;
+        }
+    };
+    private volatile long lastSweep = System.currentTimeMillis();
+
+    public QuizApiHandler(String contextPath, UserDAO userDAO, QuestionDAO questionDAO, QuizSessionDAO quizSessionDAO,
+                          ScoreDAO scoreDAO, AchievementDAO achievementDAO, AnalyticsDAO analyticsDAO, QuizService quizService) {
+        super(contextPath);
+        this.userDAO = userDAO;
+        this.questionDAO = questionDAO;
+        this.quizSessionDAO = quizSessionDAO;
+        this.scoreDAO = scoreDAO;
+        this.achievementDAO = achievementDAO;
+        this.analyticsDAO = analyticsDAO;
+        this.quizService = quizService;
+        this.completionPipeline = new QuizCompletionPipeline(ScoreWriteBehindQueue.getInstance(), scoreDAO,
+                quizSessionDAO, achievementDAO, analyticsDAO);
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange, String method, String[] segments) throws IOException, DatabaseException {
+        if (segments.length == 0) {
+            if (!method.equals("POST")) {
+                throw methodNotAllowed(method);
+            }
+            start(exchange);
+            return;
+        }
+
+        int sessionId = parseId(segments[0], "session id");
+        if (segments.length == 1) {
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                throw methodNotAllowed(method);
+            }
+            getSession(exchange, sessionId);
+        } else if (segments.length == 3 && segments[1].equals("questions")) {
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                throw methodNotAllowed(method);
+            }
+            getQuestion(exchange, sessionId, parseId(segments[2], "question index"));
+        } else if (segments.length == 2 && segments[1].equals("answers")) {
+            if (!method.equals("POST")) {
+                throw methodNotAllowed(method);
+            }
+            answer(exchange, sessionId);
+        } else if (segments.length == 2 && segments[1].equals("finish")) {
+            if (!method.equals("POST")) {
+                throw methodNotAllowed(method);
+            }
+            finish(exchange, sessionId);
+        } else {
+            throw notFound("Resource");
+        }
+    }
+
+    private void start(HttpExchange exchange) throws IOException, DatabaseException {
+        sweepIdle();
+        StartRequest request = readJson(exchange, StartRequest.class);
+        String quizType = request.quizType == null ? "random" : request.quizType.toLowerCase();
+        if (!QUIZ_TYPES.contains(quizType)) {
+            throw new ApiException(400, "quizType must be one of " + QUIZ_TYPES);
+        }
+        if (request.questionCount < 1 || request.questionCount > MAX_QUESTIONS) {
+            throw new ApiException(400, "questionCount must be between 1 and " + MAX_QUESTIONS);
+        }
+
+        PlayerState player = playerState(request.userId);
+        ActiveQuiz quiz;
+        //controller-ul tine starea ultimului quiz pornit: doua porniri ale aceluiasi utilizator nu se intercaleaza
+        synchronized (player.controller) {
+            player.controller.startQuiz(request.userId, quizType, request.questionCount, request.categoryId);
+            quiz = new ActiveQuiz(request.userId, player.controller.getQuizSessionId(), player.controller.getQuestions(),
+                    player.controller, quizType.equals("adaptive"), request.categoryId);
+        }
+        if (quiz.questions.isEmpty()) {
+            throw new ApiException(409, "No questions available for this quiz");
+        }
+        answerVerifier.register(quiz.questions);
+        activeQuizzes.put(quiz.sessionId, quiz);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("sessionId", quiz.sessionId);
+        body.put("userId", quiz.userId);
+        body.put("quizType", quizType);
+        body.put("totalQuestions", quiz.questions.size());
+        exchange.getResponseHeaders().set("Location", "/api/quizzes/" + quiz.sessionId);
+        sendJson(exchange, 201, body);
+    }
+
+    private PlayerState playerState(int userId) throws DatabaseException {
+        PlayerState state = players.get(userId);
+        if (state == null) {
+            User user = userDAO.getUserById(userId);
+            if (user == null) {
+                throw notFound("User " + userId);
+            }
+            QuizController controller = new QuizController(user, questionDAO, quizSessionDAO, scoreDAO,
+                    achievementDAO, analyticsDAO, quizService, null);
+            state = players.computeIfAbsent(userId, id -> new PlayerState(controller));
+        }
+        state.lastUsed = System.currentTimeMillis();
+        return state;
+    }
+
+    private void getSession(HttpExchange exchange, int sessionId) throws IOException, DatabaseException {
+        CachedBody cached;
+        synchronized (finishedSessions) {
+            cached = finishedSessions.get(sessionId);
+        }
+        if (cached == null) {
+            QuizSession session = quizSessionDAO.getQuizSessionById(sessionId);
+            if (session == null) {
+                throw notFound("Quiz session " + sessionId);
+            }
+            if (session.getCompletedAt() == null) {
+                sendJson(exchange, 200, session);
+                return;
+            }
+            cached = CachedBody.of(session);
+            synchronized (finishedSessions) {
+                finishedSessions.put(sessionId, cached);
+            }
+        }
+        sendCacheable(exchange, cached, FINISHED_CACHE_CONTROL);
+    }
+
+    private void getQuestion(HttpExchange exchange, int sessionId, int index) throws IOException, DatabaseException {
+        ActiveQuiz quiz = activeQuiz(sessionId);
+        Map<String, Object> body = new LinkedHashMap<>();
+        synchronized (quiz) {
+            if (index < 0 || index >= quiz.questions.size()) {
+                throw notFound("Question " + index);
+            }
+            Question question = quiz.questions.get(index);
+            //timpul de raspuns se masoara de la prima citire a intrebarii
+            if (quiz.servedAtNanos[index] == 0) {
+                //quiz adaptiv: intrebarea se alege la prima citire, dupa ratingul de acum al jucatorului
+                if (quiz.adaptive && index > 0) {
+                    question = quiz.controller.adaptQuestion(quiz.userId, quiz.questions, index, quiz.categoryId);
+                    answerVerifier.register(List.of(question));
+                }
+                quiz.servedAtNanos[index] = System.nanoTime();
+            }
+            body.put("index", index);
+            body.put("totalQuestions", quiz.questions.size());
+            body.put("text", question.getText());
+            body.put("optionA", question.getOptionA());
+            body.put("optionB", question.getOptionB());
+            body.put("optionC", question.getOptionC());
+            body.put("optionD", question.getOptionD());
+            body.put("categoryName", question.getCategoryName());
+            body.put("difficultyLevel", question.getDifficultyLevel());
+            body.put("answered", quiz.answered[index]);
+        }
+        sendJson(exchange, 200, body);
+    }
+
+    //un raspuns {questionIndex, option} sau un array de raspunsuri, verificate toate odata
+    //lotul e acceptat in intregime sau deloc
+    private void answer(HttpExchange exchange, int sessionId) throws IOException, DatabaseException {
+        ActiveQuiz quiz = activeQuiz(sessionId);
+        JsonNode json = readJson(exchange, JsonNode.class);
+        boolean batch = json.isArray();
+        AnswerRequest[] requests = batch
+                ? MAPPER.treeToValue(json, AnswerRequest[].class)
+                : new AnswerRequest[]{MAPPER.treeToValue(json, AnswerRequest.class)};
+        if (requests.length == 0) {
+            throw new ApiException(400, "At least one answer is required");
+        }
+        char[] options = new char[requests.length];
+        for (int i = 0; i < requests.length; i++) {
+            String option = requests[i].option;
+            options[i] = option == null || option.length() != 1 ? ' ' : Character.toUpperCase(option.charAt(0));
+            if (options[i] < 'A' || options[i] > 'D') {
+                throw new ApiException(400, "option must be one of A, B, C, D");
+            }
+        }
+
+        Question[] answeredQuestions = new Question[requests.length];
+        int[] questionIds = new int[requests.length];
+        int[] timesTaken = new int[requests.length];
+        boolean[] correct;
+        synchronized (quiz) {
+            long now = System.nanoTime();
+            boolean[] inBatch = new boolean[quiz.questions.size()];
+            for (int i = 0; i < requests.length; i++) {
+                int index = requests[i].questionIndex;
+                if (index < 0 || index >= quiz.questions.size()) {
+                    throw notFound("Question " + index);
+                }
+                if (quiz.answered[index] || inBatch[index]) {
+                    throw new ApiException(409, "Question " + index + " already answered");
+                }
+                if (quiz.servedAtNanos[index] == 0) {
+                    throw new ApiException(409, "Question " + index + " has not been fetched yet");
+                }
+                inBatch[index] = true;
+                answeredQuestions[i] = quiz.questions.get(index);
+                questionIds[i] = answeredQuestions[i].getId();
+                timesTaken[i] = (int) TimeUnit.NANOSECONDS.toMillis(now - quiz.servedAtNanos[index]);
+            }
+            //raspunsul corect vine din harta de pe server, nu din obiectele Question
+            correct = answerVerifier.verify(questionIds, options);
+            for (int i = 0; i < requests.length; i++) {
+                quiz.answered[requests[i].questionIndex] = true;
+                if (correct[i]) {
+                    quiz.correctAnswers++;
+                }
+            }
+            quiz.lastUsed = System.currentTimeMillis();
+        }
+
+        List<Map<String, Object>> results = new ArrayList<>(requests.length);
+        for (int i = 0; i < requests.length; i++) {
+            //coada de scriere, la fel ca in GameFrame
+            quiz.controller.handleAnswerSubmission(quiz.userId, sessionId, answeredQuestions[i], options[i], correct[i], timesTaken[i]);
+
+            char correctOption = answerVerifier.peekCorrectOption(questionIds[i]);
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("questionIndex", requests[i].questionIndex);
+            body.put("correct", correct[i]);
+            body.put("correctOption", correctOption != 0 ? String.valueOf(correctOption) : null);
+            body.put("timeTaken", timesTaken[i]);
+            results.add(body);
+        }
+        sendJson(exchange, 200, batch ? results : results.get(0));
+    }
+
+    private void finish(HttpExchange exchange, int sessionId) throws IOException, DatabaseException {
+        ActiveQuiz quiz = activeQuizzes.remove(sessionId);
+        if (quiz == null) {
+            throw notFound("Active quiz " + sessionId);
+        }
+        int correctAnswers;
+        int totalTime;
+        synchronized (quiz) {
+            correctAnswers = quiz.correctAnswers;
+            totalTime = (int) TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - quiz.startedAtNanos);
+        }
+        QuizCompletionResult result;
+        try {
+            //numarul de intrebari vine din quiz-ul acesta, nu din ultimul quiz pornit pe controller
+            result = completionPipeline.complete(quiz.userId, sessionId, correctAnswers, quiz.questions.size(), totalTime);
+        } catch (DatabaseException e) {
+            //se poate reincerca
+            activeQuizzes.put(sessionId, quiz);
+            throw e;
+        }
+        sendJson(exchange, 200, result);
+    }
+
+    private ActiveQuiz activeQuiz(int sessionId) {
+        ActiveQuiz quiz = activeQuizzes.get(sessionId);
+        if (quiz == null) {
+            throw notFound("Active quiz " + sessionId);
+        }
+        quiz.lastUsed = System.currentTimeMillis();
+        return quiz;
+    }
+
+    //quiz-urile abandonate si controller-ele nefolosite se scot din memorie (sesiunea ramane neterminata in bd)
+    private void sweepIdle() {
+        long now = System.currentTimeMillis();
+        if (now - lastSweep < 60_000) {
+            return;
+        }
+        lastSweep = now;
+        activeQuizzes.values().removeIf(quiz -> now - quiz.lastUsed > IDLE_MILLIS);
+        Iterator<PlayerState> it = players.values().iterator();
+        while (it.hasNext()) {
+            if (now - it.next().lastUsed > IDLE_MILLIS) {
+                it.remove();
+            }
+        }
+    }
+
+    public int getActiveQuizCount() {
+        return activeQuizzes.size();
+    }
+
+    public static class StartRequest {
+        public int userId;
+        public String quizType;
+        public int categoryId = -1;
+        public int questionCount = 10;
+    }
+
+    public static class AnswerRequest {
+        public int questionIndex;
+        public String option;
+    }
+
+    private static final class PlayerState {
+        private final QuizController controller;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        private PlayerState(QuizController controller) {
+            this.controller = controller;
+        }
+    }
+
+    private static final class ActiveQuiz {
+        private final int userId;
+        private final int sessionId;
+        private final List<Question> questions;
+        private final QuizController controller;
+        private final boolean adaptive;
+        private final int categoryId;
+        private final boolean[] answered;
+        private final long[] servedAtNanos;
+        private final long startedAtNanos = System.nanoTime();
+        private int correctAnswers;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        private ActiveQuiz(int userId, int sessionId, List<Question> questions, QuizController controller,
+                           boolean adaptive, int categoryId) {
+            this.userId = userId;
+            this.sessionId = sessionId;
+            this.questions = questions;
+            this.controller = controller;
+            this.adaptive = adaptive;
+            this.categoryId = categoryId;
+            this.answered = new boolean[questions.size()];
+            this.servedAtNanos = new long[questions.size()];
+        }
+    }
+}
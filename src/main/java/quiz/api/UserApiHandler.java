@@ -0,0 +1,32 @@
+package quiz.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import quiz.exceptions.DatabaseException;
+import quiz.service.UserPerformanceService;
+
+import java.io.IOException;
+
+//GET /api/users/{id}/stats -> performanta, nivelul si totalurile (acelasi snapshot ca in profil si dashboard)
+public class UserApiHandler extends ApiHandler {
+    //cat traieste si snapshot-ul in UserPerformanceService
+    private static final String CACHE_CONTROL = "private, max-age=30";
+
+    private final UserPerformanceService performanceService;
+
+    public UserApiHandler(String contextPath, UserPerformanceService performanceService) {
+        super(contextPath);
+        this.performanceService = performanceService;
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange, String method, String[] segments) throws IOException, DatabaseException {
+        if (segments.length != 2 || !segments[1].equals("stats")) {
+            throw notFound("Resource");
+        }
+        if (!method.equals("GET") && !method.equals("HEAD")) {
+            throw methodNotAllowed(method);
+        }
+        int userId = parseId(segments[0], "user id");
+        sendCacheable(exchange, performanceService.getSnapshot(userId), CACHE_CONTROL);
+    }
+}
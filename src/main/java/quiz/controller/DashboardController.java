@@ -3,6 +3,8 @@ package quiz.controller;
 import quiz.dao.AnalyticsDAO;
 import quiz.exceptions.DatabaseException;
 import quiz.model.User;
+import quiz.model.UserPerformanceSnapshot;
+import quiz.service.UserPerformanceService;
 
 import javax.swing.*;
 
@@ -17,17 +19,19 @@ public class DashboardController {
         this.levelLabel = levelLabel;
     }
 
-    public void updateDashboard() {
-        try {
-            String userLevel = analyticsDAO.getPerformanceLevel(currentUser.getId());
-            double performance = analyticsDAO.getUserPerformance(currentUser.getId());
-            
-            String displayText = String.format("<html><center>Your Level: %s<br>Performance: %.1f%%</center></html>", 
-                                             userLevel, performance * 100);
-            levelLabel.setText(displayText);
-        } catch (DatabaseException e) {
-            levelLabel.setText("Error loading dashboard data");
-            System.err.println("Error updating dashboard: " + e.getMessage());
-        }
+    //apelat in fundal (AsyncUi): nivelul si performanta din acelasi snapshot (un query, cache scurt per utilizator)
+    public UserPerformanceSnapshot loadSnapshot() throws DatabaseException {
+        return UserPerformanceService.getInstance().getSnapshot(currentUser.getId());
+    }
+
+    //pe EDT
+    public void showSnapshot(UserPerformanceSnapshot snapshot) {
+        String displayText = String.format("<html><center>Your Level: %s<br>Performance: %.1f%%</center></html>", 
+                                         snapshot.getPerformanceLevel(), snapshot.getPerformance() * 100);
+        levelLabel.setText(displayText);
+    }
+
+    public void showLoadError() {
+        levelLabel.setText("Error loading dashboard data");
     }
 }
\ No newline at end of file
@@ -5,10 +5,11 @@ import quiz.dao.QuizSessionDAO;
 import quiz.dao.UserDAO;
 import quiz.exceptions.DatabaseException;
 import quiz.model.User;
-import quiz.model.QuizSession;
+import quiz.model.UserPerformanceSnapshot;
+import quiz.model.UserStats;
+import quiz.service.UserPerformanceService;
 import quiz.ui.ProfileFrame;
 
-import java.util.List;
 import java.util.regex.Pattern;
 
 public class ProfileController {
@@ -16,6 +17,7 @@ public class ProfileController {
     private AnalyticsDAO analyticsDAO;
     private QuizSessionDAO quizSessionDAO;
     private UserDAO userDAO;
+    private UserPerformanceService performanceService;
     private ProfileFrame profileFrame;
 
     public ProfileController(User currentUser, AnalyticsDAO analyticsDAO, QuizSessionDAO quizSessionDAO, UserDAO userDAO, ProfileFrame profileFrame) {
@@ -23,44 +25,29 @@ public class ProfileController {
         this.analyticsDAO = analyticsDAO;
         this.quizSessionDAO = quizSessionDAO;
         this.userDAO = userDAO;
+        this.performanceService = UserPerformanceService.getInstance();
         this.profileFrame = profileFrame;
     }
 
     //incarca datele profilului utilizatorului
     public void loadProfileData(int userId) {
         try {
-            double performance = analyticsDAO.getUserPerformance(userId);
-            String level = analyticsDAO.getPerformanceLevel(userId);
+            //performanta, nivelul si totalurile din user_stats vin impreuna (un query, cache scurt)
+            UserPerformanceSnapshot snapshot = performanceService.getSnapshot(userId);
+            double performance = snapshot.getPerformance();
+            String level = snapshot.getPerformanceLevel();
+            UserStats stats = snapshot.getStats();
 
-            List<QuizSession> sessions = quizSessionDAO.getUserQuizSessions(userId);
-
-            int totalQuizzes = sessions.size();
-            int totalCorrectAnswers = 0;
-            int totalQuestionsAttempted = 0;
-            int bestScore = 0; // In percentage
-            long totalTimeMillis = 0;
-
-            for (QuizSession session : sessions) {
-                if (session.getCompletedAt() != null) {
-                    totalCorrectAnswers += session.getCorrectAnswers();
-                    totalQuestionsAttempted += session.getTotalQuestions();
-                    totalTimeMillis += session.getTimeTaken();
-
-                    if (session.getTotalQuestions() > 0) {
-                        int sessionPercentage = (int) ((double) session.getCorrectAnswers() / session.getTotalQuestions() * 100);
-                        if (sessionPercentage > bestScore) {
-                            bestScore = sessionPercentage;
-                        }
-                    }
-                }
-            }
-
-            double averageScore = (totalQuestionsAttempted > 0) ?
-                    ((double) totalCorrectAnswers / totalQuestionsAttempted * 100) : 0.0;
+            int totalQuizzes = stats.getTotalSessions();
+            double averageScore = stats.getAverageScore();
+            int bestScore = stats.getBestPercentage(); // In percentage
+            long totalTimeMillis = stats.getTotalTimeMillis();
 
             //actualizeaza ui
             profileFrame.updateProfileStats(totalQuizzes, averageScore, bestScore, totalTimeMillis);
-            profileFrame.updateRecentQuizzesTable(sessions);
+            //istoricul se incarca pe pagini, doar cat se vede in tabel
+            profileFrame.updateRecentQuizzesTable(totalQuizzes,
+                    (afterStartedAt, afterId, limit) -> quizSessionDAO.getUserQuizSessions(userId, afterStartedAt, afterId, limit));
 
             System.out.printf("User %d performance: %.1f%% (%s)%n", userId, performance * 100, level);
             System.out.println("Total Quizzes: " + totalQuizzes);
@@ -1,14 +1,24 @@
 package quiz.controller;
 
 import quiz.dao.*;
+import quiz.service.AdaptiveDifficultyService;
+import quiz.service.QuizCompletionPipeline;
+import quiz.service.QuizPrefetcher;
 import quiz.service.QuizService;
+import quiz.service.ScoreWriteBehindQueue;
+import quiz.service.UserPerformanceService;
+import quiz.model.QuizCompletionResult;
+import quiz.model.Score;
 import quiz.model.Question;
 import quiz.model.QuizSession;
 import quiz.model.User;
 import quiz.exceptions.DatabaseException;
 import quiz.ui.GameFrame;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class QuizController {
     private final QuizService quizService;
@@ -19,6 +29,11 @@ public class QuizController {
     private final AchievementDAO achievementDAO;
     private final AnalyticsDAO analyticsDAO;
     private final GameFrame gameFrame;
+    private final ScoreWriteBehindQueue scoreQueue;
+    private final QuizCompletionPipeline completionPipeline;
+    //intrebarile urmatorului quiz random/categorie, citite in fundal in timpul quiz-ului curent
+    private final QuizPrefetcher prefetcher;
+    private final AdaptiveDifficultyService adaptiveDifficulty = AdaptiveDifficultyService.getInstance();
 
     private List<Question> currentQuestions;
     private int currentQuizSessionId;
@@ -27,6 +42,13 @@ public class QuizController {
     public QuizController(User currentUser, QuestionDAO questionDAO, QuizSessionDAO quizSessionDAO, 
                          ScoreDAO scoreDAO, AchievementDAO achievementDAO, AnalyticsDAO analyticsDAO, 
                          GameFrame gameFrame) {
+        this(currentUser, questionDAO, quizSessionDAO, scoreDAO, achievementDAO, analyticsDAO, new QuizService(), gameFrame);
+    }
+
+    //quizService poate fi partajat (ex. serverul multiplayer: un controller pe camera, un singur QuizService)
+    public QuizController(User currentUser, QuestionDAO questionDAO, QuizSessionDAO quizSessionDAO,
+                         ScoreDAO scoreDAO, AchievementDAO achievementDAO, AnalyticsDAO analyticsDAO,
+                         QuizService quizService, GameFrame gameFrame) {
         this.currentUser = currentUser;
         this.questionDAO = questionDAO;
         this.quizSessionDAO = quizSessionDAO;
@@ -34,20 +56,47 @@ public class QuizController {
         this.achievementDAO = achievementDAO;
         this.analyticsDAO = analyticsDAO;
         this.gameFrame = gameFrame;
-        this.quizService = new QuizService();
+        this.quizService = quizService;
+        this.scoreQueue = ScoreWriteBehindQueue.getInstance();
+        this.completionPipeline = new QuizCompletionPipeline(scoreQueue, scoreDAO, quizSessionDAO, achievementDAO, analyticsDAO);
+        this.prefetcher = new QuizPrefetcher(questionDAO);
     }
 
     //determina tipul quiz-ului si alege intrebarile corespunzatoare
     public void startQuiz(int userId, String quizType, int questionCount, int categoryId) throws DatabaseException {
+        List<Question> questions = selectQuestions(userId, quizType, questionCount, categoryId);
+        beginSession(userId, quizType, questionCount, categoryId, questions);
+    }
+
+    //creaza sesiunea pentru intrebarile deja alese si o face quiz-ul curent
+    //ui-ul o apeleaza separat de selectQuestions, doar dupa ce pornirea nu mai poate fi anulata
+    public int beginSession(int userId, String quizType, int questionCount, int categoryId, List<Question> questions) throws DatabaseException {
+        QuizSession session = new QuizSession(userId, questionCount, quizType);
+        if ("category".equalsIgnoreCase(quizType) && categoryId != -1) {
+            session.setCategoryId(categoryId);
+        }
+        this.currentQuizSessionId = quizSessionDAO.createQuizSession(session);
+        //numarul de sesiuni din user_stats s-a schimbat
+        UserPerformanceService.getInstance().invalidate(userId);
+        this.currentQuestions = questions;
+        return currentQuizSessionId;
+    }
+
+    //doar alegerea intrebarilor, fara sesiune (serverul multiplayer creeaza cate o sesiune pentru fiecare jucator)
+    public List<Question> selectQuestions(int userId, String quizType, int questionCount, int categoryId) throws DatabaseException {
         List<Question> questions;
+        if (!QuizPrefetcher.supports(quizType)) {
+            //alt mod de joc: setul pregatit pentru random/categorie nu mai e relevant
+            prefetcher.clear();
+        }
         
         switch (quizType.toLowerCase()) {
             case "random":
-                questions = questionDAO.getRandomQuestions(questionCount);
+                questions = prefetcher.next(quizType, -1, questionCount);
                 break;
             case "ai_random":
                 try {
-                    questions = quizService.startAIRandomQuiz(userId, questionCount, 2);
+                    questions = quizService.startAIRandomQuiz(userId, questionCount, adaptiveDifficulty.targetDifficulty(userId));
                     if (questions.isEmpty()) {
                         throw new DatabaseException("AI service not available");
                     }
@@ -56,23 +105,28 @@ public class QuizController {
                 }
                 break;
             case "category":
-                if (categoryId != -1) {
-                    questions = questionDAO.getQuestionsByCategory(categoryId, questionCount);
-                } else {
-                    questions = questionDAO.getRandomQuestions(questionCount);
-                }
+                questions = prefetcher.next(quizType, categoryId, questionCount);
                 break;
             case "hybrid":
-                questions = quizService.startHybridQuiz(userId, questionCount, 2);
+                questions = quizService.startHybridQuiz(userId, questionCount, adaptiveDifficulty.targetDifficulty(userId));
+                break;
+            case "adaptive":
+                //setul initial e la nivelul curent al jucatorului; fiecare intrebare urmatoare se realege cu adaptQuestion
+                questions = new ArrayList<>(questionCount);
+                Set<Integer> chosen = new HashSet<>();
+                for (int i = 0; i < questionCount; i++) {
+                    Question next = adaptiveDifficulty.nextQuestion(userId, categoryId, chosen);
+                    if (next == null) {
+                        break;
+                    }
+                    chosen.add(next.getId());
+                    questions.add(next);
+                }
                 break;
             default:
                 questions = questionDAO.getRandomQuestions(questionCount);
         }
-        
-        //creaza sesiunea de quiz
-        QuizSession session = new QuizSession(userId, questionCount, quizType);
-        this.currentQuizSessionId = quizSessionDAO.createQuizSession(session);
-        this.currentQuestions = questions;
+        return questions;
     }
 
     public List<Question> getQuestions() {
@@ -83,15 +137,47 @@ public class QuizController {
         return currentQuizSessionId;
     }
 
-    //salveaza raspunsul in bd, inregistreaza timpul, verif raspunsul si actualizeaza scorul
+    //pune raspunsul in coada de scriere (insert in batch pe un thread de fundal), nu blocheaza ui-ul
+    //dificultatea intrebarii se cauta in quiz-ul curent; pentru alte quiz-uri se foloseste varianta cu Question
     public void handleAnswerSubmission(int userId, int sessionId, int questionId, char selectedOption, 
                                      boolean isCorrect, int timeTaken) throws DatabaseException {
-        scoreDAO.saveScore(userId, sessionId, questionId, selectedOption, isCorrect, timeTaken);
+        List<Question> questions = currentQuestions;
+        if (questions != null) {
+            for (Question question : questions) {
+                if (question.getId() == questionId) {
+                    adaptiveDifficulty.recordAnswer(userId, question.getDifficultyLevel(), isCorrect);
+                    break;
+                }
+            }
+        }
+        scoreQueue.enqueue(new Score(userId, sessionId, questionId, selectedOption, isCorrect, timeTaken));
+    }
+
+    //ratingul jucatorului se actualizeaza inainte de punerea in coada: urmatoarea alegere il vede deja
+    public void handleAnswerSubmission(int userId, int sessionId, Question question, char selectedOption,
+                                       boolean isCorrect, int timeTaken) throws DatabaseException {
+        adaptiveDifficulty.recordAnswer(userId, question.getDifficultyLevel(), isCorrect);
+        scoreQueue.enqueue(new Score(userId, sessionId, question.getId(), selectedOption, isCorrect, timeTaken));
+    }
+
+    //quiz adaptiv: inlocuieste intrebarea de pe pozitia index cu una aleasa dupa ratingul de acum al jucatorului
+    //(fara intrebarile deja din quiz); ramane cea veche daca banca nu mai are alta
+    public Question adaptQuestion(int userId, List<Question> questions, int index, int categoryId) throws DatabaseException {
+        Set<Integer> used = new HashSet<>();
+        for (Question question : questions) {
+            used.add(question.getId());
+        }
+        Question next = adaptiveDifficulty.nextQuestion(userId, categoryId, used);
+        if (next != null) {
+            questions.set(index, next);
+        }
+        return questions.get(index);
     }
 
-    //marcheaza sesiunea ca finalizata si actualizeaza scorul
-    public void finishQuiz(int sessionId, int correctAnswers, int totalTimeTaken) throws DatabaseException {
-        quizSessionDAO.completeQuizSession(sessionId, correctAnswers, correctAnswers, totalTimeTaken);
+    //marcheaza sesiunea ca finalizata, acorda achievements si recalculeaza performanta (o singura tranzactie)
+    public QuizCompletionResult finishQuiz(int sessionId, int correctAnswers, int totalTimeTaken) throws DatabaseException {
+        int totalQuestions = currentQuestions != null ? currentQuestions.size() : 0;
+        return completionPipeline.complete(currentUser.getId(), sessionId, correctAnswers, totalQuestions, totalTimeTaken);
     }
 
     // obt intrebari filtrate pentru UI (folosind streams)
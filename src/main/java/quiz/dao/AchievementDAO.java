@@ -14,34 +14,47 @@ import java.util.List;
 public class AchievementDAO {
 
     public int checkAndAwardAchievements(int userId) throws DatabaseException {
-        String sql = "SELECT award_achievements(?)";
+        try (Connection conn = DBUtil.getConnection()) {
+            int achievementsAwarded = checkAndAwardAchievements(conn, userId);
+            System.out.println("User " + userId + " got " +
+                    achievementsAwarded + " new achievements!");
+            return achievementsAwarded;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error awarding achievements: " + e.getMessage(), e);
+        }
+    }
 
-        try (Connection conn = DBUtil.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+    //varianta care foloseste conexiunea (si tranzactia) apelantului
+    public int checkAndAwardAchievements(Connection conn, int userId) throws SQLException {
+        String sql = "SELECT award_achievements(?)";
 
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, userId);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    int achievementsAwarded = rs.getInt(1);
-                    System.out.println("User " + userId + " got " +
-                            achievementsAwarded + " new achievements!");
-                    return achievementsAwarded;
+                    return rs.getInt(1);
                 }
             }
-        } catch (SQLException e) {
-            throw new DatabaseException("Error awarding achievements: " + e.getMessage(), e);
         }
         return 0;
     }
 
     public List<Achievement> getUserAchievements(int userId) throws DatabaseException {
-        List<Achievement> achievements = new ArrayList<>();
-        String sql = "SELECT * FROM user_achievements WHERE user_id = ? ORDER BY achieved_at DESC";
+        try (Connection conn = DBUtil.getConnection()) {
+            return getUserAchievements(conn, userId, Integer.MAX_VALUE);
+        } catch (SQLException e) {
+            throw new DatabaseException("Error getting user achievements: " + e.getMessage(), e);
+        }
+    }
 
-        try (Connection conn = DBUtil.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+    //cele mai recente `limit` achievement-uri ale utilizatorului
+    public List<Achievement> getUserAchievements(Connection conn, int userId, int limit) throws SQLException {
+        List<Achievement> achievements = new ArrayList<>();
+        String sql = "SELECT * FROM user_achievements WHERE user_id = ? ORDER BY achieved_at DESC LIMIT ?";
 
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, userId);
+            ps.setInt(2, limit);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
                     Achievement achievement = new Achievement();
@@ -55,8 +68,6 @@ public class AchievementDAO {
                     achievements.add(achievement);
                 }
             }
-        } catch (SQLException e) {
-            throw new DatabaseException("Error getting user achievements: " + e.getMessage(), e);
         }
         return achievements;
     }
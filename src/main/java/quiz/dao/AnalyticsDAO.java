@@ -2,6 +2,8 @@ package quiz.dao;
 
 import util.DBUtil;
 import quiz.exceptions.DatabaseException;
+import quiz.model.UserPerformanceSnapshot;
+import quiz.model.UserStats;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -11,26 +13,67 @@ import java.sql.SQLException;
 //creeaza un DAO pentru Analytics care va calcula performanta utilizatorilor
 public class AnalyticsDAO {
     public double getUserPerformance(int userId) throws DatabaseException {
-        String sql = "SELECT calculate_user_performance(?)";
+        try (Connection conn = DBUtil.getConnection()) {
+            return getUserPerformance(conn, userId);
+        } catch (SQLException e) {
+            throw new DatabaseException("Error calculating user performance: " + e.getMessage(), e);
+        }
+    }
 
-        try (Connection conn = DBUtil.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+    //varianta care foloseste conexiunea (si tranzactia) apelantului
+    public double getUserPerformance(Connection conn, int userId) throws SQLException {
+        String sql = "SELECT calculate_user_performance(?)";
 
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, userId);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
                     return rs.getDouble(1);
                 }
             }
-        } catch (SQLException e) {
-            throw new DatabaseException("Error calculating user performance: " + e.getMessage(), e);
         }
         return 0.0;
     }
 
+    public UserPerformanceSnapshot getPerformanceSnapshot(int userId) throws DatabaseException {
+        try (Connection conn = DBUtil.getConnection()) {
+            return getPerformanceSnapshot(conn, userId);
+        } catch (SQLException e) {
+            throw new DatabaseException("Error loading user performance snapshot: " + e.getMessage(), e);
+        }
+    }
+
+    //performanta + nivel + totalurile din user_stats intr-un singur drum la bd
+    //(user_stats lipsa = totaluri 0)
+    public UserPerformanceSnapshot getPerformanceSnapshot(Connection conn, int userId) throws SQLException {
+        String sql = "SELECT p.performance, us.* FROM (SELECT calculate_user_performance(?) AS performance) p " +
+                "LEFT JOIN user_stats us ON us.user_id = ?";
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, userId);
+            ps.setInt(2, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                UserPerformanceSnapshot snapshot = new UserPerformanceSnapshot();
+                UserStats stats = new UserStats(userId);
+                snapshot.setUserId(userId);
+                if (rs.next()) {
+                    snapshot.setPerformance(rs.getDouble("performance"));
+                    if (rs.getObject("user_id") != null) {
+                        UserStatsDAO.mapStatsColumns(rs, stats);
+                    }
+                }
+                snapshot.setPerformanceLevel(toPerformanceLevel(snapshot.getPerformance()));
+                snapshot.setStats(stats);
+                return snapshot;
+            }
+        }
+    }
+
     public String getPerformanceLevel(int userId) throws DatabaseException {
-        double performance = getUserPerformance(userId);
+        return toPerformanceLevel(getUserPerformance(userId));
+    }
 
+    public static String toPerformanceLevel(double performance) {
         if (performance >= 0.8) return "EXPERT";
         else if (performance >= 0.6) return "ADVANCED";
         else if (performance >= 0.4) return "INTERMEDIATE";
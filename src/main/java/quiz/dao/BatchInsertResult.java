@@ -0,0 +1,43 @@
+package quiz.dao;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//rezultatul unui insert in bloc: id-ul generat pentru fiecare rand (0 daca a esuat) si motivul esecului
+public class BatchInsertResult {
+    private final int[] generatedIds;
+    private final Map<Integer, String> failures = new LinkedHashMap<>();
+
+    public BatchInsertResult(int size) {
+        this.generatedIds = new int[size];
+    }
+
+    void setGeneratedId(int index, int id) {
+        generatedIds[index] = id;
+    }
+
+    void addFailure(int index, String reason) {
+        failures.put(index, reason);
+    }
+
+    public int[] getGeneratedIds() {
+        return generatedIds;
+    }
+
+    public int getGeneratedId(int index) {
+        return generatedIds[index];
+    }
+
+    public boolean isInserted(int index) {
+        return generatedIds[index] > 0;
+    }
+
+    public int getInsertedCount() {
+        return generatedIds.length - failures.size();
+    }
+
+    //index in lista primita -> motiv
+    public Map<Integer, String> getFailures() {
+        return failures;
+    }
+}
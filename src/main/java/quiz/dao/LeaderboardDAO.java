@@ -0,0 +1,134 @@
+package quiz.dao;
+
+import quiz.exceptions.DatabaseException;
+import util.DBUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+//totalurile din care se reconstruiesc clasamentele: sesiunile terminate, grupate pe (user, categorie)
+//totalul global e suma pe categorii; ferestrele zi/saptamana vin din acelasi query, cu FILTER
+public class LeaderboardDAO {
+    private static final int FETCH_SIZE = 5_000;
+
+    private static final String TOTALS_SQL =
+            "SELECT s.user_id, u.username, COALESCE(s.category_id, 0) AS category_id, " +
+            "SUM(s.final_score) AS score, COUNT(*) AS games, " +
+            "COALESCE(SUM(s.final_score) FILTER (WHERE s.completed_at >= ?), 0) AS day_score, " +
+            "COUNT(*) FILTER (WHERE s.completed_at >= ?) AS day_games, " +
+            "COALESCE(SUM(s.final_score) FILTER (WHERE s.completed_at >= ?), 0) AS week_score, " +
+            "COUNT(*) FILTER (WHERE s.completed_at >= ?) AS week_games " +
+            "FROM quiz_sessions s JOIN users u ON u.id = s.user_id " +
+            "WHERE s.completed_at IS NOT NULL " +
+            "GROUP BY s.user_id, u.username, COALESCE(s.category_id, 0)";
+
+    private static final String COUNTED_SQL =
+            "SELECT id FROM quiz_sessions WHERE completed_at IS NOT NULL AND id = ANY(?)";
+
+    public interface TotalsHandler {
+        void accept(Totals totals);
+    }
+
+    //apelat dupa ultimul rand, cu tranzactia inca deschisa
+    public interface ScanCompletedHandler {
+        void accept(CountedSessions counted) throws DatabaseException;
+    }
+
+    //care dintre sesiunile date sunt deja incluse in totaluri (acelasi snapshot ca scanarea)
+    public interface CountedSessions {
+        Set<Integer> among(Collection<Integer> sessionIds) throws DatabaseException;
+    }
+
+    //randurile sunt citite cu cursor (autocommit oprit + fetch size), nu toate odata in memorie
+    //tranzactia e REPEATABLE READ: onScanCompleted poate intreba ce sesiuni terminate intre timp a vazut scanarea
+    public void loadTotals(LocalDateTime dayStart, LocalDateTime weekStart, TotalsHandler handler,
+                           ScanCompletedHandler onScanCompleted) throws DatabaseException {
+        try (Connection conn = DBUtil.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            int isolation = conn.getTransactionIsolation();
+            conn.setAutoCommit(false);
+            conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            try (PreparedStatement ps = conn.prepareStatement(TOTALS_SQL)) {
+                ps.setFetchSize(FETCH_SIZE);
+                ps.setTimestamp(1, Timestamp.valueOf(dayStart));
+                ps.setTimestamp(2, Timestamp.valueOf(dayStart));
+                ps.setTimestamp(3, Timestamp.valueOf(weekStart));
+                ps.setTimestamp(4, Timestamp.valueOf(weekStart));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Totals totals = new Totals();
+                        totals.userId = rs.getInt("user_id");
+                        totals.username = rs.getString("username");
+                        totals.categoryId = rs.getInt("category_id");
+                        totals.score = rs.getLong("score");
+                        totals.games = rs.getInt("games");
+                        totals.dayScore = rs.getLong("day_score");
+                        totals.dayGames = rs.getInt("day_games");
+                        totals.weekScore = rs.getLong("week_score");
+                        totals.weekGames = rs.getInt("week_games");
+                        handler.accept(totals);
+                    }
+                }
+                onScanCompleted.accept(sessionIds -> countedAmong(conn, sessionIds));
+                conn.commit();
+            } catch (SQLException e) {
+                //izolarea nu se poate schimba in mijlocul unei tranzactii
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setTransactionIsolation(isolation);
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error loading leaderboard totals: " + e.getMessage(), e);
+        }
+    }
+
+    private static Set<Integer> countedAmong(Connection conn, Collection<Integer> sessionIds) throws DatabaseException {
+        Set<Integer> counted = new HashSet<>();
+        if (sessionIds.isEmpty()) {
+            return counted;
+        }
+        try (PreparedStatement ps = conn.prepareStatement(COUNTED_SQL)) {
+            ps.setArray(1, conn.createArrayOf("integer", sessionIds.toArray(new Integer[0])));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    counted.add(rs.getInt(1));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error checking leaderboard snapshot: " + e.getMessage(), e);
+        }
+        return counted;
+    }
+
+    //categoryId = 0 pentru sesiunile fara categorie (random, ai, hybrid...)
+    public static final class Totals {
+        private int userId;
+        private String username;
+        private int categoryId;
+        private long score;
+        private int games;
+        private long dayScore;
+        private int dayGames;
+        private long weekScore;
+        private int weekGames;
+
+        public int getUserId() { return userId; }
+        public String getUsername() { return username; }
+        public int getCategoryId() { return categoryId; }
+        public long getScore() { return score; }
+        public int getGames() { return games; }
+        public long getDayScore() { return dayScore; }
+        public int getDayGames() { return dayGames; }
+        public long getWeekScore() { return weekScore; }
+        public int getWeekGames() { return weekGames; }
+    }
+}
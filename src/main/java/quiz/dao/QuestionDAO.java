@@ -6,28 +6,120 @@ import quiz.exceptions.DatabaseException;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 public class QuestionDAO {
+    private static final String QUESTION_COLUMNS = "id, category_id, text, option_a, option_b, option_c, option_d, correct_option, difficulty_level";
+    private static final SamplingStrategy DEFAULT_SAMPLING = SamplingStrategy.ID_ARRAY;
+    private static final QuestionSampler SAMPLER = new QuestionSampler();
+    //randuri pe instructiune; la o eroare doar lotul respectiv se reia rand cu rand
+    private static final int MAX_ROWS_PER_INSERT = 1000;
+    //toate randurile intr-o singura instructiune, din tablouri (unnest ... WITH ORDINALITY)
+    //ordinea randurilor din RETURNING nu e garantata: id-urile se iau din secventa pe fiecare pozitie, inainte de insert,
+    //si se intorc impreuna cu pozitia, deci fiecare id ajunge la intrebarea lui
+    private static final String INSERT_MULTI_ROW_SQL =
+            "WITH input AS (SELECT * FROM unnest(?::int[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::int[]) " +
+            "WITH ORDINALITY AS t(category_id, text, option_a, option_b, option_c, option_d, correct_option, difficulty_level, ord)), " +
+            "numbered AS (SELECT nextval(pg_get_serial_sequence('questions', 'id')) AS id, input.* FROM input), " +
+            "inserted AS (INSERT INTO questions (id, category_id, text, option_a, option_b, option_c, option_d, correct_option, difficulty_level) " +
+            "SELECT id, category_id, text, option_a, option_b, option_c, option_d, correct_option, difficulty_level FROM numbered RETURNING id) " +
+            "SELECT n.ord, n.id FROM numbered n JOIN inserted i ON i.id = n.id";
+    //notificati dupa fiecare insert (ex. cache-ul cu intrebari)
+    private static final List<Consumer<Question>> INSERT_LISTENERS = new CopyOnWriteArrayList<>();
+    private static final List<Consumer<Question>> UPDATE_LISTENERS = new CopyOnWriteArrayList<>();
+    private static final List<IntConsumer> DELETE_LISTENERS = new CopyOnWriteArrayList<>();
+    private static final int CORRECT_OPTIONS_FETCH_SIZE = 10_000;
+
+    public interface CorrectOptionHandler {
+        void accept(int questionId, char correctOption);
+    }
+
+    public static void addInsertListener(Consumer<Question> listener) {
+        INSERT_LISTENERS.add(listener);
+    }
+
+    public static void addUpdateListener(Consumer<Question> listener) {
+        UPDATE_LISTENERS.add(listener);
+    }
+
+    public static void addDeleteListener(IntConsumer listener) {
+        DELETE_LISTENERS.add(listener);
+    }
+
+    private static void notifyInserted(Question question) {
+        SAMPLER.onQuestionAdded(question.getId(), question.getCategoryId());
+        for (Consumer<Question> listener : INSERT_LISTENERS) {
+            listener.accept(question);
+        }
+    }
+
     public List<Question> getRandomQuestions(int count) throws DatabaseException {
+        return getRandomQuestions(count, DEFAULT_SAMPLING);
+    }
+
+    public List<Question> getRandomQuestions(int count, SamplingStrategy strategy) throws DatabaseException {
+        switch (strategy) {
+            case ID_ARRAY:
+                return sampleQuestions(-1, count, Collections.emptySet());
+            case KEYSET:
+                return sampleByKeyset(-1, count);
+            default:
+                return getRandomQuestionsOrderByRandom(count);
+        }
+    }
+
+    //intrebari aleatoare fara cele din excludeIds (ex. deja vazute in sesiunea curenta)
+    public List<Question> getRandomQuestions(int count, Set<Integer> excludeIds) throws DatabaseException {
+        return sampleQuestions(-1, count, excludeIds);
+    }
+
+    //intrebari aleatoare filtrate direct in sql (-1 = fara filtru), cu numele categoriei
+    //folosit cand banca din memorie (QuestionBankCache) nu incape; RANDOM() se aplica doar randurilor filtrate
+    public List<Question> getRandomQuestions(int categoryId, int difficultyLevel, int count, Set<Integer> excludeIds) throws DatabaseException {
         List<Question> questions = new ArrayList<>();
-        String sql = "SELECT id, category_id, text, option_a, option_b, option_c, option_d, correct_option, difficulty_level FROM questions ORDER BY RANDOM() LIMIT ?";
-        try (Connection conn = DBUtil.getConnection()) {
-            PreparedStatement stmt = conn.prepareStatement(sql);
+        String sql = "SELECT q.id, q.category_id, q.text, q.option_a, q.option_b, q.option_c, q.option_d, " +
+                "q.correct_option, q.difficulty_level, c.name AS category_name " +
+                "FROM questions q LEFT JOIN categories c ON c.id = q.category_id " +
+                "WHERE (? = -1 OR q.category_id = ?) AND (? = -1 OR q.difficulty_level = ?) AND q.id <> ALL(?) " +
+                "ORDER BY RANDOM() LIMIT ?";
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, categoryId);
+            stmt.setInt(2, categoryId);
+            stmt.setInt(3, difficultyLevel);
+            stmt.setInt(4, difficultyLevel);
+            stmt.setArray(5, conn.createArrayOf("integer", excludeIds.toArray(new Integer[0])));
+            stmt.setInt(6, count);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Question q = mapResultSetToQuestion(rs);
+                    q.setCategoryName(rs.getString("category_name"));
+                    questions.add(q);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error getting filtered random questions: " + e.getMessage(), e);
+        }
+        return questions;
+    }
+
+    private List<Question> getRandomQuestionsOrderByRandom(int count) throws DatabaseException {
+        List<Question> questions = new ArrayList<>();
+        String sql = "SELECT " + QUESTION_COLUMNS + " FROM questions ORDER BY RANDOM() LIMIT ?";
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, count);
             try( ResultSet rs = stmt.executeQuery()){
                 while (rs.next()) {
-                    Question q = new Question();
-                    q.setId(rs.getInt("id"));
-                    q.setCategoryId(rs.getInt("category_id")); // Set categoryId
-                    q.setText(rs.getString("text"));
-                    q.setOptionA(rs.getString("option_a"));
-                    q.setOptionB(rs.getString("option_b"));
-                    q.setOptionC(rs.getString("option_c"));
-                    q.setOptionD(rs.getString("option_d"));
-                    q.setCorrectOption(rs.getString("correct_option").charAt(0));
-                    q.setDifficultyLevel(rs.getInt("difficulty_level"));
-                    questions.add(q);
+                    questions.add(mapResultSetToQuestion(rs));
                 }
             }
 
@@ -36,6 +128,173 @@ public class QuestionDAO {
         }
         return questions;
     }
+
+    //esantion din memorie; id-uri sterse intre timp (ex. din alt proces) lipsesc din rezultat:
+    //atunci esantionatorul se reincarca si se completeaza cu alte intrebari
+    private List<Question> sampleQuestions(int categoryId, int count, Set<Integer> excludeIds) throws DatabaseException {
+        int[] ids = SAMPLER.sampleIds(categoryId, count, excludeIds);
+        List<Question> questions = getQuestionsByIds(ids);
+        if (questions.size() < ids.length) {
+            SAMPLER.invalidate();
+            Set<Integer> exclude = new HashSet<>(excludeIds);
+            for (int id : ids) {
+                exclude.add(id);
+            }
+            questions.addAll(getQuestionsByIds(SAMPLER.sampleIds(categoryId, count - questions.size(), exclude)));
+        }
+        return questions;
+    }
+
+    //intrebari dupa lista de id-uri, in ordinea id-urilor primite
+    public List<Question> getQuestionsByIds(int[] ids) throws DatabaseException {
+        if (ids.length == 0) {
+            return new ArrayList<>();
+        }
+        String sql = "SELECT " + QUESTION_COLUMNS + " FROM questions WHERE id = ANY(?)";
+        Map<Integer, Question> byId = new HashMap<>();
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setArray(1, conn.createArrayOf("integer", toObjectArray(ids)));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Question q = mapResultSetToQuestion(rs);
+                    byId.put(q.getId(), q);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error getting questions by ids: " + e.getMessage(), e);
+        }
+
+        List<Question> questions = new ArrayList<>(byId.size());
+        for (int id : ids) {
+            Question q = byId.get(id);
+            if (q != null) {
+                questions.add(q);
+            }
+        }
+        return questions;
+    }
+
+    //id-uri aleatoare din intervalul de chei; golurile se completeaza in cateva runde
+    private List<Question> sampleByKeyset(int categoryId, int count) throws DatabaseException {
+        List<Question> questions = new ArrayList<>();
+        Set<Integer> tried = new HashSet<>();
+        String sql = "SELECT " + QUESTION_COLUMNS + " FROM questions WHERE id = ANY(?)" +
+                (categoryId != -1 ? " AND category_id = ?" : "");
+
+        for (int round = 0; round < 3 && questions.size() < count; round++) {
+            int missing = count - questions.size();
+            int[] candidates = SAMPLER.keysetCandidates(missing * 2, tried);
+            if (candidates.length == 0) {
+                break;
+            }
+            for (int id : candidates) {
+                tried.add(id);
+            }
+
+            try (Connection conn = DBUtil.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setArray(1, conn.createArrayOf("integer", toObjectArray(candidates)));
+                if (categoryId != -1) {
+                    stmt.setInt(2, categoryId);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next() && questions.size() < count) {
+                        questions.add(mapResultSetToQuestion(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                throw new DatabaseException("Error sampling questions by keyset: " + e.getMessage(), e);
+            }
+        }
+
+        //interval prea rar (sau categorie mica): completeaza cu esantionul din memorie
+        if (questions.size() < count) {
+            Set<Integer> found = new HashSet<>();
+            for (Question q : questions) {
+                found.add(q.getId());
+            }
+            for (Question q : getQuestionsByIds(SAMPLER.sampleIds(categoryId, count + found.size()))) {
+                if (questions.size() >= count) {
+                    break;
+                }
+                if (found.add(q.getId())) {
+                    questions.add(q);
+                }
+            }
+        }
+        Collections.shuffle(questions);
+        return questions;
+    }
+
+    //intrebarile cu id > afterId, cu numele categoriei (incarcare incrementala)
+    public List<Question> getQuestionsAfterId(int afterId, int limit) throws DatabaseException {
+        List<Question> questions = new ArrayList<>();
+        String sql = "SELECT q.id, q.category_id, q.text, q.option_a, q.option_b, q.option_c, q.option_d, " +
+                "q.correct_option, q.difficulty_level, c.name AS category_name " +
+                "FROM questions q LEFT JOIN categories c ON c.id = q.category_id " +
+                "WHERE q.id > ? ORDER BY q.id LIMIT ?";
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Question q = mapResultSetToQuestion(rs);
+                    q.setCategoryName(rs.getString("category_name"));
+                    questions.add(q);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error getting questions after id " + afterId + ": " + e.getMessage(), e);
+        }
+        return questions;
+    }
+
+    //doar (id, correct_option) pentru toata tabela, citit cu cursor; folosit de AnswerVerificationService
+    public void forEachCorrectOption(CorrectOptionHandler handler) throws DatabaseException {
+        String sql = "SELECT id, correct_option FROM questions";
+        try (Connection conn = DBUtil.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setFetchSize(CORRECT_OPTIONS_FETCH_SIZE);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        handler.accept(rs.getInt(1), rs.getString(2).charAt(0));
+                    }
+                }
+                conn.commit();
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error loading correct options: " + e.getMessage(), e);
+        }
+    }
+
+    private static Integer[] toObjectArray(int[] ids) {
+        Integer[] boxed = new Integer[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            boxed[i] = ids[i];
+        }
+        return boxed;
+    }
+
+    private Question mapResultSetToQuestion(ResultSet rs) throws SQLException {
+        Question q = new Question();
+        q.setId(rs.getInt("id"));
+        q.setCategoryId(rs.getInt("category_id")); // Set categoryId
+        q.setText(rs.getString("text"));
+        q.setOptionA(rs.getString("option_a"));
+        q.setOptionB(rs.getString("option_b"));
+        q.setOptionC(rs.getString("option_c"));
+        q.setOptionD(rs.getString("option_d"));
+        q.setCorrectOption(rs.getString("correct_option").charAt(0));
+        q.setDifficultyLevel(rs.getInt("difficulty_level"));
+        return q;
+    }
+
     public int addQuestion(Question question) throws DatabaseException {
         String sql = "INSERT INTO questions (category_id, text, option_a, option_b, option_c, option_d, correct_option, difficulty_level) " +
                 "VALUES (?, ?, ?, ?, ?, ?, ?, ?) RETURNING id";
@@ -55,6 +314,8 @@ public class QuestionDAO {
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
                     int generatedId = rs.getInt("id");
+                    question.setId(generatedId);
+                    notifyInserted(question);
                     System.out.println("✅ Question saved to database with ID: " + generatedId);
                     return generatedId;
                 } else {
@@ -68,6 +329,197 @@ public class QuestionDAO {
     }
 
 
+    public Question getQuestionById(int id) throws DatabaseException {
+        List<Question> questions = getQuestionsByIds(new int[]{id});
+        return questions.isEmpty() ? null : questions.get(0);
+    }
+
+    //false daca intrebarea nu exista
+    public boolean updateQuestion(Question question) throws DatabaseException {
+        String sql = "UPDATE questions SET category_id = ?, text = ?, option_a = ?, option_b = ?, option_c = ?, option_d = ?, " +
+                "correct_option = ?, difficulty_level = ? WHERE id = ?";
+
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, question.getCategoryId());
+            ps.setString(2, question.getText());
+            ps.setString(3, question.getOptionA());
+            ps.setString(4, question.getOptionB());
+            ps.setString(5, question.getOptionC());
+            ps.setString(6, question.getOptionD());
+            ps.setString(7, String.valueOf(question.getCorrectOption()));
+            ps.setInt(8, question.getDifficultyLevel());
+            ps.setInt(9, question.getId());
+            boolean updated = ps.executeUpdate() > 0;
+            if (updated) {
+                //categoria se poate sa fi fost schimbata: esantionatorul isi reincarca id-urile
+                SAMPLER.invalidate();
+                for (Consumer<Question> listener : UPDATE_LISTENERS) {
+                    listener.accept(question);
+                }
+            }
+            return updated;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error updating question " + question.getId() + ": " + e.getMessage(), e);
+        }
+    }
+
+    //false daca intrebarea nu exista; esueaza (foreign key) daca are deja raspunsuri in scores
+    public boolean deleteQuestion(int id) throws DatabaseException {
+        String sql = "DELETE FROM questions WHERE id = ?";
+
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, id);
+            boolean deleted = ps.executeUpdate() > 0;
+            if (deleted) {
+                SAMPLER.invalidate();
+                for (IntConsumer listener : DELETE_LISTENERS) {
+                    listener.accept(id);
+                }
+            }
+            return deleted;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error deleting question " + id + ": " + e.getMessage(), e);
+        }
+    }
+
+    //insert in bloc (o instructiune pe lot, din tablouri); id-urile revin in ordinea listei
+    //randurile invalide sau respinse de bd sunt raportate individual, restul se salveaza
+    public BatchInsertResult addQuestions(List<Question> questions) throws DatabaseException {
+        BatchInsertResult result = new BatchInsertResult(questions.size());
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < questions.size(); i++) {
+            String problem = validate(questions.get(i));
+            if (problem != null) {
+                result.addFailure(i, problem);
+            } else {
+                valid.add(i);
+            }
+        }
+
+        try (Connection conn = DBUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            for (int from = 0; from < valid.size(); from += MAX_ROWS_PER_INSERT) {
+                List<Integer> chunk = valid.subList(from, Math.min(valid.size(), from + MAX_ROWS_PER_INSERT));
+                Savepoint beforeChunk = conn.setSavepoint();
+                try {
+                    insertMultiRow(conn, questions, chunk, result);
+                } catch (SQLException e) {
+                    //un rand stric tot statement-ul: se reiau randurile unul cate unul ca sa il gasim
+                    conn.rollback(beforeChunk);
+                    insertRowByRow(conn, questions, chunk, result);
+                }
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            throw new DatabaseException("Error adding questions to database: " + e.getMessage(), e);
+        }
+
+        for (int i = 0; i < questions.size(); i++) {
+            if (result.isInserted(i)) {
+                Question question = questions.get(i);
+                question.setId(result.getGeneratedId(i));
+                notifyInserted(question);
+            }
+        }
+        System.out.println("✅ Saved " + result.getInsertedCount() + "/" + questions.size() + " questions in one batch");
+        return result;
+    }
+
+    private void insertMultiRow(Connection conn, List<Question> questions, List<Integer> rows, BatchInsertResult result) throws SQLException {
+        int n = rows.size();
+        Integer[] categoryIds = new Integer[n];
+        String[] texts = new String[n];
+        String[] optionsA = new String[n];
+        String[] optionsB = new String[n];
+        String[] optionsC = new String[n];
+        String[] optionsD = new String[n];
+        String[] correctOptions = new String[n];
+        Integer[] difficulties = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            Question question = questions.get(rows.get(i));
+            categoryIds[i] = question.getCategoryId();
+            texts[i] = question.getText();
+            optionsA[i] = question.getOptionA();
+            optionsB[i] = question.getOptionB();
+            optionsC[i] = question.getOptionC();
+            optionsD[i] = question.getOptionD();
+            correctOptions[i] = String.valueOf(question.getCorrectOption());
+            difficulties[i] = question.getDifficultyLevel();
+        }
+
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_MULTI_ROW_SQL)) {
+            ps.setArray(1, conn.createArrayOf("integer", categoryIds));
+            ps.setArray(2, conn.createArrayOf("text", texts));
+            ps.setArray(3, conn.createArrayOf("text", optionsA));
+            ps.setArray(4, conn.createArrayOf("text", optionsB));
+            ps.setArray(5, conn.createArrayOf("text", optionsC));
+            ps.setArray(6, conn.createArrayOf("text", optionsD));
+            ps.setArray(7, conn.createArrayOf("text", correctOptions));
+            ps.setArray(8, conn.createArrayOf("integer", difficulties));
+            try (ResultSet rs = ps.executeQuery()) {
+                int returned = 0;
+                while (rs.next()) {
+                    //ord incepe de la 1
+                    result.setGeneratedId(rows.get(rs.getInt(1) - 1), rs.getInt(2));
+                    returned++;
+                }
+                if (returned != n) {
+                    throw new SQLException("Expected " + n + " generated ids but got " + returned);
+                }
+            }
+        }
+    }
+
+    private void insertRowByRow(Connection conn, List<Question> questions, List<Integer> rows, BatchInsertResult result) throws SQLException {
+        String sql = "INSERT INTO questions (category_id, text, option_a, option_b, option_c, option_d, correct_option, difficulty_level) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?) RETURNING id";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int index : rows) {
+                Savepoint beforeRow = conn.setSavepoint();
+                try {
+                    bindQuestion(ps, 1, questions.get(index));
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (rs.next()) {
+                            result.setGeneratedId(index, rs.getInt(1));
+                        }
+                    }
+                    conn.releaseSavepoint(beforeRow);
+                } catch (SQLException e) {
+                    conn.rollback(beforeRow);
+                    result.addFailure(index, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private int bindQuestion(PreparedStatement ps, int param, Question question) throws SQLException {
+        ps.setInt(param++, question.getCategoryId());
+        ps.setString(param++, question.getText());
+        ps.setString(param++, question.getOptionA());
+        ps.setString(param++, question.getOptionB());
+        ps.setString(param++, question.getOptionC());
+        ps.setString(param++, question.getOptionD());
+        ps.setString(param++, String.valueOf(question.getCorrectOption()));
+        ps.setInt(param++, question.getDifficultyLevel());
+        return param;
+    }
+
+    private static String validate(Question question) {
+        if (question.getText() == null || question.getText().isBlank()) {
+            return "Question text is empty";
+        }
+        if (question.getOptionA() == null || question.getOptionB() == null
+                || question.getOptionC() == null || question.getOptionD() == null) {
+            return "Question is missing an option";
+        }
+        if ("ABCD".indexOf(question.getCorrectOption()) < 0) {
+            return "Correct option must be one of A, B, C or D";
+        }
+        return null;
+    }
+
     public List<Question> getQuestionsByDifficulty(int difficulty) throws DatabaseException {
         List<Question> questions = new ArrayList<>();
         String sql = "SELECT question_id, question_text, opt_a, opt_b, opt_c, opt_d, correct_opt, difficulty, category_id FROM get_questions_by_difficulty(?)";
@@ -99,8 +551,27 @@ public class QuestionDAO {
 
     //intrebari pe categorie
     public List<Question> getQuestionsByCategory(int categoryId, int count) throws DatabaseException {
+        return getQuestionsByCategory(categoryId, count, DEFAULT_SAMPLING);
+    }
+
+    public List<Question> getQuestionsByCategory(int categoryId, int count, SamplingStrategy strategy) throws DatabaseException {
+        switch (strategy) {
+            case ID_ARRAY:
+                return sampleQuestions(categoryId, count, Collections.emptySet());
+            case KEYSET:
+                return sampleByKeyset(categoryId, count);
+            default:
+                return getQuestionsByCategoryOrderByRandom(categoryId, count);
+        }
+    }
+
+    public List<Question> getQuestionsByCategory(int categoryId, int count, Set<Integer> excludeIds) throws DatabaseException {
+        return sampleQuestions(categoryId, count, excludeIds);
+    }
+
+    private List<Question> getQuestionsByCategoryOrderByRandom(int categoryId, int count) throws DatabaseException {
         List<Question> questions = new ArrayList<>();
-        String sql = "SELECT id, category_id, text, option_a, option_b, option_c, option_d, correct_option, difficulty_level FROM questions WHERE category_id = ? ORDER BY RANDOM() LIMIT ?";
+        String sql = "SELECT " + QUESTION_COLUMNS + " FROM questions WHERE category_id = ? ORDER BY RANDOM() LIMIT ?";
 
         try (Connection conn = DBUtil.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -108,17 +579,7 @@ public class QuestionDAO {
             stmt.setInt(2, count);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    Question q = new Question();
-                    q.setId(rs.getInt("id"));
-                    q.setCategoryId(rs.getInt("category_id"));
-                    q.setText(rs.getString("text"));
-                    q.setOptionA(rs.getString("option_a"));
-                    q.setOptionB(rs.getString("option_b"));
-                    q.setOptionC(rs.getString("option_c"));
-                    q.setOptionD(rs.getString("option_d"));
-                    q.setCorrectOption(rs.getString("correct_option").charAt(0));
-                    q.setDifficultyLevel(rs.getInt("difficulty_level"));
-                    questions.add(q);
+                    questions.add(mapResultSetToQuestion(rs));
                 }
             }
         } catch (SQLException e) {
@@ -0,0 +1,257 @@
+package quiz.dao;
+
+import quiz.exceptions.DatabaseException;
+import util.DBUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+//alege n id-uri distincte de intrebari fara ORDER BY RANDOM()
+public class QuestionSampler {
+    private static final long RELOAD_INTERVAL_MILLIS = Long.getLong("quiz.sampler.reloadIntervalMillis", 300_000L);
+
+    private IdBucket allIds;
+    private Map<Integer, IdBucket> idsByCategory;
+    private long loadedAt;
+    //reincarcarea ruleaza in afara monitorului; intre timp se esantioneaza din id-urile vechi
+    private boolean loading;
+    //intrebari adaugate cat timp ruleaza query-ul de reincarcare, aplicate peste rezultatul lui
+    private List<int[]> addedWhileLoading;
+    //creste la fiecare invalidate(), ca o reincarcare pornita inainte sa nu fie considerata proaspata
+    private long generation;
+
+    //esantion din id-urile tinute in memorie (toate categoriile daca categoryId == -1)
+    public int[] sampleIds(int categoryId, int count) throws DatabaseException {
+        ensureLoaded();
+        synchronized (this) {
+            IdBucket bucket = bucket(categoryId);
+            if (bucket == null || bucket.size == 0 || count <= 0) {
+                return new int[0];
+            }
+            return sample(bucket.ids, bucket.size, count);
+        }
+    }
+
+    //ca mai sus, fara id-urile din exclude (ex. intrebari deja vazute); daca nu raman destule, se intorc cate sunt
+    public int[] sampleIds(int categoryId, int count, Set<Integer> exclude) throws DatabaseException {
+        if (exclude.isEmpty()) {
+            return sampleIds(categoryId, count);
+        }
+        ensureLoaded();
+        int[] candidates;
+        synchronized (this) {
+            IdBucket bucket = bucket(categoryId);
+            if (bucket == null || bucket.size == 0 || count <= 0) {
+                return new int[0];
+            }
+            //din count + |exclude| id-uri distincte cel putin count nu sunt excluse
+            candidates = sample(bucket.ids, bucket.size, count + Math.min(exclude.size(), bucket.size));
+        }
+        int[] result = new int[Math.min(count, candidates.length)];
+        int n = 0;
+        for (int i = 0; i < candidates.length && n < result.length; i++) {
+            if (!exclude.contains(candidates[i])) {
+                result[n++] = candidates[i];
+            }
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    private IdBucket bucket(int categoryId) {
+        if (allIds == null) {
+            return null;
+        }
+        return categoryId == -1 ? allIds : idsByCategory.get(categoryId);
+    }
+
+    //id-uri candidate aleatoare din intervalul dens [min(id), max(id)]
+    public int[] keysetCandidates(int count, Set<Integer> exclude) throws DatabaseException {
+        String sql = "SELECT MIN(id), MAX(id) FROM questions";
+        int minId;
+        int maxId;
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            if (!rs.next() || rs.getObject(1) == null) {
+                return new int[0];
+            }
+            minId = rs.getInt(1);
+            maxId = rs.getInt(2);
+        } catch (SQLException e) {
+            throw new DatabaseException("Error reading question id range: " + e.getMessage(), e);
+        }
+
+        long range = (long) maxId - minId + 1;
+        int available = (int) Math.max(0, Math.min(Integer.MAX_VALUE, range - exclude.size()));
+        int target = Math.min(available, count);
+        Set<Integer> candidates = new HashSet<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int attempts = 0;
+        while (candidates.size() < target && attempts < target * 4) {
+            int id = (int) (minId + random.nextLong(range));
+            if (!exclude.contains(id)) {
+                candidates.add(id);
+            }
+            attempts++;
+        }
+        return candidates.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public synchronized void onQuestionAdded(int questionId, int categoryId) {
+        if (loading) {
+            addedWhileLoading.add(new int[]{questionId, categoryId});
+        }
+        if (allIds == null) {
+            return;
+        }
+        allIds.add(questionId);
+        idsByCategory.computeIfAbsent(categoryId, k -> new IdBucket(16)).add(questionId);
+    }
+
+    public synchronized void invalidate() {
+        allIds = null;
+        idsByCategory = null;
+        generation++;
+    }
+
+    private void ensureLoaded() throws DatabaseException {
+        long startGeneration;
+        synchronized (this) {
+            while (true) {
+                if (allIds != null && (loading || System.currentTimeMillis() - loadedAt < RELOAD_INTERVAL_MILLIS)) {
+                    return;
+                }
+                if (!loading) {
+                    break;
+                }
+                //prima incarcare (sau dupa invalidate) e deja in curs pe alt thread
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new DatabaseException("Interrupted while waiting for question ids", e);
+                }
+            }
+            loading = true;
+            addedWhileLoading = new ArrayList<>();
+            startGeneration = generation;
+        }
+
+        IdBucket all = new IdBucket(1024);
+        Map<Integer, IdBucket> byCategory = new HashMap<>();
+        try {
+            loadIds(all, byCategory);
+        } catch (DatabaseException e) {
+            synchronized (this) {
+                loading = false;
+                addedWhileLoading = null;
+                notifyAll();
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            if (!addedWhileLoading.isEmpty()) {
+                addMissing(all, byCategory, addedWhileLoading);
+            }
+            this.allIds = all;
+            this.idsByCategory = byCategory;
+            //un update/delete in timpul query-ului: id-urile se folosesc, dar urmatorul acces le reincarca
+            this.loadedAt = generation == startGeneration ? System.currentTimeMillis() : 0;
+            loading = false;
+            addedWhileLoading = null;
+            notifyAll();
+        }
+    }
+
+    private static void loadIds(IdBucket all, Map<Integer, IdBucket> byCategory) throws DatabaseException {
+        String sql = "SELECT id, category_id FROM questions";
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setFetchSize(10_000);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int id = rs.getInt(1);
+                    all.add(id);
+                    byCategory.computeIfAbsent(rs.getInt(2), k -> new IdBucket(256)).add(id);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error loading question ids: " + e.getMessage(), e);
+        }
+    }
+
+    //intrebarile inserate in timpul query-ului pot sa fie sau nu in rezultatul lui
+    private static void addMissing(IdBucket all, Map<Integer, IdBucket> byCategory, List<int[]> added) {
+        Set<Integer> present = new HashSet<>();
+        for (int[] entry : added) {
+            present.add(entry[0]);
+        }
+        Set<Integer> found = new HashSet<>();
+        for (int i = 0; i < all.size; i++) {
+            if (present.contains(all.ids[i])) {
+                found.add(all.ids[i]);
+            }
+        }
+        for (int[] entry : added) {
+            if (found.add(entry[0])) {
+                all.add(entry[0]);
+                byCategory.computeIfAbsent(entry[1], k -> new IdBucket(16)).add(entry[0]);
+            }
+        }
+    }
+
+    //algoritmul lui Floyd: k indici distincti din [0, n) in O(k), apoi amestecare Fisher-Yates
+    static int[] sample(int[] source, int size, int count) {
+        int k = Math.min(count, size);
+        Set<Integer> chosen = new HashSet<>(k * 2);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int j = size - k; j < size; j++) {
+            int t = random.nextInt(j + 1);
+            if (!chosen.add(t)) {
+                chosen.add(j);
+            }
+        }
+
+        int[] result = new int[k];
+        int i = 0;
+        for (int index : chosen) {
+            result[i++] = source[index];
+        }
+        for (int j = k - 1; j > 0; j--) {
+            int swap = random.nextInt(j + 1);
+            int tmp = result[j];
+            result[j] = result[swap];
+            result[swap] = tmp;
+        }
+        return result;
+    }
+
+    private static final class IdBucket {
+        private int[] ids;
+        private int size;
+
+        private IdBucket(int capacity) {
+            this.ids = new int[capacity];
+        }
+
+        private void add(int id) {
+            if (size == ids.length) {
+                int[] grown = new int[ids.length * 2];
+                System.arraycopy(ids, 0, grown, 0, size);
+                ids = grown;
+            }
+            ids[size++] = id;
+        }
+    }
+}
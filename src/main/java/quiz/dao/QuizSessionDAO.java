@@ -6,52 +6,152 @@ import quiz.exceptions.DatabaseException;
 
 import java.sql.*;
 import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 public class QuizSessionDAO {
+    //numele categoriei vine in acelasi query, nu cu cate un getCategoryById pe rand
+    private static final String SESSION_SELECT =
+            "SELECT s.*, c.name AS category_name FROM quiz_sessions s LEFT JOIN categories c ON c.id = s.category_id ";
+
+    //sesiunea noua si contorul din user_stats intr-o singura instructiune
+    private static final String CREATE_SQL =
+            "WITH s AS (INSERT INTO quiz_sessions (user_id, total_questions, quiz_type, category_id, started_at) " +
+            "VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP) RETURNING id, user_id), " +
+            "st AS (INSERT INTO user_stats (user_id, total_sessions) SELECT user_id, 1 FROM s " +
+            "ON CONFLICT (user_id) DO UPDATE SET total_sessions = user_stats.total_sessions + 1, updated_at = CURRENT_TIMESTAMP) " +
+            "SELECT id FROM s";
+
     public int createQuizSession(QuizSession session) throws DatabaseException {
-        String sql = "INSERT INTO quiz_sessions (user_id, total_questions, quiz_type, started_at) VALUES (?, ?, ?, CURRENT_TIMESTAMP)";
-        
         try (Connection conn = DBUtil.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-        
+             PreparedStatement ps = conn.prepareStatement(CREATE_SQL)) {
+            return insertSession(ps, session);
+        } catch (SQLException e) {
+            throw new DatabaseException("Error creating quiz session: " + e.getMessage(), e);
+        }
+    }
+
+    //mai multe sesiuni (ex. jucatorii unei camere multiplayer) intr-o singura tranzactie, totul sau nimic
+    //id-urile revin in ordinea listei
+    public int[] createQuizSessions(List<QuizSession> sessions) throws DatabaseException {
+        int[] ids = new int[sessions.size()];
+        if (sessions.isEmpty()) {
+            return ids;
+        }
+        try (Connection conn = DBUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(CREATE_SQL)) {
+                for (int i = 0; i < sessions.size(); i++) {
+                    ids[i] = insertSession(ps, sessions.get(i));
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error creating " + sessions.size() + " quiz sessions: " + e.getMessage(), e);
+        }
+        return ids;
+    }
+
+    private static int insertSession(PreparedStatement ps, QuizSession session) throws SQLException {
         ps.setInt(1, session.getUserId());
         ps.setInt(2, session.getTotalQuestions());
         ps.setString(3, session.getQuizType());
-        ps.executeUpdate();
-        
-        try (ResultSet generatedKeys = ps.getGeneratedKeys()) {
+        if (session.getCategoryId() > 0) {
+            ps.setInt(4, session.getCategoryId());
+        } else {
+            ps.setNull(4, Types.INTEGER);
+        }
+        try (ResultSet generatedKeys = ps.executeQuery()) {
             if (generatedKeys.next()) {
                 return generatedKeys.getInt(1);
-            } else {
-                throw new DatabaseException("Creating quiz session failed, no ID obtained.");
+            }
+            throw new SQLException("Creating quiz session failed, no ID obtained.");
+        }
+    }
+
+    //utilizatorul sesiunii, cu randul blocat pana la sfarsitul tranzactiei apelantului; 0 daca sesiunea nu exista
+    public int lockSessionOwner(Connection conn, int sessionId) throws SQLException {
+        String sql = "SELECT user_id FROM quiz_sessions WHERE id = ? FOR UPDATE";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, sessionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
             }
         }
-    } catch (SQLException e) {
-        throw new DatabaseException("Error creating quiz session: " + e.getMessage(), e);
     }
-}
 
     // adaugat parametru timeTaken
     public void completeQuizSession(int sessionId, int correctAnswers, int finalScore, int timeTaken) throws DatabaseException {
-        String sql = "UPDATE quiz_sessions SET completed_at = CURRENT_TIMESTAMP, correct_answers = ?, final_score = ?, time_taken = ? WHERE id = ?";
+        try (Connection conn = DBUtil.getConnection()) {
+            completeQuizSession(conn, sessionId, correctAnswers, finalScore, timeTaken);
+        } catch (SQLException e) {
+            throw new DatabaseException("Error completing quiz session: " + e.getMessage(), e);
+        }
+    }
 
-        try (Connection conn = DBUtil.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+    //varianta care foloseste conexiunea (si tranzactia) apelantului
+    //actualizeaza si user_stats; o sesiune deja terminata nu se mai modifica (nu se numara de doua ori)
+    //intoarce sesiunea terminata acum (user, categorie, scor, completed_at) sau null daca era deja terminata
+    public QuizSession completeQuizSession(Connection conn, int sessionId, int correctAnswers, int finalScore, int timeTaken) throws SQLException {
+        String sql = "WITH done AS (UPDATE quiz_sessions SET completed_at = CURRENT_TIMESTAMP, correct_answers = ?, final_score = ?, time_taken = ? " +
+                "WHERE id = ? AND completed_at IS NULL " +
+                "RETURNING id, user_id, category_id, started_at, completed_at, correct_answers, final_score, total_questions, time_taken), " +
+                "st AS (INSERT INTO user_stats (user_id, total_sessions, completed_sessions, total_correct, total_questions, " +
+                "best_percentage, total_time_millis, updated_at) " +
+                "SELECT user_id, 1, 1, correct_answers, total_questions, " + UserStatsDAO.SESSION_PERCENTAGE + ", " +
+                UserStatsDAO.SESSION_TIME_MILLIS + ", CURRENT_TIMESTAMP FROM done " +
+                "ON CONFLICT (user_id) DO UPDATE SET completed_sessions = user_stats.completed_sessions + 1, " +
+                "total_correct = user_stats.total_correct + EXCLUDED.total_correct, " +
+                "total_questions = user_stats.total_questions + EXCLUDED.total_questions, " +
+                "best_percentage = GREATEST(user_stats.best_percentage, EXCLUDED.best_percentage), " +
+                "total_time_millis = user_stats.total_time_millis + EXCLUDED.total_time_millis, " +
+                "updated_at = EXCLUDED.updated_at) " +
+                "SELECT id, user_id, category_id, completed_at, correct_answers, final_score, total_questions, time_taken FROM done";
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, correctAnswers);
             ps.setInt(2, finalScore);
             ps.setInt(3, timeTaken); // Setează time_taken
             ps.setInt(4, sessionId);
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            throw new DatabaseException("Error completing quiz session: " + e.getMessage(), e);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                QuizSession session = new QuizSession();
+                session.setId(rs.getInt("id"));
+                session.setUserId(rs.getInt("user_id"));
+                session.setCategoryId(rs.getInt("category_id"));
+                session.setCompletedAt(rs.getTimestamp("completed_at").toLocalDateTime());
+                session.setCorrectAnswers(rs.getInt("correct_answers"));
+                session.setFinalScore(rs.getInt("final_score"));
+                session.setTotalQuestions(rs.getInt("total_questions"));
+                session.setTimeTaken(rs.getInt("time_taken"));
+                return session;
+            }
         }
     }
     
+    public QuizSession getQuizSessionById(int sessionId) throws DatabaseException {
+        String sql = SESSION_SELECT + "WHERE s.id = ?";
+
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, sessionId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? mapResultSetToQuizSession(rs) : null;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error fetching quiz session " + sessionId + ": " + e.getMessage(), e);
+        }
+    }
+
     public List<QuizSession> getUserQuizSessions(int userId) throws DatabaseException {
         List<QuizSession> sessions = new ArrayList<>();
-        String sql = "SELECT * FROM quiz_sessions WHERE user_id = ? ORDER BY started_at DESC";
+        String sql = SESSION_SELECT + "WHERE s.user_id = ? ORDER BY s.started_at DESC";
 
         try (Connection conn = DBUtil.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -60,37 +160,7 @@ public class QuizSessionDAO {
         
         try (ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
-                QuizSession session = new QuizSession();
-                session.setId(rs.getInt("id"));
-                session.setUserId(rs.getInt("user_id"));
-                
-                Timestamp startedAt = rs.getTimestamp("started_at");
-                if (startedAt != null) {
-                    session.setStartedAt(startedAt.toLocalDateTime());
-                }
-
-                Timestamp completedAt = rs.getTimestamp("completed_at");
-                if (completedAt != null) {
-                    session.setCompletedAt(completedAt.toLocalDateTime());
-                }
-                
-                session.setTotalQuestions(rs.getInt("total_questions"));
-                session.setCorrectAnswers(rs.getInt("correct_answers"));
-                session.setFinalScore(rs.getInt("final_score"));
-                session.setTimeTaken(rs.getInt("time_taken"));
-                
-                if (session.getTimeTaken() == 0 && session.getStartedAt() != null && session.getCompletedAt() != null) {
-                    long timeTaken = Duration.between(session.getStartedAt(), session.getCompletedAt()).toMillis();
-                    session.setTimeTaken((int) timeTaken);
-                }
-                
-                try {
-                    session.setQuizType(rs.getString("quiz_type"));
-                } catch (SQLException e) {
-                    session.setQuizType("STANDARD");
-                }
-                
-                sessions.add(session);
+                sessions.add(mapResultSetToQuizSession(rs));
             }
         }
     } catch (SQLException e) {
@@ -99,4 +169,77 @@ public class QuizSessionDAO {
 
     return sessions;
 }
-}
\ No newline at end of file
+
+    //pagina urmatoare din istoric, de la cea mai noua la cea mai veche; afterStartedAt = null pentru prima pagina
+    //sesiunile cu aceeasi data de start sunt sarite; pentru paginare exacta se foloseste varianta cu afterId
+    public List<QuizSession> getUserQuizSessions(int userId, LocalDateTime afterStartedAt, int limit) throws DatabaseException {
+        return getUserQuizSessions(userId, afterStartedAt, 0, limit);
+    }
+
+    //keyset pe (started_at, id): costul unei pagini nu depinde de cat de departe e in istoric
+    //(index: db/quiz_sessions.sql)
+    public List<QuizSession> getUserQuizSessions(int userId, LocalDateTime afterStartedAt, int afterId, int limit) throws DatabaseException {
+        List<QuizSession> sessions = new ArrayList<>(limit);
+        String sql = afterStartedAt == null
+                ? SESSION_SELECT + "WHERE s.user_id = ? AND s.started_at IS NOT NULL " +
+                  "ORDER BY s.started_at DESC, s.id DESC LIMIT ?"
+                : SESSION_SELECT + "WHERE s.user_id = ? AND s.started_at IS NOT NULL " +
+                  "AND (s.started_at, s.id) < (?, ?) ORDER BY s.started_at DESC, s.id DESC LIMIT ?";
+
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            stmt.setInt(index++, userId);
+            if (afterStartedAt != null) {
+                stmt.setTimestamp(index++, Timestamp.valueOf(afterStartedAt));
+                stmt.setInt(index++, afterId);
+            }
+            stmt.setInt(index, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    sessions.add(mapResultSetToQuizSession(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error fetching quiz sessions page for user " + userId + ": " + e.getMessage(), e);
+        }
+        return sessions;
+    }
+
+    private QuizSession mapResultSetToQuizSession(ResultSet rs) throws SQLException {
+        QuizSession session = new QuizSession();
+        session.setId(rs.getInt("id"));
+        session.setUserId(rs.getInt("user_id"));
+
+        Timestamp startedAt = rs.getTimestamp("started_at");
+        if (startedAt != null) {
+            session.setStartedAt(startedAt.toLocalDateTime());
+        }
+
+        Timestamp completedAt = rs.getTimestamp("completed_at");
+        if (completedAt != null) {
+            session.setCompletedAt(completedAt.toLocalDateTime());
+        }
+
+        session.setTotalQuestions(rs.getInt("total_questions"));
+        session.setCorrectAnswers(rs.getInt("correct_answers"));
+        session.setFinalScore(rs.getInt("final_score"));
+        session.setTimeTaken(rs.getInt("time_taken"));
+
+        if (session.getTimeTaken() == 0 && session.getStartedAt() != null && session.getCompletedAt() != null) {
+            long timeTaken = Duration.between(session.getStartedAt(), session.getCompletedAt()).toMillis();
+            session.setTimeTaken((int) timeTaken);
+        }
+
+        session.setCategoryId(rs.getInt("category_id"));
+        session.setCategoryName(rs.getString("category_name"));
+
+        try {
+            session.setQuizType(rs.getString("quiz_type"));
+        } catch (SQLException e) {
+            session.setQuizType("STANDARD");
+        }
+        return session;
+    }
+}
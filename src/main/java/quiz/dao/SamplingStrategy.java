@@ -0,0 +1,11 @@
+package quiz.dao;
+
+//modul in care sunt alese intrebarile aleatoare
+public enum SamplingStrategy {
+    //comportamentul initial: ORDER BY RANDOM() LIMIT ? (sorteaza tot tabelul)
+    ORDER_BY_RANDOM,
+    //id-uri aleatoare in intervalul [min(id), max(id)], aduse cu WHERE id = ANY(?)
+    KEYSET,
+    //id-urile pe categorie tinute in memorie, esantionate fara sortare
+    ID_ARRAY
+}
@@ -1,16 +1,18 @@
 package quiz.dao;
 
+import quiz.model.Score;
 import util.DBUtil;
 import quiz.exceptions.DatabaseException;
 
 import java.sql.*;
+import java.util.List;
 
 public class ScoreDAO {
-    public void saveScore(int userId, int sessionId, int questionId, char selectedOption, boolean isCorrect, int timeTaken) throws DatabaseException {
-        String sql = "INSERT INTO scores (user_id, quiz_session_id, question_id, selected_option, is_correct, time_taken) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_SQL = "INSERT INTO scores (user_id, quiz_session_id, question_id, selected_option, is_correct, time_taken) VALUES (?, ?, ?, ?, ?, ?)";
 
+    public void saveScore(int userId, int sessionId, int questionId, char selectedOption, boolean isCorrect, int timeTaken) throws DatabaseException {
         try (Connection conn = DBUtil.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
             ps.setInt(1, userId);
             ps.setInt(2, sessionId);
             ps.setInt(3, questionId);
@@ -22,4 +24,39 @@ public class ScoreDAO {
             throw new DatabaseException("Error saving score: " + e.getMessage(), e); // Mesaj de eroare mai descriptiv
         }
     }
-}
\ No newline at end of file
+
+    //insert in batch, totul sau nimic
+    public void saveScores(List<Score> scores) throws DatabaseException {
+        if (scores.isEmpty()) {
+            return;
+        }
+        try (Connection conn = DBUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                saveScores(conn, scores);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error saving " + scores.size() + " scores: " + e.getMessage(), e);
+        }
+    }
+
+    //foloseste conexiunea (si tranzactia) apelantului
+    public void saveScores(Connection conn, List<Score> scores) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
+            for (Score score : scores) {
+                ps.setInt(1, score.getUserId());
+                ps.setInt(2, score.getQuizSessionId());
+                ps.setInt(3, score.getQuestionId());
+                ps.setString(4, String.valueOf(score.getSelectedOption()));
+                ps.setBoolean(5, score.isCorrect());
+                ps.setInt(6, score.getTimeTaken());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+}
@@ -47,7 +47,8 @@ public class UserDAO {
     }
 
 
-    private User mapResultSetToUser(ResultSet rs) throws SQLException {
+    //package-private pentru benchmark-ul de mapare (modulul benchmarks)
+    User mapResultSetToUser(ResultSet rs) throws SQLException {
         User user = new User();
         user.setId(rs.getInt("id"));
         user.setUsername(rs.getString("username"));
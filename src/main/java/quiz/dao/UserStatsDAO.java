@@ -0,0 +1,133 @@
+package quiz.dao;
+
+import quiz.exceptions.DatabaseException;
+import quiz.model.UserStats;
+import util.DBUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+//citire si reconstruire pentru tabela user_stats (db/user_stats.sql)
+//actualizarea incrementala se face in QuizSessionDAO, in aceeasi instructiune cu sesiunea
+public class UserStatsDAO {
+    //durata unei sesiuni terminate in ms; time_taken lipsa (0) se calculeaza din started_at / completed_at
+    static final String SESSION_TIME_MILLIS =
+            "CASE WHEN time_taken > 0 THEN time_taken " +
+            "ELSE COALESCE((EXTRACT(EPOCH FROM (completed_at - started_at)) * 1000)::bigint, 0) END";
+
+    static final String SESSION_PERCENTAGE =
+            "CASE WHEN total_questions > 0 THEN correct_answers * 100 / total_questions ELSE 0 END";
+
+    //inainte de reconstruire: users blocheaza crearea de sesiuni noi (cheia straina ia KEY SHARE pe users),
+    //user_stats blocheaza finalizarile; amandoua asteapta si tranzactiile deja in curs
+    private static final String LOCK_USERS_SQL = "SELECT id FROM users WHERE id >= ? AND id < ? FOR UPDATE";
+    private static final String LOCK_STATS_SQL = "SELECT user_id FROM user_stats WHERE user_id >= ? AND user_id < ? FOR UPDATE";
+
+    private static final String REBUILD_SQL =
+            "INSERT INTO user_stats (user_id, total_sessions, completed_sessions, total_correct, total_questions, " +
+            "best_percentage, total_time_millis, updated_at) " +
+            "SELECT u.id, COUNT(s.id), COUNT(s.completed_at), " +
+            "COALESCE(SUM(s.correct_answers) FILTER (WHERE s.completed_at IS NOT NULL), 0), " +
+            "COALESCE(SUM(s.total_questions) FILTER (WHERE s.completed_at IS NOT NULL), 0), " +
+            "COALESCE(MAX(" + SESSION_PERCENTAGE + ") FILTER (WHERE s.completed_at IS NOT NULL), 0), " +
+            "COALESCE(SUM(" + SESSION_TIME_MILLIS + ") FILTER (WHERE s.completed_at IS NOT NULL), 0), " +
+            "CURRENT_TIMESTAMP " +
+            "FROM users u LEFT JOIN quiz_sessions s ON s.user_id = u.id " +
+            "WHERE u.id >= ? AND u.id < ? " +
+            "GROUP BY u.id " +
+            "ON CONFLICT (user_id) DO UPDATE SET total_sessions = EXCLUDED.total_sessions, " +
+            "completed_sessions = EXCLUDED.completed_sessions, total_correct = EXCLUDED.total_correct, " +
+            "total_questions = EXCLUDED.total_questions, best_percentage = EXCLUDED.best_percentage, " +
+            "total_time_millis = EXCLUDED.total_time_millis, updated_at = EXCLUDED.updated_at";
+
+    public UserStats getUserStats(int userId) throws DatabaseException {
+        try (Connection conn = DBUtil.getConnection()) {
+            return getUserStats(conn, userId);
+        } catch (SQLException e) {
+            throw new DatabaseException("Error fetching user stats: " + e.getMessage(), e);
+        }
+    }
+
+    //utilizator fara rand in user_stats = niciun quiz jucat
+    public UserStats getUserStats(Connection conn, int userId) throws SQLException {
+        String sql = "SELECT * FROM user_stats WHERE user_id = ?";
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                UserStats stats = new UserStats(userId);
+                if (rs.next()) {
+                    mapStatsColumns(rs, stats);
+                }
+                return stats;
+            }
+        }
+    }
+
+    //coloanele user_stats din randul curent; folosit si de AnalyticsDAO (snapshot-ul de performanta)
+    static void mapStatsColumns(ResultSet rs, UserStats stats) throws SQLException {
+        stats.setTotalSessions(rs.getInt("total_sessions"));
+        stats.setCompletedSessions(rs.getInt("completed_sessions"));
+        stats.setTotalCorrectAnswers(rs.getLong("total_correct"));
+        stats.setTotalQuestions(rs.getLong("total_questions"));
+        stats.setBestPercentage(rs.getInt("best_percentage"));
+        stats.setTotalTimeMillis(rs.getLong("total_time_millis"));
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        if (updatedAt != null) {
+            stats.setUpdatedAt(updatedAt.toLocalDateTime());
+        }
+    }
+
+    //recalculeaza din quiz_sessions statisticile utilizatorilor cu id in [fromUserId, toUserId)
+    //randurile lotului se blocheaza intr-o instructiune separata, inainte de agregare: agregarea ia snapshot-ul
+    //abia dupa ce s-au terminat sesiunile/finalizarile in curs, deci nu le suprascrie incrementul cu totaluri vechi
+    public int rebuildUserStats(int fromUserId, int toUserId) throws DatabaseException {
+        try (Connection conn = DBUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                lockRange(conn, LOCK_USERS_SQL, fromUserId, toUserId);
+                lockRange(conn, LOCK_STATS_SQL, fromUserId, toUserId);
+                int rebuilt;
+                try (PreparedStatement ps = conn.prepareStatement(REBUILD_SQL)) {
+                    ps.setInt(1, fromUserId);
+                    ps.setInt(2, toUserId);
+                    rebuilt = ps.executeUpdate();
+                }
+                conn.commit();
+                return rebuilt;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error rebuilding user stats: " + e.getMessage(), e);
+        }
+    }
+
+    private static void lockRange(Connection conn, String sql, int fromUserId, int toUserId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, fromUserId);
+            ps.setInt(2, toUserId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    //randurile se citesc doar ca sa fie blocate
+                }
+            }
+        }
+    }
+
+    public int getMaxUserId() throws DatabaseException {
+        String sql = "SELECT COALESCE(MAX(id), 0) FROM users";
+
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error fetching max user id: " + e.getMessage(), e);
+        }
+    }
+}
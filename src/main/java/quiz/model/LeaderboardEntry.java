@@ -0,0 +1,35 @@
+package quiz.model;
+
+//un rand dintr-un clasament: pozitia (de la 1), jucatorul, suma scorurilor si numarul de quiz-uri terminate
+public class LeaderboardEntry {
+    private int rank;
+    private int userId;
+    private String username;
+    private long score;
+    private int gamesPlayed;
+
+    public LeaderboardEntry() {}
+
+    public LeaderboardEntry(int rank, int userId, String username, long score, int gamesPlayed) {
+        this.rank = rank;
+        this.userId = userId;
+        this.username = username;
+        this.score = score;
+        this.gamesPlayed = gamesPlayed;
+    }
+
+    public int getRank() { return rank; }
+    public void setRank(int rank) { this.rank = rank; }
+
+    public int getUserId() { return userId; }
+    public void setUserId(int userId) { this.userId = userId; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public long getScore() { return score; }
+    public void setScore(long score) { this.score = score; }
+
+    public int getGamesPlayed() { return gamesPlayed; }
+    public void setGamesPlayed(int gamesPlayed) { this.gamesPlayed = gamesPlayed; }
+}
@@ -38,4 +38,20 @@ public class Question {
     public void setDifficultyLevel(int difficultyLevel){this.difficultyLevel=difficultyLevel;}
     public void setCategoryName(String categoryName){this.categoryName=categoryName;}
 
+    //copie independenta, pentru cache-urile care nu au voie sa dea mai departe obiectele proprii
+    public Question copy() {
+        Question copy = new Question();
+        copy.id = id;
+        copy.categoryId = categoryId;
+        copy.categoryName = categoryName;
+        copy.text = text;
+        copy.optionA = optionA;
+        copy.optionB = optionB;
+        copy.optionC = optionC;
+        copy.optionD = optionD;
+        copy.correctOption = correctOption;
+        copy.difficultyLevel = difficultyLevel;
+        return copy;
+    }
+
 }
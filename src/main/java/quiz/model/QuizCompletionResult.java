@@ -0,0 +1,45 @@
+package quiz.model;
+
+import java.util.List;
+
+//tot ce are nevoie dialogul de rezultate la finalul unui quiz
+public class QuizCompletionResult {
+    private int sessionId;
+    private int correctAnswers;
+    private int totalQuestions;
+    private int timeTaken;
+    private int achievementsAwarded;
+    private List<Achievement> newAchievements;
+    private double performance;
+    private String performanceLevel;
+
+    public QuizCompletionResult() {}
+
+    public int getSessionId() { return sessionId; }
+    public void setSessionId(int sessionId) { this.sessionId = sessionId; }
+
+    public int getCorrectAnswers() { return correctAnswers; }
+    public void setCorrectAnswers(int correctAnswers) { this.correctAnswers = correctAnswers; }
+
+    public int getTotalQuestions() { return totalQuestions; }
+    public void setTotalQuestions(int totalQuestions) { this.totalQuestions = totalQuestions; }
+
+    public int getTimeTaken() { return timeTaken; }
+    public void setTimeTaken(int timeTaken) { this.timeTaken = timeTaken; }
+
+    public int getAchievementsAwarded() { return achievementsAwarded; }
+    public void setAchievementsAwarded(int achievementsAwarded) { this.achievementsAwarded = achievementsAwarded; }
+
+    public List<Achievement> getNewAchievements() { return newAchievements; }
+    public void setNewAchievements(List<Achievement> newAchievements) { this.newAchievements = newAchievements; }
+
+    public double getPerformance() { return performance; }
+    public void setPerformance(double performance) { this.performance = performance; }
+
+    public String getPerformanceLevel() { return performanceLevel; }
+    public void setPerformanceLevel(String performanceLevel) { this.performanceLevel = performanceLevel; }
+
+    public double getPercentage() {
+        return totalQuestions > 0 ? (double) correctAnswers / totalQuestions * 100 : 0.0;
+    }
+}
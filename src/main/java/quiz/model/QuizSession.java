@@ -12,6 +12,7 @@ public class QuizSession {
     private int timeTaken;
     private String sessionType;
     private int categoryId;
+    private String categoryName;
     private String quizType;
 
     public QuizSession() {}
@@ -66,6 +67,10 @@ public class QuizSession {
     public String getQuizType() { return quizType; }
     public void setQuizType(String quizType) { this.quizType = quizType; }
     
+    public int getFinalScore() {
+        return finalScore;
+    }
+
     public void setFinalScore(int finalScore) {
         this.finalScore = finalScore;
     }
@@ -86,4 +91,12 @@ public class QuizSession {
         return categoryId;
     }
 
+    public void setCategoryId(int categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    //numele din join-ul cu categories, null daca sesiunea nu are categorie
+    public String getCategoryName() { return categoryName; }
+    public void setCategoryName(String categoryName) { this.categoryName = categoryName; }
+
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package quiz.model;
+
+public class Score {
+    private int userId;
+    private int quizSessionId;
+    private int questionId;
+    private char selectedOption;
+    private boolean isCorrect;
+    private int timeTaken;
+
+    public Score() {}
+
+    public Score(int userId, int quizSessionId, int questionId, char selectedOption, boolean isCorrect, int timeTaken) {
+        this.userId = userId;
+        this.quizSessionId = quizSessionId;
+        this.questionId = questionId;
+        this.selectedOption = selectedOption;
+        this.isCorrect = isCorrect;
+        this.timeTaken = timeTaken;
+    }
+
+    public int getUserId() { return userId; }
+    public void setUserId(int userId) { this.userId = userId; }
+
+    public int getQuizSessionId() { return quizSessionId; }
+    public void setQuizSessionId(int quizSessionId) { this.quizSessionId = quizSessionId; }
+
+    public int getQuestionId() { return questionId; }
+    public void setQuestionId(int questionId) { this.questionId = questionId; }
+
+    public char getSelectedOption() { return selectedOption; }
+    public void setSelectedOption(char selectedOption) { this.selectedOption = selectedOption; }
+
+    public boolean isCorrect() { return isCorrect; }
+    public void setCorrect(boolean correct) { this.isCorrect = correct; }
+
+    public int getTimeTaken() { return timeTaken; }
+    public void setTimeTaken(int timeTaken) { this.timeTaken = timeTaken; }
+}
@@ -0,0 +1,23 @@
+package quiz.model;
+
+//performanta, nivelul si totalurile unui utilizator, citite intr-un singur query
+public class UserPerformanceSnapshot {
+    private int userId;
+    private double performance;
+    private String performanceLevel;
+    private UserStats stats;
+
+    public UserPerformanceSnapshot() {}
+
+    public int getUserId() { return userId; }
+    public void setUserId(int userId) { this.userId = userId; }
+
+    public double getPerformance() { return performance; }
+    public void setPerformance(double performance) { this.performance = performance; }
+
+    public String getPerformanceLevel() { return performanceLevel; }
+    public void setPerformanceLevel(String performanceLevel) { this.performanceLevel = performanceLevel; }
+
+    public UserStats getStats() { return stats; }
+    public void setStats(UserStats stats) { this.stats = stats; }
+}
@@ -0,0 +1,50 @@
+package quiz.model;
+
+import java.time.LocalDateTime;
+
+//totalurile unui utilizator din tabela user_stats
+public class UserStats {
+    private int userId;
+    private int totalSessions;
+    private int completedSessions;
+    private long totalCorrectAnswers;
+    private long totalQuestions;
+    private int bestPercentage;
+    private long totalTimeMillis;
+    private LocalDateTime updatedAt;
+
+    public UserStats() {}
+
+    public UserStats(int userId) {
+        this.userId = userId;
+    }
+
+    public int getUserId() { return userId; }
+    public void setUserId(int userId) { this.userId = userId; }
+
+    public int getTotalSessions() { return totalSessions; }
+    public void setTotalSessions(int totalSessions) { this.totalSessions = totalSessions; }
+
+    public int getCompletedSessions() { return completedSessions; }
+    public void setCompletedSessions(int completedSessions) { this.completedSessions = completedSessions; }
+
+    public long getTotalCorrectAnswers() { return totalCorrectAnswers; }
+    public void setTotalCorrectAnswers(long totalCorrectAnswers) { this.totalCorrectAnswers = totalCorrectAnswers; }
+
+    public long getTotalQuestions() { return totalQuestions; }
+    public void setTotalQuestions(long totalQuestions) { this.totalQuestions = totalQuestions; }
+
+    public int getBestPercentage() { return bestPercentage; }
+    public void setBestPercentage(int bestPercentage) { this.bestPercentage = bestPercentage; }
+
+    public long getTotalTimeMillis() { return totalTimeMillis; }
+    public void setTotalTimeMillis(long totalTimeMillis) { this.totalTimeMillis = totalTimeMillis; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    //procent mediu din intrebarile sesiunilor terminate
+    public double getAverageScore() {
+        return totalQuestions > 0 ? (double) totalCorrectAnswers / totalQuestions * 100 : 0.0;
+    }
+}
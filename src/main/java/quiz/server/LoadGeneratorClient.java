@@ -0,0 +1,318 @@
+package quiz.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//generator de incarcare pentru QuizServer: deschide N conexiuni de pe un singur thread (NIO), le grupeaza in camere,
+//raspunde la fiecare intrebare dupa un timp de gandire aleator si masoara latenta ANSWER -> ANSWERED
+//utilizare: LoadGeneratorClient <host> <port> <conexiuni> <jucatori pe camera> <userId> [categoryId]
+public class LoadGeneratorClient {
+    private static final int CONNECT_RATE = Integer.getInteger("quiz.loadgen.connectRate", 1000);
+    private static final int MIN_THINK_MILLIS = Integer.getInteger("quiz.loadgen.minThinkMillis", 200);
+    private static final int MAX_THINK_MILLIS = Integer.getInteger("quiz.loadgen.maxThinkMillis", 3000);
+    private static final int MAX_DURATION_SECONDS = Integer.getInteger("quiz.loadgen.durationSeconds", 600);
+    private static final char[] OPTIONS = {'A', 'B', 'C', 'D'};
+
+    private final InetSocketAddress address;
+    private final int connections;
+    private final int roomSize;
+    private final int userId;
+    private final int categoryId;
+
+    private final Selector selector;
+    private final PriorityQueue<PendingAnswer> pendingAnswers = new PriorityQueue<>((a, b) -> Long.compare(a.dueNanos, b.dueNanos));
+    private int opened;
+    private int connected;
+    private int failed;
+    private int closed;
+    private int finished;
+    private long questionsReceived;
+    private long answersSent;
+    private long errors;
+    private long[] latencies = new long[1024];
+    private int latencyCount;
+
+    public LoadGeneratorClient(InetSocketAddress address, int connections, int roomSize, int userId, int categoryId) throws IOException {
+        this.address = address;
+        this.connections = connections;
+        this.roomSize = Math.max(1, roomSize);
+        this.userId = userId;
+        this.categoryId = categoryId;
+        this.selector = Selector.open();
+    }
+
+    public void run() throws IOException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(MAX_DURATION_SECONDS);
+        long nextReport = start + TimeUnit.SECONDS.toNanos(5);
+
+        while (finished + closed < connections && System.nanoTime() < deadline) {
+            openConnections(start);
+            long now = System.nanoTime();
+            long waitMillis = 100;
+            PendingAnswer next = pendingAnswers.peek();
+            if (next != null) {
+                waitMillis = Math.max(1, Math.min(waitMillis, TimeUnit.NANOSECONDS.toMillis(next.dueNanos - now)));
+            }
+            selector.select(waitMillis);
+
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                handle(key);
+            }
+            sendDueAnswers();
+
+            if (System.nanoTime() >= nextReport) {
+                report(start);
+                nextReport += TimeUnit.SECONDS.toNanos(5);
+            }
+        }
+        report(start);
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    //conexiunile se deschid treptat, ca backlog-ul serverului sa nu se umple
+    private void openConnections(long start) {
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long allowed = Math.min(connections, (elapsedMillis * CONNECT_RATE) / 1000 + 1);
+        while (opened < allowed) {
+            Client client = new Client(opened);
+            opened++;
+            try {
+                SocketChannel channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                client.channel = channel;
+                client.key = channel.register(selector, SelectionKey.OP_CONNECT, client);
+                channel.connect(address);
+            } catch (IOException e) {
+                failed++;
+                closed++;
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        Client client = (Client) key.attachment();
+        try {
+            if (key.isConnectable()) {
+                client.channel.finishConnect();
+                connected++;
+                key.interestOps(SelectionKey.OP_READ);
+                String join = Protocol.JOIN + " room-" + (client.index / roomSize) + " " + userId
+                        + (categoryId != -1 ? " " + categoryId : "");
+                client.send(join);
+                return;
+            }
+            if (key.isReadable()) {
+                if (client.channel.read(client.readBuffer) < 0) {
+                    close(client);
+                    return;
+                }
+                client.readBuffer.flip();
+                while (client.readBuffer.hasRemaining()) {
+                    byte b = client.readBuffer.get();
+                    if (b == '\n') {
+                        onLine(client, client.line.toString(StandardCharsets.UTF_8));
+                        client.line.reset();
+                    } else {
+                        client.line.write(b);
+                    }
+                }
+                client.readBuffer.clear();
+            }
+            if (key.isValid() && key.isWritable() && client.flush()) {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        } catch (IOException e) {
+            if (!client.connectedOnce()) {
+                failed++;
+            }
+            close(client);
+        }
+    }
+
+    private void onLine(Client client, String line) throws IOException {
+        int space = line.indexOf(' ');
+        String command = space < 0 ? line : line.substring(0, space);
+        switch (command) {
+            case Protocol.JOINED: {
+                //ultimul jucator intrat porneste camera (START e ignorat daca a pornit deja)
+                String[] parts = line.split(" ");
+                if (parts.length >= 3 && Integer.parseInt(parts[2]) >= Math.min(roomSize, connections - client.index / roomSize * roomSize)) {
+                    client.send(Protocol.START);
+                }
+                break;
+            }
+            case Protocol.QUESTION: {
+                String[] parts = line.substring(0, line.indexOf('\t')).split(" ");
+                questionsReceived++;
+                long think = ThreadLocalRandom.current().nextLong(MIN_THINK_MILLIS, Math.max(MIN_THINK_MILLIS + 1, MAX_THINK_MILLIS));
+                pendingAnswers.add(new PendingAnswer(client, Integer.parseInt(parts[1]),
+                        System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(think)));
+                break;
+            }
+            case Protocol.ANSWERED:
+                if (client.answerSentNanos != 0) {
+                    recordLatency(System.nanoTime() - client.answerSentNanos);
+                    client.answerSentNanos = 0;
+                }
+                break;
+            case Protocol.RESULTS:
+                finished++;
+                client.done = true;
+                client.send(Protocol.QUIT);
+                break;
+            case Protocol.ERROR:
+                errors++;
+                if (errors <= 10) {
+                    System.err.println("Server error for connection " + client.index + ": " + line);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void sendDueAnswers() {
+        long now = System.nanoTime();
+        PendingAnswer answer;
+        while ((answer = pendingAnswers.peek()) != null && answer.dueNanos <= now) {
+            pendingAnswers.poll();
+            Client client = answer.client;
+            if (!client.channel.isOpen()) {
+                continue;
+            }
+            try {
+                client.answerSentNanos = System.nanoTime();
+                client.send(Protocol.ANSWER + " " + answer.questionIndex + " " + OPTIONS[ThreadLocalRandom.current().nextInt(OPTIONS.length)]);
+                answersSent++;
+            } catch (IOException e) {
+                close(client);
+            }
+        }
+    }
+
+    private void close(Client client) {
+        if (!client.channel.isOpen()) {
+            return;
+        }
+        if (!client.done) {
+            closed++;
+        }
+        client.key.cancel();
+        try {
+            client.channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing client: " + e.getMessage());
+        }
+    }
+
+    private void recordLatency(long nanos) {
+        if (latencyCount == latencies.length) {
+            latencies = Arrays.copyOf(latencies, latencies.length * 2);
+        }
+        latencies[latencyCount++] = nanos;
+    }
+
+    private void report(long start) {
+        long[] sorted = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(sorted);
+        System.out.printf("[%ds] opened=%d connected=%d failed=%d finished=%d dropped=%d questions=%d answers=%d errors=%d "
+                        + "ack p50=%.2fms p99=%.2fms max=%.2fms%n",
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start), opened, connected, failed, finished, closed,
+                questionsReceived, answersSent, errors,
+                percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99), percentileMillis(sorted, 1.0));
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private final class Client {
+        private final int index;
+        private SocketChannel channel;
+        private SelectionKey key;
+        private final ByteBuffer readBuffer = ByteBuffer.allocate(2048);
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+        private final ArrayDeque<ByteBuffer> outbound = new ArrayDeque<>();
+        private long answerSentNanos;
+        private boolean done;
+
+        private Client(int index) {
+            this.index = index;
+        }
+
+        private void send(String message) throws IOException {
+            outbound.add(ByteBuffer.wrap(Protocol.encode(message)));
+            if (!flush()) {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        }
+
+        private boolean flush() throws IOException {
+            ByteBuffer buffer;
+            while ((buffer = outbound.peek()) != null) {
+                channel.write(buffer);
+                if (buffer.hasRemaining()) {
+                    return false;
+                }
+                outbound.poll();
+            }
+            return true;
+        }
+
+        private boolean connectedOnce() {
+            return channel.isConnected();
+        }
+    }
+
+    private static final class PendingAnswer {
+        private final Client client;
+        private final int questionIndex;
+        private final long dueNanos;
+
+        private PendingAnswer(Client client, int questionIndex, long dueNanos) {
+            this.client = client;
+            this.questionIndex = questionIndex;
+            this.dueNanos = dueNanos;
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 5) {
+            System.err.println("Usage: LoadGeneratorClient <host> <port> <connections> <playersPerRoom> <userId> [categoryId]");
+            System.exit(1);
+        }
+        try {
+            LoadGeneratorClient client = new LoadGeneratorClient(new InetSocketAddress(args[0], Integer.parseInt(args[1])),
+                    Integer.parseInt(args[2]), Integer.parseInt(args[3]), Integer.parseInt(args[4]),
+                    args.length > 5 ? Integer.parseInt(args[5]) : -1);
+            client.run();
+        } catch (IOException e) {
+            System.err.println("Load generator failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
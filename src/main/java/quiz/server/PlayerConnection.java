@@ -0,0 +1,162 @@
+package quiz.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//o conexiune de jucator; citirea si scrierea pe socket se fac doar pe thread-ul SelectorLoop-ului ei,
+//send() poate fi apelat de oriunde (camera, timer, thread-uri de bd)
+public class PlayerConnection {
+    private static final int MAX_QUEUED_BYTES = Integer.getInteger("quiz.server.maxQueuedBytes", 256 * 1024);
+
+    private final SocketChannel channel;
+    private final SelectorLoop loop;
+    private SelectionKey key;
+
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(1024);
+    private final byte[] line = new byte[Protocol.MAX_LINE_BYTES];
+    private int lineLength;
+
+    private final Queue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedBytes = new AtomicInteger();
+    private volatile boolean closed;
+
+    //starea jucatorului; modificata sub lock-ul camerei (room e citit si de thread-ul selectorului)
+    private int userId;
+    private volatile QuizRoom room;
+    int sessionId;
+    int score;
+    int totalTimeMillis;
+    int answeredIndex = -1;
+
+    PlayerConnection(SocketChannel channel, SelectorLoop loop) {
+        this.channel = channel;
+        this.loop = loop;
+    }
+
+    void setKey(SelectionKey key) {
+        this.key = key;
+    }
+
+    public void send(String message) {
+        send(Protocol.encode(message));
+    }
+
+    //acelasi tablou poate fi trimis mai multor jucatori (broadcast): fiecare are propriul ByteBuffer peste el
+    public void send(byte[] message) {
+        if (closed) {
+            return;
+        }
+        //client prea lent: nu se tine in memorie la nesfarsit ce nu citeste
+        if (queuedBytes.addAndGet(message.length) > MAX_QUEUED_BYTES) {
+            System.err.println("Closing slow client " + describe() + ": " + queuedBytes.get() + " bytes queued");
+            disconnect();
+            return;
+        }
+        outbound.add(ByteBuffer.wrap(message));
+        loop.requestWrite(this);
+    }
+
+    //inchidere ceruta din afara thread-ului selectorului (ex. QUIT)
+    public void disconnect() {
+        loop.requestClose(this);
+    }
+
+    //returneaza liniile complete citite; -1 = conexiune inchisa de client sau linie prea lunga
+    int read(LineHandler handler) throws IOException {
+        int read = channel.read(readBuffer);
+        if (read < 0) {
+            return -1;
+        }
+        readBuffer.flip();
+        while (readBuffer.hasRemaining()) {
+            byte b = readBuffer.get();
+            if (b == '\n') {
+                int end = lineLength > 0 && line[lineLength - 1] == '\r' ? lineLength - 1 : lineLength;
+                String text = new String(line, 0, end, StandardCharsets.UTF_8);
+                lineLength = 0;
+                if (!text.isEmpty()) {
+                    handler.onLine(this, text);
+                }
+            } else if (lineLength == line.length) {
+                readBuffer.clear();
+                return -1;
+            } else {
+                line[lineLength++] = b;
+            }
+        }
+        readBuffer.clear();
+        return read;
+    }
+
+    //true daca totul a fost scris; altfel se asteapta OP_WRITE
+    boolean flush() throws IOException {
+        ByteBuffer buffer;
+        while ((buffer = outbound.peek()) != null) {
+            int written = channel.write(buffer);
+            queuedBytes.addAndGet(-written);
+            if (buffer.hasRemaining()) {
+                return false;
+            }
+            outbound.poll();
+        }
+        return true;
+    }
+
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (key != null) {
+            key.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing connection: " + e.getMessage());
+        }
+        outbound.clear();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    SelectionKey getKey() {
+        return key;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    QuizRoom getRoom() {
+        return room;
+    }
+
+    void setRoom(QuizRoom room) {
+        this.room = room;
+    }
+
+    String describe() {
+        try {
+            return "user " + userId + " (" + channel.getRemoteAddress() + ")";
+        } catch (IOException e) {
+            return "user " + userId;
+        }
+    }
+
+    interface LineHandler {
+        void onLine(PlayerConnection connection, String line);
+    }
+}
@@ -0,0 +1,60 @@
+package quiz.server;
+
+import quiz.model.Question;
+
+import java.nio.charset.StandardCharsets;
+
+//protocolul text al serverului multiplayer: o comanda pe linie (utf-8, terminata cu \n), campurile separate prin spatiu
+//
+//client -> server:
+//  JOIN <camera> <userId> [categoryId]   intra in camera (o creeaza daca nu exista; fara categorie = quiz random)
+//  START                                  porneste quiz-ul camerei
+//  ANSWER <index> <A|B|C|D>               raspuns la intrebarea curenta
+//  QUIT
+//
+//server -> client:
+//  JOINED <camera> <jucatori>
+//  QUESTION <index> <total> <secunde>\t<text>\t<A>\t<B>\t<C>\t<D>
+//  ANSWERED <index> <CORRECT|WRONG> <ms>
+//  REVEAL <index> <varianta corecta>
+//  RESULTS <userId>:<scor> ...            la final, in ordinea scorului
+//  ERROR <mesaj>
+public final class Protocol {
+    public static final String JOIN = "JOIN";
+    public static final String START = "START";
+    public static final String ANSWER = "ANSWER";
+    public static final String QUIT = "QUIT";
+
+    public static final String JOINED = "JOINED";
+    public static final String QUESTION = "QUESTION";
+    public static final String ANSWERED = "ANSWERED";
+    public static final String REVEAL = "REVEAL";
+    public static final String RESULTS = "RESULTS";
+    public static final String ERROR = "ERROR";
+
+    public static final int MAX_LINE_BYTES = 512;
+
+    private Protocol() {
+    }
+
+    public static byte[] encode(String line) {
+        return (line + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static String question(int index, int total, int seconds, Question question) {
+        return QUESTION + " " + index + " " + total + " " + seconds
+                + "\t" + clean(question.getText())
+                + "\t" + clean(question.getOptionA())
+                + "\t" + clean(question.getOptionB())
+                + "\t" + clean(question.getOptionC())
+                + "\t" + clean(question.getOptionD());
+    }
+
+    //tab si sfarsit de linie sunt separatori in protocol
+    private static String clean(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+}
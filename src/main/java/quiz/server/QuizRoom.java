@@ -0,0 +1,272 @@
+package quiz.server;
+
+import quiz.controller.QuizController;
+import quiz.exceptions.DatabaseException;
+import quiz.model.Question;
+import quiz.model.QuizSession;
+import quiz.model.Score;
+import quiz.service.AnswerVerificationService;
+import quiz.service.UserPerformanceService;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+//o camera de joc: toti jucatorii primesc aceeasi intrebare in acelasi timp, timpul de raspuns se masoara pe server
+//starea e protejata de lock-ul camerei; lucrul cu bd (intrebari, sesiuni, finalizare) se face pe thread-urile de lucru
+class QuizRoom {
+    static final String QUIZ_TYPE = "multiplayer";
+
+    private enum State { WAITING, STARTING, RUNNING, FINISHED }
+
+    private final String name;
+    private final int categoryId;
+    private final QuizServer server;
+    //partajat de camerele cu aceeasi categorie: camerele urmatoare primesc alte intrebari, pregatite dinainte (QuizPrefetcher)
+    private final QuizController controller;
+
+    private final List<PlayerConnection> players = new ArrayList<>();
+    private State state = State.WAITING;
+    private List<Question> questions;
+    private int currentIndex = -1;
+    private long questionSentAtNanos;
+    private int answeredCount;
+    private ScheduledFuture<?> timeout;
+
+    QuizRoom(String name, int categoryId, QuizServer server, QuizController controller) {
+        this.name = name;
+        this.categoryId = categoryId;
+        this.server = server;
+        this.controller = controller;
+    }
+
+    //false doar daca camera s-a inchis intre timp (apelantul incearca din nou cu o camera noua)
+    synchronized boolean join(PlayerConnection player, int userId) {
+        if (state == State.FINISHED) {
+            return false;
+        }
+        if (state != State.WAITING) {
+            player.send(Protocol.ERROR + " room " + name + " already started");
+            return true;
+        }
+        if (players.size() >= server.getMaxPlayersPerRoom()) {
+            player.send(Protocol.ERROR + " room " + name + " is full");
+            return true;
+        }
+        player.setUserId(userId);
+        player.setRoom(this);
+        player.sessionId = 0;
+        player.score = 0;
+        player.totalTimeMillis = 0;
+        player.answeredIndex = -1;
+        players.add(player);
+        player.send(Protocol.JOINED + " " + name + " " + players.size());
+        return true;
+    }
+
+    synchronized void start() {
+        if (state != State.WAITING || players.isEmpty()) {
+            return;
+        }
+        state = State.STARTING;
+        List<PlayerConnection> starting = new ArrayList<>(players);
+        server.getWorkers().execute(() -> prepare(starting));
+    }
+
+    //intrebarile se aleg o data pe camera (aceeasi selectie ca in QuizController.startQuiz), apoi o sesiune pe jucator,
+    //toate intr-o singura tranzactie: la eroare nu raman sesiuni doar pentru o parte din jucatori
+    private void prepare(List<PlayerConnection> starting) {
+        int questionCount = server.getQuestionsPerRound();
+        String mode = categoryId == -1 ? "random" : "category";
+        try {
+            List<Question> selected;
+            synchronized (controller) {
+                selected = controller.selectQuestions(starting.get(0).getUserId(), mode, questionCount, categoryId);
+            }
+            if (selected.isEmpty()) {
+                throw new DatabaseException("No questions available");
+            }
+            AnswerVerificationService.getInstance().register(selected);
+            List<QuizSession> sessions = new ArrayList<>(starting.size());
+            for (PlayerConnection player : starting) {
+                QuizSession session = new QuizSession(player.getUserId(), selected.size(), QUIZ_TYPE);
+                if (categoryId != -1) {
+                    session.setCategoryId(categoryId);
+                }
+                sessions.add(session);
+            }
+            int[] sessionIds = server.getQuizSessionDAO().createQuizSessions(sessions);
+            for (int i = 0; i < starting.size(); i++) {
+                PlayerConnection player = starting.get(i);
+                player.sessionId = sessionIds[i];
+                UserPerformanceService.getInstance().invalidate(player.getUserId());
+            }
+            synchronized (this) {
+                if (state != State.STARTING) {
+                    //toti jucatorii au plecat intre timp
+                    return;
+                }
+                questions = selected;
+                state = State.RUNNING;
+                sendQuestion(0);
+            }
+        } catch (DatabaseException e) {
+            System.err.println("Could not start room " + name + ": " + e.getMessage());
+            synchronized (this) {
+                //o camera inchisa intre timp (toti au plecat) ramane inchisa
+                if (state == State.STARTING) {
+                    state = State.WAITING;
+                    broadcast(Protocol.ERROR + " could not start quiz: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void sendQuestion(int index) {
+        currentIndex = index;
+        answeredCount = 0;
+        int seconds = server.getQuestionSeconds();
+        //mesajul se codifica o singura data pentru toata camera
+        broadcast(Protocol.question(index, questions.size(), seconds, questions.get(index)));
+        questionSentAtNanos = System.nanoTime();
+        timeout = server.getScheduler().schedule(() -> endQuestion(index), seconds, TimeUnit.SECONDS);
+    }
+
+    synchronized void answer(PlayerConnection player, int index, char option) {
+        if (state != State.RUNNING || index != currentIndex) {
+            player.send(Protocol.ERROR + " question " + index + " is not open");
+            return;
+        }
+        if (player.answeredIndex == index) {
+            player.send(Protocol.ERROR + " question " + index + " already answered");
+            return;
+        }
+        int millis = (int) TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - questionSentAtNanos);
+        Question question = questions.get(index);
+        boolean correct = Character.toUpperCase(option) == correctOption(question);
+
+        player.answeredIndex = index;
+        player.totalTimeMillis += millis;
+        if (correct) {
+            player.score++;
+        }
+        player.send(Protocol.ANSWERED + " " + index + " " + (correct ? "CORRECT" : "WRONG") + " " + millis);
+
+        //coada de scriere poate bloca scurt cand e plina: nu pe thread-ul selectorului
+        Score score = new Score(player.getUserId(), player.sessionId, question.getId(), Character.toUpperCase(option), correct, millis);
+        server.getWorkers().execute(() -> server.getScoreQueue().enqueue(score));
+
+        answeredCount++;
+        if (answeredCount >= connectedPlayers()) {
+            endQuestion(index);
+        }
+    }
+
+    synchronized void leave(PlayerConnection player) {
+        if (state == State.WAITING) {
+            players.remove(player);
+        }
+        if (connectedPlayers() == 0) {
+            //toti au plecat: sesiunile raman neterminate, ca la un quiz abandonat in aplicatie
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+            state = State.FINISHED;
+            server.removeRoom(this);
+        } else if (state == State.RUNNING && answeredCount >= connectedPlayers()) {
+            endQuestion(currentIndex);
+        }
+    }
+
+    private synchronized void endQuestion(int index) {
+        if (state != State.RUNNING || index != currentIndex) {
+            return;
+        }
+        if (timeout != null) {
+            timeout.cancel(false);
+        }
+        currentIndex = -1;
+        //acelasi raspuns ca la punctare, chiar daca intrebarea a fost corectata dupa pornire
+        broadcast(Protocol.REVEAL + " " + index + " " + correctOption(questions.get(index)));
+        if (index + 1 < questions.size()) {
+            server.getScheduler().schedule(() -> nextQuestion(index + 1), server.getRevealMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            finish();
+        }
+    }
+
+    //doar lookup in memorie, apelat si de pe thread-ul selectorului (intrebarile sunt inregistrate in prepare)
+    private char correctOption(Question question) {
+        char correctOption = AnswerVerificationService.getInstance().peekCorrectOption(question.getId());
+        if (correctOption == 0) {
+            //intrebarea a fost stearsa intre timp: ramane copia citita la pornire
+            correctOption = question.getCorrectOption();
+        }
+        return correctOption;
+    }
+
+    private synchronized void nextQuestion(int index) {
+        if (state == State.RUNNING) {
+            sendQuestion(index);
+        }
+    }
+
+    private void finish() {
+        state = State.FINISHED;
+        List<PlayerConnection> ranking = new ArrayList<>(players);
+        ranking.sort(Comparator.comparingInt((PlayerConnection p) -> -p.score).thenComparingInt(p -> p.totalTimeMillis));
+        StringBuilder results = new StringBuilder(Protocol.RESULTS);
+        for (PlayerConnection player : ranking) {
+            results.append(' ').append(player.getUserId()).append(':').append(player.score);
+        }
+        broadcast(results.toString());
+        server.removeRoom(this);
+        for (PlayerConnection player : players) {
+            //jucatorii pot intra imediat in alta camera
+            player.setRoom(null);
+        }
+
+        //finalizarea sesiunilor (achievements, user_stats) ca in aplicatie, si pentru jucatorii deconectati intre timp
+        int total = questions.size();
+        for (PlayerConnection player : ranking) {
+            int userId = player.getUserId();
+            int sessionId = player.sessionId;
+            int score = player.score;
+            int time = player.totalTimeMillis;
+            server.getWorkers().execute(() -> {
+                try {
+                    server.getCompletionPipeline().complete(userId, sessionId, score, total, time);
+                } catch (DatabaseException e) {
+                    System.err.println("Error completing multiplayer session " + sessionId + ": " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    private void broadcast(String message) {
+        byte[] bytes = Protocol.encode(message);
+        for (PlayerConnection player : players) {
+            player.send(bytes);
+        }
+    }
+
+    private int connectedPlayers() {
+        int connected = 0;
+        for (PlayerConnection player : players) {
+            if (!player.isClosed()) {
+                connected++;
+            }
+        }
+        return connected;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    synchronized int getPlayerCount() {
+        return players.size();
+    }
+}
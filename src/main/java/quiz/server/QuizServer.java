@@ -0,0 +1,295 @@
+package quiz.server;
+
+import quiz.controller.QuizController;
+import quiz.dao.AchievementDAO;
+import quiz.dao.AnalyticsDAO;
+import quiz.dao.QuestionDAO;
+import quiz.dao.QuizSessionDAO;
+import quiz.dao.ScoreDAO;
+import quiz.exceptions.DatabaseException;
+import quiz.service.CategoryCache;
+import quiz.service.LeaderboardService;
+import quiz.service.QuizCompletionPipeline;
+import quiz.service.QuizService;
+import quiz.service.ScoreWriteBehindQueue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//server multiplayer fara interfata: un thread accepta conexiunile si le imparte pe cateva SelectorLoop-uri (NIO),
+//camerele folosesc un timer comun, iar bd-ul e accesat doar de pe thread-uri virtuale
+//pentru ~10k conexiuni pe un nod trebuie marita limita de fisiere deschise (ulimit -n)
+//userId vine de la client (protocolul nu are autentificare), deci serverul e gandit pentru retele de incredere
+public class QuizServer {
+    private static final int DEFAULT_PORT = Integer.getInteger("quiz.server.port", 9090);
+    private static final int SELECTOR_THREADS = Integer.getInteger("quiz.server.selectorThreads",
+            Runtime.getRuntime().availableProcessors());
+    private static final int BACKLOG = Integer.getInteger("quiz.server.backlog", 4096);
+    private static final int QUESTIONS_PER_ROUND = Integer.getInteger("quiz.server.questions", 10);
+    private static final int QUESTION_SECONDS = Integer.getInteger("quiz.server.questionSeconds", 15);
+    private static final int REVEAL_MILLIS = Integer.getInteger("quiz.server.revealMillis", 1000);
+    private static final int MAX_PLAYERS_PER_ROOM = Integer.getInteger("quiz.server.maxPlayersPerRoom", 100);
+
+    private final int port;
+    private final QuestionDAO questionDAO = new QuestionDAO();
+    private final QuizSessionDAO quizSessionDAO = new QuizSessionDAO();
+    private final ScoreDAO scoreDAO = new ScoreDAO();
+    private final AchievementDAO achievementDAO = new AchievementDAO();
+    private final AnalyticsDAO analyticsDAO = new AnalyticsDAO();
+    private final ScoreWriteBehindQueue scoreQueue = ScoreWriteBehindQueue.getInstance();
+    private final QuizCompletionPipeline completionPipeline =
+            new QuizCompletionPipeline(scoreQueue, scoreDAO, quizSessionDAO, achievementDAO, analyticsDAO);
+    private QuizService quizService;
+
+    private final Map<String, QuizRoom> rooms = new ConcurrentHashMap<>();
+    private final Map<Integer, QuizController> controllersByCategory = new ConcurrentHashMap<>();
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "quiz-room-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private SelectorLoop[] loops;
+    private ServerSocketChannel serverChannel;
+    private volatile boolean running;
+    private final AtomicInteger nextLoop = new AtomicInteger();
+
+    public QuizServer(int port) {
+        this.port = port;
+    }
+
+    public void start() throws IOException {
+        loops = new SelectorLoop[Math.max(1, SELECTOR_THREADS)];
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new SelectorLoop(this::handleLine, this::handleDisconnect);
+            Thread thread = new Thread(loops[i], "quiz-selector-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port), BACKLOG);
+        running = true;
+        Thread acceptor = new Thread(this::acceptLoop, "quiz-acceptor");
+        acceptor.start();
+        scheduler.scheduleAtFixedRate(this::printStats, 30, 30, TimeUnit.SECONDS);
+        System.out.println("Quiz server listening on port " + getPort() + " with " + loops.length + " selector threads");
+    }
+
+    //accept blocant pe un thread dedicat; socket-urile acceptate merg round-robin pe selectori
+    private void acceptLoop() {
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                channel.socket().setTcpNoDelay(true);
+                loops[Math.floorMod(nextLoop.getAndIncrement(), loops.length)].register(channel);
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("Error accepting connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    public void stop() {
+        running = false;
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing server socket: " + e.getMessage());
+        }
+        for (SelectorLoop loop : loops) {
+            loop.shutdown();
+        }
+        scheduler.shutdownNow();
+        workers.shutdown();
+    }
+
+    //ruleaza pe thread-ul selectorului: fara bd aici, doar validare si actualizarea camerei
+    private void handleLine(PlayerConnection connection, String line) {
+        String[] parts = line.trim().split(" +");
+        QuizRoom room = connection.getRoom();
+        switch (parts[0].toUpperCase()) {
+            case Protocol.JOIN:
+                if (parts.length < 3) {
+                    connection.send(Protocol.ERROR + " usage: JOIN <room> <userId> [categoryId]");
+                    return;
+                }
+                if (room != null) {
+                    connection.send(Protocol.ERROR + " already in room " + room.getName());
+                    return;
+                }
+                try {
+                    int userId = Integer.parseInt(parts[2]);
+                    int categoryId = parts.length > 3 ? Integer.parseInt(parts[3]) : -1;
+                    if (categoryId == -1) {
+                        join(connection, parts[1], userId, categoryId);
+                    } else {
+                        //categoria se verifica inainte sa existe camera sau controller pentru ea; cache-ul poate citi din bd
+                        workers.execute(() -> joinCategory(connection, parts[1], userId, categoryId));
+                    }
+                } catch (NumberFormatException e) {
+                    connection.send(Protocol.ERROR + " invalid number in JOIN");
+                }
+                break;
+            case Protocol.START:
+                if (room == null) {
+                    connection.send(Protocol.ERROR + " not in a room");
+                } else {
+                    room.start();
+                }
+                break;
+            case Protocol.ANSWER:
+                if (room == null || parts.length < 3 || parts[2].length() != 1) {
+                    connection.send(Protocol.ERROR + " usage: ANSWER <index> <A|B|C|D>");
+                    return;
+                }
+                try {
+                    room.answer(connection, Integer.parseInt(parts[1]), parts[2].charAt(0));
+                } catch (NumberFormatException e) {
+                    connection.send(Protocol.ERROR + " invalid question index");
+                }
+                break;
+            case Protocol.QUIT:
+                connection.disconnect();
+                break;
+            default:
+                connection.send(Protocol.ERROR + " unknown command " + parts[0]);
+        }
+    }
+
+    private void joinCategory(PlayerConnection connection, String roomName, int userId, int categoryId) {
+        try {
+            if (CategoryCache.getInstance().getCategory(categoryId) == null) {
+                connection.send(Protocol.ERROR + " unknown category " + categoryId);
+                return;
+            }
+        } catch (DatabaseException e) {
+            System.err.println("Could not check category " + categoryId + ": " + e.getMessage());
+            connection.send(Protocol.ERROR + " could not check category " + categoryId);
+            return;
+        }
+        join(connection, roomName, userId, categoryId);
+    }
+
+    //sincronizat pe conexiune: un JOIN verificat pe un thread de lucru nu se intercaleaza cu altul de la acelasi client
+    private void join(PlayerConnection connection, String roomName, int userId, int categoryId) {
+        synchronized (connection) {
+            if (connection.getRoom() != null) {
+                connection.send(Protocol.ERROR + " already in room " + connection.getRoom().getName());
+                return;
+            }
+            joinRoom(connection, roomName, userId, categoryId);
+        }
+    }
+
+    private void joinRoom(PlayerConnection connection, String roomName, int userId, int categoryId) {
+        while (true) {
+            QuizRoom room = rooms.computeIfAbsent(roomName, name -> new QuizRoom(name, categoryId, this,
+                    controllersByCategory.computeIfAbsent(categoryId, id -> createController())));
+            if (room.join(connection, userId)) {
+                return;
+            }
+            //camera tocmai s-a inchis: se scoate (daca nu a fost deja) si se creeaza una noua
+            rooms.remove(roomName, room);
+        }
+    }
+
+    private void handleDisconnect(PlayerConnection connection) {
+        QuizRoom room = connection.getRoom();
+        if (room != null) {
+            room.leave(connection);
+        }
+    }
+
+    //un controller pe categorie, cu QuizService partajat (acelasi mod de alegere a intrebarilor ca in aplicatie)
+    protected QuizController createController() {
+        synchronized (this) {
+            if (quizService == null) {
+                quizService = new QuizService();
+            }
+        }
+        return new QuizController(null, questionDAO, quizSessionDAO, scoreDAO, achievementDAO, analyticsDAO, quizService, null);
+    }
+
+    void removeRoom(QuizRoom room) {
+        rooms.remove(room.getName(), room);
+    }
+
+    private void printStats() {
+        int connections = 0;
+        for (SelectorLoop loop : loops) {
+            connections += loop.getConnectionCount();
+        }
+        System.out.println("Quiz server: " + connections + " connections, " + rooms.size() + " rooms, "
+                + scoreQueue.getQueuedCount() + " answers queued");
+    }
+
+    public int getPort() {
+        return serverChannel != null ? serverChannel.socket().getLocalPort() : port;
+    }
+
+    ExecutorService getWorkers() {
+        return workers;
+    }
+
+    ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    ScoreWriteBehindQueue getScoreQueue() {
+        return scoreQueue;
+    }
+
+    QuizSessionDAO getQuizSessionDAO() {
+        return quizSessionDAO;
+    }
+
+    QuizCompletionPipeline getCompletionPipeline() {
+        return completionPipeline;
+    }
+
+    int getQuestionsPerRound() {
+        return QUESTIONS_PER_ROUND;
+    }
+
+    int getQuestionSeconds() {
+        return QUESTION_SECONDS;
+    }
+
+    int getRevealMillis() {
+        return REVEAL_MILLIS;
+    }
+
+    int getMaxPlayersPerRoom() {
+        return MAX_PLAYERS_PER_ROOM;
+    }
+
+    public static void main(String[] args) {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        QuizServer server = new QuizServer(port);
+        //clasamentele se construiesc la pornire, nu la primul acces
+        try {
+            LeaderboardService.getInstance().rebuild();
+        } catch (DatabaseException e) {
+            System.err.println("Could not rebuild leaderboards at startup: " + e.getMessage());
+        }
+        try {
+            server.start();
+        } catch (IOException e) {
+            System.err.println("Could not start quiz server: " + e.getMessage());
+            System.exit(1);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "quiz-server-shutdown"));
+    }
+}
@@ -0,0 +1,156 @@
+package quiz.server;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//un thread cu un Selector care deserveste mii de conexiuni; serverul porneste cate unul pe nucleu
+//alte thread-uri nu ating socket-urile: cer scrieri/inchideri prin cozi si trezesc selectorul
+class SelectorLoop implements Runnable {
+    private final Selector selector;
+    private final PlayerConnection.LineHandler handler;
+    private final DisconnectHandler disconnectHandler;
+
+    private final Queue<SocketChannel> pendingRegistrations = new ConcurrentLinkedQueue<>();
+    private final Queue<PlayerConnection> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final Queue<PlayerConnection> pendingCloses = new ConcurrentLinkedQueue<>();
+    //mai multe send() la rand (broadcast) produc un singur wakeup
+    private final AtomicBoolean wakeupRequested = new AtomicBoolean();
+    private volatile boolean running = true;
+
+    SelectorLoop(PlayerConnection.LineHandler handler, DisconnectHandler disconnectHandler) throws IOException {
+        this.selector = Selector.open();
+        this.handler = handler;
+        this.disconnectHandler = disconnectHandler;
+    }
+
+    void register(SocketChannel channel) {
+        pendingRegistrations.add(channel);
+        wakeup();
+    }
+
+    void requestWrite(PlayerConnection connection) {
+        pendingWrites.add(connection);
+        wakeup();
+    }
+
+    void requestClose(PlayerConnection connection) {
+        pendingCloses.add(connection);
+        wakeup();
+    }
+
+    void shutdown() {
+        running = false;
+        selector.wakeup();
+    }
+
+    int getConnectionCount() {
+        return selector.keys().size();
+    }
+
+    private void wakeup() {
+        if (wakeupRequested.compareAndSet(false, true)) {
+            selector.wakeup();
+        }
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                selector.select();
+                wakeupRequested.set(false);
+                processRegistrations();
+                processWrites();
+                processCloses();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    PlayerConnection connection = (PlayerConnection) key.attachment();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    try {
+                        if (key.isReadable() && connection.read(handler) < 0) {
+                            disconnect(connection);
+                            continue;
+                        }
+                        if (key.isValid() && key.isWritable() && connection.flush()) {
+                            key.interestOps(SelectionKey.OP_READ);
+                        }
+                    } catch (IOException e) {
+                        disconnect(connection);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Selector loop error: " + e.getMessage());
+            }
+        }
+        for (SelectionKey key : selector.keys()) {
+            ((PlayerConnection) key.attachment()).close();
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            System.err.println("Error closing selector: " + e.getMessage());
+        }
+    }
+
+    private void processRegistrations() {
+        SocketChannel channel;
+        while ((channel = pendingRegistrations.poll()) != null) {
+            PlayerConnection connection = new PlayerConnection(channel, this);
+            try {
+                channel.configureBlocking(false);
+                connection.setKey(channel.register(selector, SelectionKey.OP_READ, connection));
+            } catch (IOException e) {
+                System.err.println("Could not register connection: " + e.getMessage());
+                connection.close();
+            }
+        }
+    }
+
+    //se incearca scrierea imediat; OP_WRITE doar daca socket-ul e plin
+    private void processWrites() {
+        PlayerConnection connection;
+        while ((connection = pendingWrites.poll()) != null) {
+            SelectionKey key = connection.getKey();
+            if (connection.isClosed() || key == null || !key.isValid()) {
+                continue;
+            }
+            try {
+                if (!connection.flush()) {
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                }
+            } catch (IOException e) {
+                disconnect(connection);
+            }
+        }
+    }
+
+    private void processCloses() {
+        PlayerConnection connection;
+        while ((connection = pendingCloses.poll()) != null) {
+            disconnect(connection);
+        }
+    }
+
+    private void disconnect(PlayerConnection connection) {
+        if (connection.isClosed()) {
+            return;
+        }
+        connection.close();
+        disconnectHandler.onDisconnect(connection);
+    }
+
+    interface DisconnectHandler {
+        void onDisconnect(PlayerConnection connection);
+    }
+}
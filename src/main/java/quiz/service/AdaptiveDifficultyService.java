@@ -0,0 +1,109 @@
+package quiz.service;
+
+import quiz.exceptions.DatabaseException;
+import quiz.model.Question;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+//dificultate adaptiva: un rating Elo pe utilizator, tinut in memorie
+//fiecare nivel de dificultate are un rating fix; dupa fiecare raspuns ratingul jucatorului urca sau coboara
+//cu K * (rezultat - probabilitatea estimata de raspuns corect)
+//urmatoarea intrebare e din nivelul la care sansa estimata de raspuns corect e cea mai apropiata de tinta
+//alegerea e doar calcul + QuestionBankCache.sampleOne, fara sql
+public class AdaptiveDifficultyService {
+    private static final double TARGET_ACCURACY =
+            Double.parseDouble(System.getProperty("quiz.adaptive.targetAccuracy", "0.7"));
+    private static final int PROVISIONAL_ANSWERS = 20;
+    private static final double PROVISIONAL_K = 40;
+    private static final double K = 20;
+    private static final double MIN_RATING = 400;
+    private static final double MAX_RATING = 2400;
+
+    //nivelul 1..3 -> rating
+    private static final double[] LEVEL_RATINGS = {1000, 1200, 1400};
+    //un jucator nou are tinta exact pe nivelul 2 (dificultatea folosita inainte pentru quiz-urile AI)
+    private static final double INITIAL_RATING =
+            LEVEL_RATINGS[1] + 400 * Math.log10(TARGET_ACCURACY / (1 - TARGET_ACCURACY));
+
+    private static final AdaptiveDifficultyService INSTANCE = new AdaptiveDifficultyService(QuestionBankCache.getInstance());
+
+    private final QuestionBankCache questionBank;
+    private final Map<Integer, Ability> abilities = new ConcurrentHashMap<>();
+
+    public AdaptiveDifficultyService(QuestionBankCache questionBank) {
+        this.questionBank = questionBank;
+    }
+
+    public static AdaptiveDifficultyService getInstance() {
+        return INSTANCE;
+    }
+
+    //apelat pentru fiecare raspuns (QuizController.handleAnswerSubmission)
+    public void recordAnswer(int userId, int difficultyLevel, boolean correct) {
+        if (difficultyLevel < 1 || difficultyLevel > LEVEL_RATINGS.length) {
+            return;
+        }
+        Ability ability = abilities.computeIfAbsent(userId, id -> new Ability());
+        synchronized (ability) {
+            double expected = expected(ability.rating, LEVEL_RATINGS[difficultyLevel - 1]);
+            double k = ability.answers < PROVISIONAL_ANSWERS ? PROVISIONAL_K : K;
+            ability.rating = Math.max(MIN_RATING, Math.min(MAX_RATING, ability.rating + k * ((correct ? 1 : 0) - expected)));
+            ability.answers++;
+        }
+    }
+
+    public double getRating(int userId) {
+        Ability ability = abilities.get(userId);
+        if (ability == null) {
+            return INITIAL_RATING;
+        }
+        synchronized (ability) {
+            return ability.rating;
+        }
+    }
+
+    //probabilitatea estimata ca jucatorul sa raspunda corect la o intrebare de nivelul dat
+    public double expectedAccuracy(int userId, int difficultyLevel) {
+        return expected(getRating(userId), LEVEL_RATINGS[difficultyLevel - 1]);
+    }
+
+    public int targetDifficulty(int userId) {
+        double rating = getRating(userId);
+        int best = 1;
+        double bestDistance = Double.MAX_VALUE;
+        for (int level = 1; level <= LEVEL_RATINGS.length; level++) {
+            double distance = Math.abs(expected(rating, LEVEL_RATINGS[level - 1]) - TARGET_ACCURACY);
+            if (distance < bestDistance) {
+                best = level;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    //urmatoarea intrebare pentru jucator; daca nivelul tinta e epuizat se incearca nivelurile vecine, apoi oricare
+    //categoryId = -1 pentru toate categoriile; null daca banca nu mai are nicio intrebare nefolosita
+    public Question nextQuestion(int userId, int categoryId, Set<Integer> excludeIds) throws DatabaseException {
+        int target = targetDifficulty(userId);
+        for (int level : new int[]{target, target - 1, target + 1, target - 2, target + 2}) {
+            if (level >= 1 && level <= LEVEL_RATINGS.length) {
+                Question question = questionBank.sampleOne(categoryId, level, excludeIds);
+                if (question != null) {
+                    return question;
+                }
+            }
+        }
+        return questionBank.sampleOne(categoryId, -1, excludeIds);
+    }
+
+    private static double expected(double rating, double questionRating) {
+        return 1 / (1 + Math.pow(10, (questionRating - rating) / 400));
+    }
+
+    private static final class Ability {
+        private double rating = INITIAL_RATING;
+        private int answers;
+    }
+}
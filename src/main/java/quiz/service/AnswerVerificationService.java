@@ -0,0 +1,184 @@
+package quiz.service;
+
+import quiz.dao.QuestionDAO;
+import quiz.exceptions.DatabaseException;
+import quiz.model.Question;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//raspunsul corect al fiecarei intrebari, tinut pe server intr-un IntByteMap (id -> 'A'..'D')
+//verificarea unui raspuns e un lookup in memorie; bd se intreaba doar pentru intrebari aparute din alt proces
+//se incarca la primul acces si se tine la zi prin listener-ele din QuestionDAO (insert, update, delete)
+public class AnswerVerificationService {
+    private static final int EXPECTED_QUESTIONS = Integer.getInteger("quiz.answers.expectedQuestions", 100_000);
+
+    private static final AnswerVerificationService INSTANCE = new AnswerVerificationService(new QuestionDAO());
+
+    private final QuestionDAO questionDAO;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final IntByteMap correctOptions = new IntByteMap(EXPECTED_QUESTIONS);
+    private boolean loaded;
+
+    public AnswerVerificationService(QuestionDAO questionDAO) {
+        this.questionDAO = questionDAO;
+        QuestionDAO.addInsertListener(this::onQuestionSaved);
+        QuestionDAO.addUpdateListener(this::onQuestionSaved);
+        QuestionDAO.addDeleteListener(this::onQuestionDeleted);
+    }
+
+    public static AnswerVerificationService getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean verify(int questionId, char selectedOption) throws DatabaseException {
+        char correct = getCorrectOption(questionId);
+        return correct != 0 && Character.toUpperCase(selectedOption) == correct;
+    }
+
+    //mai multe raspunsuri odata, sub un singur lock; intrebarile lipsa se aduc dintr-un singur query
+    public boolean[] verify(int[] questionIds, char[] selectedOptions) throws DatabaseException {
+        if (questionIds.length != selectedOptions.length) {
+            throw new IllegalArgumentException("Got " + questionIds.length + " question ids and "
+                    + selectedOptions.length + " answers");
+        }
+        char[] correct = new char[questionIds.length];
+        int missing = lookup(questionIds, correct);
+        if (missing > 0) {
+            ensureLoaded();
+            missing = lookup(questionIds, correct);
+        }
+        if (missing > 0) {
+            int[] missingIds = new int[missing];
+            for (int i = 0, j = 0; i < questionIds.length; i++) {
+                if (correct[i] == 0) {
+                    missingIds[j++] = questionIds[i];
+                }
+            }
+            register(questionDAO.getQuestionsByIds(missingIds));
+            lookup(questionIds, correct);
+        }
+
+        boolean[] results = new boolean[questionIds.length];
+        for (int i = 0; i < questionIds.length; i++) {
+            results[i] = correct[i] != 0 && Character.toUpperCase(selectedOptions[i]) == correct[i];
+        }
+        return results;
+    }
+
+    //completeaza pozitiile inca necunoscute din correct; intoarce cate au ramas necunoscute
+    private int lookup(int[] questionIds, char[] correct) {
+        int missing = 0;
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < questionIds.length; i++) {
+                if (correct[i] == 0) {
+                    correct[i] = (char) correctOptions.get(questionIds[i]);
+                    if (correct[i] == 0) {
+                        missing++;
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return missing;
+    }
+
+    //'A'..'D', sau 0 daca intrebarea nu exista
+    public char getCorrectOption(int questionId) throws DatabaseException {
+        char correct = peekCorrectOption(questionId);
+        if (correct == 0) {
+            ensureLoaded();
+            correct = peekCorrectOption(questionId);
+        }
+        if (correct == 0) {
+            Question question = questionDAO.getQuestionById(questionId);
+            if (question != null) {
+                onQuestionSaved(question);
+                correct = Character.toUpperCase(question.getCorrectOption());
+            }
+        }
+        return correct;
+    }
+
+    //doar din memorie, fara bd (0 daca lipseste); pentru thread-uri care nu au voie sa blocheze
+    public char peekCorrectOption(int questionId) {
+        lock.readLock().lock();
+        try {
+            return (char) correctOptions.get(questionId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //intrebari tocmai citite din bd (ex. cele alese pentru un quiz): peek-urile ulterioare le gasesc sigur
+    public void register(List<Question> questions) {
+        lock.writeLock().lock();
+        try {
+            for (Question question : questions) {
+                putLocked(question.getId(), question.getCorrectOption());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return correctOptions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() throws DatabaseException {
+        lock.readLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            questionDAO.forEachCorrectOption(this::putLocked);
+            loaded = true;
+            System.out.println("Answer verification loaded " + correctOptions.size() + " questions in "
+                    + (System.currentTimeMillis() - start) + " ms");
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void onQuestionSaved(Question question) {
+        lock.writeLock().lock();
+        try {
+            putLocked(question.getId(), question.getCorrectOption());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void onQuestionDeleted(int questionId) {
+        lock.writeLock().lock();
+        try {
+            correctOptions.remove(questionId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putLocked(int questionId, char correctOption) {
+        char option = Character.toUpperCase(correctOption);
+        if (questionId > 0 && option >= 'A' && option <= 'D') {
+            correctOptions.put(questionId, (byte) option);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package quiz.service;
+
+import quiz.dao.CategoryDAO;
+import quiz.exceptions.DatabaseException;
+import quiz.model.Category;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//categoriile, incarcate o singura data pe proces din CategoryDAO.getAllCategories
+//se reincarca dupa invalidate(), dupa expirarea TTL-ului sau cand se cere un id necunoscut (categorie noua)
+public class CategoryCache {
+    private static final long DEFAULT_TTL_MILLIS = Long.getLong("quiz.categoryCache.ttlMillis", 10 * 60 * 1000L);
+    //un id lipsa nu declanseaza mai mult de o reincarcare in acest interval
+    private static final long MISS_RELOAD_INTERVAL_MILLIS = 30_000;
+
+    private static final CategoryCache INSTANCE = new CategoryCache(new CategoryDAO(), DEFAULT_TTL_MILLIS);
+
+    private final CategoryDAO categoryDAO;
+    private final long ttlMillis;
+    private List<Category> categories = Collections.emptyList();
+    private Map<Integer, Category> byId = Collections.emptyMap();
+    private long loadedAt;
+    private boolean loaded;
+
+    public CategoryCache(CategoryDAO categoryDAO, long ttlMillis) {
+        this.categoryDAO = categoryDAO;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public static CategoryCache getInstance() {
+        return INSTANCE;
+    }
+
+    //toate categoriile, ordonate dupa nume
+    public synchronized List<Category> getAllCategories() throws DatabaseException {
+        ensureFresh();
+        return categories;
+    }
+
+    public synchronized Category getCategory(int categoryId) throws DatabaseException {
+        ensureFresh();
+        Category category = byId.get(categoryId);
+        if (category == null && System.currentTimeMillis() - loadedAt > MISS_RELOAD_INTERVAL_MILLIS) {
+            reload();
+            category = byId.get(categoryId);
+        }
+        return category;
+    }
+
+    //numele categoriei sau null; erorile de bd sunt doar logate, apelantii au un text implicit
+    public String getCategoryName(int categoryId) {
+        try {
+            Category category = getCategory(categoryId);
+            return category != null ? category.getName() : null;
+        } catch (DatabaseException e) {
+            System.err.println("Could not load categories: " + e.getMessage());
+            return null;
+        }
+    }
+
+    //de apelat dupa orice modificare a tabelei categories
+    public synchronized void invalidate() {
+        loaded = false;
+    }
+
+    private void ensureFresh() throws DatabaseException {
+        if (!loaded || System.currentTimeMillis() - loadedAt > ttlMillis) {
+            reload();
+        }
+    }
+
+    private void reload() throws DatabaseException {
+        List<Category> fresh = categoryDAO.getAllCategories();
+        Map<Integer, Category> freshById = new HashMap<>();
+        for (Category category : fresh) {
+            freshById.put(category.getId(), category);
+        }
+        categories = Collections.unmodifiableList(new ArrayList<>(fresh));
+        byId = freshById;
+        loadedAt = System.currentTimeMillis();
+        loaded = true;
+    }
+}
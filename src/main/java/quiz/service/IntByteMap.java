@@ -0,0 +1,103 @@
+package quiz.service;
+
+//map int -> byte cu adresare deschisa (linear probing) pe doua array-uri primitive: ~5 octeti pe slot, fara boxing
+//cheile trebuie sa fie > 0 (0 marcheaza slotul liber); get intoarce 0 pentru o cheie lipsa
+//nu e thread-safe, o protejeaza apelantul
+final class IntByteMap {
+    private static final float MAX_LOAD = 0.6f;
+
+    private int[] keys;
+    private byte[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    IntByteMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / MAX_LOAD)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    byte get(int key) {
+        int[] keys = this.keys;
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            int k = keys[slot];
+            if (k == key) {
+                return values[slot];
+            }
+            if (k == 0) {
+                return 0;
+            }
+        }
+    }
+
+    void put(int key, byte value) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Key must be positive: " + key);
+        }
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            int k = keys[slot];
+            if (k == key) {
+                values[slot] = value;
+                return;
+            }
+            if (k == 0) {
+                keys[slot] = key;
+                values[slot] = value;
+                if (++size > resizeAt) {
+                    allocate(keys.length << 1);
+                }
+                return;
+            }
+        }
+    }
+
+    //stergere cu mutarea inapoi a cheilor din acelasi sir de coliziuni (fara "tombstones")
+    void remove(int key) {
+        int slot = slot(key);
+        while (keys[slot] != key) {
+            if (keys[slot] == 0) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        size--;
+        int gap = slot;
+        for (slot = (gap + 1) & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+            int home = slot(keys[slot]);
+            //cheia poate umple golul doar daca slotul ei de baza nu e intre gol si pozitia ei actuala
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        keys[gap] = 0;
+        values[gap] = 0;
+    }
+
+    private int slot(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        int[] oldKeys = keys;
+        byte[] oldValues = values;
+        keys = new int[capacity];
+        values = new byte[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * MAX_LOAD);
+        size = 0;
+        if (oldKeys != null) {
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+    }
+}
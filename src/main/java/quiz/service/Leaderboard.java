@@ -0,0 +1,73 @@
+package quiz.service;
+
+import quiz.model.LeaderboardEntry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//un clasament: totalul fiecarui jucator + skip list-a ordonata dupa total
+//nu e thread-safe; LeaderboardService il foloseste sub lock
+final class Leaderboard {
+    private final Map<Integer, Standing> standings = new HashMap<>();
+    private final RankedSkipList ranking = new RankedSkipList();
+
+    //adauga la totalul jucatorului (la reconstruire si la fiecare quiz terminat)
+    void add(int userId, long score, int games) {
+        Standing standing = standings.get(userId);
+        if (standing == null) {
+            standing = new Standing();
+            standings.put(userId, standing);
+        } else {
+            ranking.remove(userId, standing.score);
+        }
+        standing.score += score;
+        standing.games += games;
+        ranking.insert(userId, standing.score);
+    }
+
+    int size() {
+        return ranking.size();
+    }
+
+    List<LeaderboardEntry> top(int count, Map<Integer, String> usernames) {
+        return range(1, count, usernames);
+    }
+
+    //null daca jucatorul nu are niciun quiz terminat in acest clasament
+    LeaderboardEntry entryOf(int userId, Map<Integer, String> usernames) {
+        Standing standing = standings.get(userId);
+        if (standing == null) {
+            return null;
+        }
+        int rank = ranking.rank(userId, standing.score);
+        return new LeaderboardEntry(rank, userId, usernames.get(userId), standing.score, standing.games);
+    }
+
+    //jucatorul si cel mult radius jucatori deasupra si dedesubt
+    List<LeaderboardEntry> around(int userId, int radius, Map<Integer, String> usernames) {
+        Standing standing = standings.get(userId);
+        if (standing == null) {
+            return new ArrayList<>();
+        }
+        int rank = ranking.rank(userId, standing.score);
+        int from = Math.max(1, rank - radius);
+        return range(from, rank + radius - from + 1, usernames);
+    }
+
+    private List<LeaderboardEntry> range(int fromRank, int count, Map<Integer, String> usernames) {
+        List<LeaderboardEntry> entries = new ArrayList<>(Math.max(0, Math.min(count, size() - fromRank + 1)));
+        RankedSkipList.Node node = ranking.byRank(fromRank);
+        for (int rank = fromRank; node != null && entries.size() < count; rank++, node = node.next()) {
+            Standing standing = standings.get(node.userId());
+            entries.add(new LeaderboardEntry(rank, node.userId(), usernames.get(node.userId()), node.score(), standing.games));
+        }
+        return entries;
+    }
+
+    private static final class Standing {
+        private long score;
+        private int games;
+    }
+}
@@ -0,0 +1,365 @@
+package quiz.service;
+
+import quiz.dao.LeaderboardDAO;
+import quiz.dao.UserDAO;
+import quiz.exceptions.DatabaseException;
+import quiz.model.LeaderboardEntry;
+import quiz.model.QuizSession;
+import quiz.model.User;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//clasamentele tinute in memorie: global, pe categorie, pe ziua si pe saptamana curenta
+//scorul unui jucator = suma final_score din sesiunile terminate; la egalitate e inainte id-ul mai mic
+//se reconstruiesc din quiz_sessions la pornire (sau la primul acces) si se actualizeaza la fiecare quiz terminat;
+//citirile nu asteapta dupa scanarea din bd, doar dupa inlocuirea clasamentelor
+public class LeaderboardService {
+    public enum Scope { GLOBAL, CATEGORY, DAILY, WEEKLY }
+
+    private static final LeaderboardService INSTANCE = new LeaderboardService(new LeaderboardDAO(), new UserDAO());
+
+    private final LeaderboardDAO leaderboardDAO;
+    private final UserDAO userDAO;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    //o singura reconstruire odata; scanarea ruleaza fara lock-ul de mai sus
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private Leaderboard global = new Leaderboard();
+    private Map<Integer, Leaderboard> byCategory = new HashMap<>();
+    private Leaderboard daily = new Leaderboard();
+    private Leaderboard weekly = new Leaderboard();
+    private Map<Integer, String> usernames = new HashMap<>();
+    private volatile LocalDate currentDay = LocalDate.now();
+    private LocalDate currentWeekStart = weekStart(currentDay);
+    private boolean loaded;
+    //sesiunile terminate de la inceputul reconstruirii in curs (id sesiune -> sesiune); null cand nu ruleaza niciuna
+    private Map<Integer, Completion> completedWhileRebuilding;
+    //sesiuni anuntate cu beginCompletion, al caror recordCompletion n-a venit inca (commit in curs sau abia terminat)
+    private final Set<Integer> completing = new HashSet<>();
+    //sesiuni din completing pe care ultima reconstruire le-a numarat deja; recordCompletion le sare
+    private final Set<Integer> countedByRebuild = new HashSet<>();
+
+    public LeaderboardService(LeaderboardDAO leaderboardDAO, UserDAO userDAO) {
+        this.leaderboardDAO = leaderboardDAO;
+        this.userDAO = userDAO;
+    }
+
+    public static LeaderboardService getInstance() {
+        return INSTANCE;
+    }
+
+    //reciteste totul din quiz_sessions (un singur query agregat) si inlocuieste clasamentele
+    //scanarea ruleaza fara lock; sesiunile terminate intre timp se tin deoparte si, la inlocuire,
+    //se adauga doar cele pe care snapshot-ul scanarii nu le-a vazut
+    public void rebuild() throws DatabaseException {
+        rebuildLock.lock();
+        try {
+            rebuildLocked();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void rebuildLocked() throws DatabaseException {
+        long start = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        LocalDate weekStart = weekStart(today);
+
+        Leaderboard newGlobal = new Leaderboard();
+        Map<Integer, Leaderboard> newByCategory = new HashMap<>();
+        Leaderboard newDaily = new Leaderboard();
+        Leaderboard newWeekly = new Leaderboard();
+        Map<Integer, String> newUsernames = new HashMap<>();
+
+        lock.writeLock().lock();
+        try {
+            completedWhileRebuilding = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            leaderboardDAO.loadTotals(today.atStartOfDay(), weekStart.atStartOfDay(), totals -> {
+                int userId = totals.getUserId();
+                newUsernames.put(userId, totals.getUsername());
+                newGlobal.add(userId, totals.getScore(), totals.getGames());
+                if (totals.getCategoryId() > 0) {
+                    newByCategory.computeIfAbsent(totals.getCategoryId(), k -> new Leaderboard())
+                            .add(userId, totals.getScore(), totals.getGames());
+                }
+                if (totals.getDayGames() > 0) {
+                    newDaily.add(userId, totals.getDayScore(), totals.getDayGames());
+                }
+                if (totals.getWeekGames() > 0) {
+                    newWeekly.add(userId, totals.getWeekScore(), totals.getWeekGames());
+                }
+            }, counted -> {
+                //sub lock nu mai poate fi inregistrata nicio sesiune pana la inlocuire
+                lock.writeLock().lock();
+                try {
+                    Map<Integer, Completion> pending = completedWhileRebuilding;
+                    //si sesiunile inca in commit: daca snapshot-ul le-a vazut, recordCompletion-ul lor nu le mai adauga
+                    Set<Integer> toCheck = new HashSet<>(pending.keySet());
+                    toCheck.addAll(completing);
+                    Set<Integer> alreadyCounted = counted.among(toCheck);
+                    countedByRebuild.clear();
+                    for (int sessionId : completing) {
+                        if (alreadyCounted.contains(sessionId)) {
+                            countedByRebuild.add(sessionId);
+                        }
+                    }
+                    global = newGlobal;
+                    byCategory = newByCategory;
+                    daily = newDaily;
+                    weekly = newWeekly;
+                    usernames = newUsernames;
+                    currentDay = today;
+                    currentWeekStart = weekStart;
+                    loaded = true;
+                    completedWhileRebuilding = null;
+                    for (Completion completion : pending.values()) {
+                        if (!alreadyCounted.contains(completion.session.getId())) {
+                            apply(completion.session, completion.username);
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            });
+        } finally {
+            lock.writeLock().lock();
+            try {
+                completedWhileRebuilding = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        System.out.println("Leaderboards rebuilt: " + newGlobal.size() + " players, " + newByCategory.size()
+                + " categories in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    //de apelat inainte de commit-ul care termina sesiunea; urmeaza recordCompletion (commit reusit) sau abortCompletion
+    public void beginCompletion(int sessionId) {
+        lock.writeLock().lock();
+        try {
+            completing.add(sessionId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void abortCompletion(int sessionId) {
+        lock.writeLock().lock();
+        try {
+            completing.remove(sessionId);
+            countedByRebuild.remove(sessionId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //sesiunea tocmai terminata (deja commit-uita); inainte de prima reconstruire nu se tine nimic,
+    //reconstruirea o citeste oricum din baza de date (sau o adauga la inlocuire, daca scanarea n-a vazut-o)
+    public void recordCompletion(QuizSession session) {
+        int userId = session.getUserId();
+        String username = needsUsername(userId) ? loadUsername(userId) : null;
+
+        lock.writeLock().lock();
+        try {
+            completing.remove(session.getId());
+            if (countedByRebuild.remove(session.getId())) {
+                //commit-ul a fost inainte de snapshot-ul unei reconstruiri deja inlocuite: e deja in clasament
+                return;
+            }
+            if (completedWhileRebuilding != null) {
+                completedWhileRebuilding.put(session.getId(), new Completion(session, username));
+            }
+            if (loaded) {
+                apply(session, username);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //se apeleaza cu write lock-ul luat
+    private void apply(QuizSession session, String username) {
+        int userId = session.getUserId();
+        LocalDate completedOn = session.getCompletedAt() != null ? session.getCompletedAt().toLocalDate() : LocalDate.now();
+        if (username != null) {
+            usernames.put(userId, username);
+        }
+        rollOver(completedOn.isAfter(LocalDate.now()) ? completedOn : LocalDate.now());
+
+        int score = session.getFinalScore();
+        global.add(userId, score, 1);
+        if (session.getCategoryId() > 0) {
+            byCategory.computeIfAbsent(session.getCategoryId(), k -> new Leaderboard()).add(userId, score, 1);
+        }
+        if (completedOn.equals(currentDay)) {
+            daily.add(userId, score, 1);
+        }
+        if (!completedOn.isBefore(currentWeekStart)) {
+            weekly.add(userId, score, 1);
+        }
+    }
+
+    //primii count jucatori; categoryId conteaza doar pentru Scope.CATEGORY
+    public List<LeaderboardEntry> getTop(Scope scope, int categoryId, int count) throws DatabaseException {
+        prepareRead();
+        lock.readLock().lock();
+        try {
+            Leaderboard board = board(scope, categoryId);
+            return board != null ? board.top(count, usernames) : new ArrayList<>();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //pozitia jucatorului; null daca nu are niciun quiz terminat in clasamentul cerut
+    public LeaderboardEntry getEntry(Scope scope, int categoryId, int userId) throws DatabaseException {
+        prepareRead();
+        lock.readLock().lock();
+        try {
+            Leaderboard board = board(scope, categoryId);
+            return board != null ? board.entryOf(userId, usernames) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //jucatorul impreuna cu cei radius jucatori de deasupra si de dedesubt
+    public List<LeaderboardEntry> getAround(Scope scope, int categoryId, int userId, int radius) throws DatabaseException {
+        prepareRead();
+        lock.readLock().lock();
+        try {
+            Leaderboard board = board(scope, categoryId);
+            return board != null ? board.around(userId, radius, usernames) : new ArrayList<>();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size(Scope scope, int categoryId) throws DatabaseException {
+        prepareRead();
+        lock.readLock().lock();
+        try {
+            Leaderboard board = board(scope, categoryId);
+            return board != null ? board.size() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Leaderboard board(Scope scope, int categoryId) {
+        switch (scope) {
+            case CATEGORY:
+                return byCategory.get(categoryId);
+            case DAILY:
+                return daily;
+            case WEEKLY:
+                return weekly;
+            default:
+                return global;
+        }
+    }
+
+    //incarcare la primul acces + clasamentele zilei/saptamanii o iau de la zero dupa miezul noptii
+    private void prepareRead() throws DatabaseException {
+        boolean needsLoad;
+        lock.readLock().lock();
+        try {
+            needsLoad = !loaded;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (needsLoad) {
+            //mai multi cititori la primul acces: doar unul reconstruieste, ceilalti asteapta rezultatul
+            rebuildLock.lock();
+            try {
+                if (!isLoaded()) {
+                    rebuildLocked();
+                }
+            } finally {
+                rebuildLock.unlock();
+            }
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        if (!today.equals(currentDay)) {
+            lock.writeLock().lock();
+            try {
+                rollOver(today);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void rollOver(LocalDate today) {
+        if (!today.isAfter(currentDay)) {
+            return;
+        }
+        daily = new Leaderboard();
+        currentDay = today;
+        LocalDate weekStart = weekStart(today);
+        if (weekStart.isAfter(currentWeekStart)) {
+            weekly = new Leaderboard();
+            currentWeekStart = weekStart;
+        }
+    }
+
+    private boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return loaded;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //si in timpul primei reconstruiri: sesiunea poate ajunge in clasament abia la inlocuire
+    private boolean needsUsername(int userId) {
+        lock.readLock().lock();
+        try {
+            return (loaded || completedWhileRebuilding != null) && !usernames.containsKey(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //un singur query, doar pentru jucatorii noi (primul quiz terminat de la reconstruire)
+    private String loadUsername(int userId) {
+        try {
+            User user = userDAO.getUserById(userId);
+            return user != null ? user.getUsername() : null;
+        } catch (DatabaseException e) {
+            System.err.println("Could not load username for leaderboard: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static LocalDate weekStart(LocalDate day) {
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static final class Completion {
+        private final QuizSession session;
+        private final String username;
+
+        private Completion(QuizSession session, String username) {
+            this.session = session;
+            this.username = username;
+        }
+    }
+}
@@ -0,0 +1,517 @@
+package quiz.service;
+
+import quiz.dao.QuestionDAO;
+import quiz.exceptions.DatabaseException;
+import quiz.model.Category;
+import quiz.model.Question;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//banca de intrebari tinuta in memorie, cu indecsi int[] pe categorie si pe dificultate
+//quiz-urile filtrate se aleg de aici, fara drum la baza de date
+//modificarile facute prin QuestionDAO ajung imediat in banca (listener-e de insert/update/delete);
+//banca se reconstruieste periodic in fundal (modificari facute din alte procese); daca nu incape in maxBytes
+//quiz-urile se aleg direct din sql, ca sa nu se serveasca doar o parte din intrebari
+public class QuestionBankCache {
+    private static final int PAGE_SIZE = 10_000;
+    private static final int SAMPLE_ONE_ATTEMPTS = 8;
+    private static final long DEFAULT_MAX_BYTES = Long.getLong("quiz.questionCache.maxBytes", 64L * 1024 * 1024);
+    private static final long RELOAD_INTERVAL_MILLIS = Long.getLong("quiz.questionCache.reloadIntervalMillis", 10 * 60 * 1000L);
+
+    private static final QuestionBankCache INSTANCE = new QuestionBankCache(new QuestionDAO(), DEFAULT_MAX_BYTES);
+
+    private final QuestionDAO questionDAO;
+    private final long maxBytes;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    //o singura reincarcare odata; query-urile ruleaza fara lock-ul de mai sus
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private Bank bank;
+    private long loadedAt;
+    //intrebari inserate/modificate si id-uri sterse cat timp ruleaza o reincarcare, aplicate apoi pe banca noua
+    private List<Question> changedWhileReloading;
+    private List<Integer> deletedWhileReloading;
+
+    public QuestionBankCache(QuestionDAO questionDAO, long maxBytes) {
+        this.questionDAO = questionDAO;
+        this.maxBytes = maxBytes;
+        QuestionDAO.addInsertListener(this::onQuestionSaved);
+        QuestionDAO.addUpdateListener(this::onQuestionSaved);
+        QuestionDAO.addDeleteListener(this::onQuestionDeleted);
+    }
+
+    public static QuestionBankCache getInstance() {
+        return INSTANCE;
+    }
+
+    //n intrebari aleatoare distincte; -1 inseamna fara filtru pe categorie/dificultate
+    public List<Question> sample(int categoryId, int difficultyLevel, int count) throws DatabaseException {
+        ensureLoaded();
+        if (isTruncated()) {
+            return questionDAO.getRandomQuestions(categoryId, difficultyLevel, count, Collections.emptySet());
+        }
+        lock.readLock().lock();
+        try {
+            if (categoryId == -1 && difficultyLevel == -1) {
+                return sampleFloyd(null, bank.questions.size(), count);
+            }
+            if (categoryId != -1 && difficultyLevel != -1) {
+                int[] candidates = candidatePositions(categoryId, difficultyLevel);
+                return sampleFloyd(candidates, candidates.length, count);
+            }
+            //un singur filtru: se alege direct din index
+            IntList positions = categoryId != -1 ? bank.positionsByCategory.get(categoryId)
+                    : bank.positionsByDifficulty.get(difficultyLevel);
+            return positions == null ? new ArrayList<>() : sampleFloyd(positions.values, positions.size, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //algoritmul lui Floyd pe primele n pozitii (sau pe toata banca, daca positions == null), fara a le copia
+    private List<Question> sampleFloyd(int[] positions, int n, int count) {
+        List<Question> questions = bank.questions;
+        int k = Math.min(count, n);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Set<Integer> chosen = new LinkedHashSet<>(k * 2);
+        for (int j = n - k; j < n; j++) {
+            int t = random.nextInt(j + 1);
+            if (!chosen.add(t)) {
+                chosen.add(j);
+            }
+        }
+        List<Question> result = new ArrayList<>(k);
+        for (int i : chosen) {
+            result.add(questions.get(positions != null ? positions[i] : i).copy());
+        }
+        Collections.shuffle(result, random);
+        return result;
+    }
+
+    //o singura intrebare aleatoare, alta decat cele din excludeIds; null daca nu mai exista niciuna
+    //nu se copiaza pozitiile: cateva incercari la index aleator in indexul cel mai mic, apoi o parcurgere
+    public Question sampleOne(int categoryId, int difficultyLevel, Set<Integer> excludeIds) throws DatabaseException {
+        ensureLoaded();
+        if (isTruncated()) {
+            List<Question> found = questionDAO.getRandomQuestions(categoryId, difficultyLevel, 1, excludeIds);
+            return found.isEmpty() ? null : found.get(0);
+        }
+        lock.readLock().lock();
+        try {
+            List<Question> questions = bank.questions;
+            IntList byCategory = categoryId != -1 ? bank.positionsByCategory.get(categoryId) : null;
+            IntList byDifficulty = difficultyLevel != -1 ? bank.positionsByDifficulty.get(difficultyLevel) : null;
+            if ((categoryId != -1 && byCategory == null) || (difficultyLevel != -1 && byDifficulty == null)) {
+                return null;
+            }
+            IntList positions = byCategory == null ? byDifficulty
+                    : byDifficulty == null || byCategory.size <= byDifficulty.size ? byCategory : byDifficulty;
+            int n = positions != null ? positions.size : questions.size();
+            if (n == 0) {
+                return null;
+            }
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int attempt = 0; attempt < SAMPLE_ONE_ATTEMPTS; attempt++) {
+                int i = random.nextInt(n);
+                Question q = questions.get(positions != null ? positions.values[i] : i);
+                if ((categoryId == -1 || q.getCategoryId() == categoryId)
+                        && (difficultyLevel == -1 || q.getDifficultyLevel() == difficultyLevel)
+                        && !excludeIds.contains(q.getId())) {
+                    return q.copy();
+                }
+            }
+            if (byCategory != null && byDifficulty != null) {
+                int[] candidates = candidatePositions(categoryId, difficultyLevel);
+                return candidates.length == 0 ? null
+                        : firstNotExcluded(candidates, candidates.length, random.nextInt(candidates.length), excludeIds);
+            }
+            return firstNotExcluded(positions != null ? positions.values : null, n, random.nextInt(n), excludeIds);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //parcurge circular pozitiile (sau toata banca, daca positions == null) incepand de la start
+    private Question firstNotExcluded(int[] positions, int n, int start, Set<Integer> excludeIds) {
+        for (int k = 0; k < n; k++) {
+            int i = (start + k) % n;
+            Question q = bank.questions.get(positions != null ? positions[i] : i);
+            if (!excludeIds.contains(q.getId())) {
+                return q.copy();
+            }
+        }
+        return null;
+    }
+
+    public List<Question> sample(String categoryName, int difficultyLevel, int count) throws DatabaseException {
+        if (categoryName == null) {
+            return sample(-1, difficultyLevel, count);
+        }
+        Integer categoryId = getCategoryId(categoryName);
+        return categoryId != null ? sample(categoryId, difficultyLevel, count) : new ArrayList<>();
+    }
+
+    public Integer getCategoryId(String categoryName) throws DatabaseException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Integer categoryId = bank.categoryIdsByName.get(categoryName);
+            if (categoryId != null || !bank.truncated) {
+                return categoryId;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        //banca partiala poate sa nu contina nicio intrebare din categorie
+        for (Category category : CategoryCache.getInstance().getAllCategories()) {
+            if (category.getName().equals(categoryName)) {
+                return category.getId();
+            }
+        }
+        return null;
+    }
+
+    //intersectie pentru ambele filtre: se parcurge indexul mai mic si se verifica cealalta conditie
+    private int[] candidatePositions(int categoryId, int difficultyLevel) {
+        IntList byCategory = bank.positionsByCategory.get(categoryId);
+        IntList byDifficulty = bank.positionsByDifficulty.get(difficultyLevel);
+        if (byCategory == null || byDifficulty == null) {
+            return new int[0];
+        }
+
+        boolean scanCategory = byCategory.size <= byDifficulty.size;
+        IntList smaller = scanCategory ? byCategory : byDifficulty;
+        IntList matches = new IntList(Math.min(smaller.size, 64));
+        for (int i = 0; i < smaller.size; i++) {
+            Question q = bank.questions.get(smaller.values[i]);
+            boolean ok = scanCategory ? q.getDifficultyLevel() == difficultyLevel : q.getCategoryId() == categoryId;
+            if (ok) {
+                matches.add(smaller.values[i]);
+            }
+        }
+        return matches.toArray();
+    }
+
+    //prima incarcare e sincrona; dupa RELOAD_INTERVAL_MILLIS banca se reconstruieste pe un thread separat
+    //si pana atunci se servesc intrebarile vechi
+    private void ensureLoaded() throws DatabaseException {
+        boolean stale;
+        lock.readLock().lock();
+        try {
+            if (bank != null && System.currentTimeMillis() - loadedAt < RELOAD_INTERVAL_MILLIS) {
+                return;
+            }
+            stale = bank != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (stale) {
+            if (!reloadLock.isLocked()) {
+                Thread.ofVirtual().name("question-bank-reload").start(this::reloadInBackground);
+            }
+            return;
+        }
+        reloadLock.lock();
+        try {
+            if (!isLoaded()) {
+                reload();
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void reloadInBackground() {
+        if (!reloadLock.tryLock()) {
+            return;
+        }
+        try {
+            //alt thread poate sa fi terminat reincarcarea intre verificarea din ensureLoaded() si tryLock()
+            lock.readLock().lock();
+            try {
+                if (System.currentTimeMillis() - loadedAt < RELOAD_INTERVAL_MILLIS) {
+                    return;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            reload();
+        } catch (DatabaseException e) {
+            System.err.println("Could not reload question bank cache: " + e.getMessage());
+            //urmatoarea incercare dupa inca un interval, nu la fiecare acces
+            lock.writeLock().lock();
+            try {
+                loadedAt = System.currentTimeMillis();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    //reconstruieste toata banca acum (ex. dupa modificari facute direct in baza de date)
+    public void refresh() throws DatabaseException {
+        reloadLock.lock();
+        try {
+            reload();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    //se apeleaza doar cu reloadLock luat; paginile se citesc fara lock-ul bancii
+    private void reload() throws DatabaseException {
+        lock.writeLock().lock();
+        try {
+            changedWhileReloading = new ArrayList<>();
+            deletedWhileReloading = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Bank fresh = new Bank(maxBytes);
+        try {
+            List<Question> page;
+            do {
+                page = questionDAO.getQuestionsAfterId(fresh.maxLoadedId, PAGE_SIZE);
+                for (Question q : page) {
+                    fresh.maxLoadedId = Math.max(fresh.maxLoadedId, q.getId());
+                    if (!fresh.add(q)) {
+                        break;
+                    }
+                }
+            } while (page.size() == PAGE_SIZE && !fresh.truncated);
+        } catch (DatabaseException e) {
+            lock.writeLock().lock();
+            try {
+                changedWhileReloading = null;
+                deletedWhileReloading = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            //paginile pot contine inca varianta veche a intrebarilor modificate
+            for (Question q : changedWhileReloading) {
+                fresh.remove(q.getId());
+                fresh.add(q);
+            }
+            for (int id : deletedWhileReloading) {
+                fresh.remove(id);
+            }
+            changedWhileReloading = null;
+            deletedWhileReloading = null;
+            if (fresh.truncated) {
+                System.err.println("Question bank cache reached its memory ceiling (" + maxBytes / 1024
+                        + " KB); quizzes are sampled from the database instead");
+            } else if (bank == null) {
+                System.out.println("Question bank cache loaded " + fresh.questions.size() + " questions (~"
+                        + fresh.estimatedBytes / 1024 + " KB)");
+            }
+            bank = fresh;
+            loadedAt = System.currentTimeMillis();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //insert sau update: varianta veche (daca exista) iese din indecsi, cea noua se adauga la final
+    private void onQuestionSaved(Question question) {
+        lock.writeLock().lock();
+        try {
+            if (bank != null) {
+                Question copy = question.copy();
+                copy.setCategoryName(bank.categoryNamesById.get(copy.getCategoryId()));
+                bank.remove(copy.getId());
+                bank.add(copy);
+                if (changedWhileReloading != null) {
+                    changedWhileReloading.add(copy);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void onQuestionDeleted(int id) {
+        lock.writeLock().lock();
+        try {
+            if (bank != null) {
+                bank.remove(id);
+                if (deletedWhileReloading != null) {
+                    deletedWhileReloading.add(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return bank != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //estimare grosiera: antetul obiectului + caracterele din campurile text
+    private static long estimateSize(Question q) {
+        long chars = length(q.getText()) + length(q.getOptionA()) + length(q.getOptionB())
+                + length(q.getOptionC()) + length(q.getOptionD());
+        return 64 + 5 * 40 + chars * 2 + 12;
+    }
+
+    private static int length(String s) {
+        return s == null ? 0 : s.length();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return bank != null ? bank.questions.size() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //true daca intrebarile nu incap in maxBytes si quiz-urile se aleg din sql
+    public boolean isTruncated() {
+        lock.readLock().lock();
+        try {
+            return bank != null && bank.truncated;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getEstimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return bank != null ? bank.estimatedBytes : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //o versiune completa a bancii; se construieste in afara lock-ului si se inlocuieste dintr-o data
+    private static final class Bank {
+        private final long maxBytes;
+        private final List<Question> questions = new ArrayList<>();
+        private final Map<Integer, IntList> positionsByCategory = new HashMap<>();
+        private final Map<Integer, IntList> positionsByDifficulty = new HashMap<>();
+        private final Map<String, Integer> categoryIdsByName = new HashMap<>();
+        private final Map<Integer, String> categoryNamesById = new HashMap<>();
+        private final Map<Integer, Integer> positionsById = new HashMap<>();
+        private boolean truncated;
+        private int maxLoadedId;
+        private long estimatedBytes;
+
+        private Bank(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        //false cand s-a atins plafonul de memorie (banca e marcata truncated)
+        private boolean add(Question q) {
+            if (positionsById.containsKey(q.getId())) {
+                return true;
+            }
+            long size = estimateSize(q);
+            if (estimatedBytes + size > maxBytes) {
+                truncated = true;
+                return false;
+            }
+            estimatedBytes += size;
+
+            int position = questions.size();
+            questions.add(q);
+            positionsById.put(q.getId(), position);
+            positionsByCategory.computeIfAbsent(q.getCategoryId(), k -> new IntList(256)).add(position);
+            positionsByDifficulty.computeIfAbsent(q.getDifficultyLevel(), k -> new IntList(1024)).add(position);
+            if (q.getCategoryName() != null) {
+                categoryIdsByName.putIfAbsent(q.getCategoryName(), q.getCategoryId());
+                categoryNamesById.putIfAbsent(q.getCategoryId(), q.getCategoryName());
+            }
+            return true;
+        }
+
+        //ultima intrebare se muta pe pozitia eliberata, ca lista si indecsii sa ramana fara goluri
+        private void remove(int id) {
+            Integer position = positionsById.remove(id);
+            if (position == null) {
+                return;
+            }
+            Question removed = questions.get(position);
+            estimatedBytes -= estimateSize(removed);
+            positionsByCategory.get(removed.getCategoryId()).removeValue(position);
+            positionsByDifficulty.get(removed.getDifficultyLevel()).removeValue(position);
+
+            int last = questions.size() - 1;
+            Question moved = questions.remove(last);
+            if (position != last) {
+                questions.set(position, moved);
+                positionsById.put(moved.getId(), position);
+                positionsByCategory.get(moved.getCategoryId()).replaceValue(last, position);
+                positionsByDifficulty.get(moved.getDifficultyLevel()).replaceValue(last, position);
+            }
+        }
+    }
+
+    private static final class IntList {
+        private int[] values;
+        private int size;
+
+        private IntList(int capacity) {
+            this.values = new int[capacity];
+        }
+
+        private void add(int value) {
+            if (size == values.length) {
+                int[] grown = new int[values.length * 2];
+                System.arraycopy(values, 0, grown, 0, size);
+                values = grown;
+            }
+            values[size++] = value;
+        }
+
+        //ordinea nu conteaza: ultimul element ia locul celui scos
+        private void removeValue(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return;
+                }
+            }
+        }
+
+        private void replaceValue(int oldValue, int newValue) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == oldValue) {
+                    values[i] = newValue;
+                    return;
+                }
+            }
+        }
+
+        private int[] toArray() {
+            int[] copy = new int[size];
+            System.arraycopy(values, 0, copy, 0, size);
+            return copy;
+        }
+    }
+}
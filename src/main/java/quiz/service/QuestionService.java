@@ -2,59 +2,355 @@ package quiz.service;
 
 import quiz.model.Question;
 
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.Comparator;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
 
+//indecsii se construiesc o singura data in constructor (coloane int[], permutari de sortare, bitmap pe dificultate);
+//metodele intorc liste read-only care citesc direct din indecsi, fara sa reparcurga intrebarile
 public class QuestionService {
+    //sub acest numar de intrebari filter/sorted raman secventiale (costul fork-join nu se justifica)
+    private static final int DEFAULT_PARALLEL_THRESHOLD = Integer.getInteger("quiz.questionService.parallelThreshold", 50_000);
+    private static final int PARALLELISM = Integer.getInteger("quiz.questionService.parallelism",
+            Runtime.getRuntime().availableProcessors());
+    private static final int LEAF_SIZE = 8_192;
+
+    private static ForkJoinPool sharedPool;
 
-    private List<Question> questions;
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+    private final Question[] questions;
+    private final int[] difficulty;
+    private final int[] categoryIds;
+
+    //permutari stabile: ordinea initiala se pastreaza la valori egale
+    private final int[] byCategoryName;
+    private final int[] byDifficulty;
+    private final int[] byCategoryId;
+
+    //dificultate -> {from, to} in byDifficulty; id categorie -> {from, to} in byCategoryId
+    private final Map<Integer, int[]> difficultyRanges = new HashMap<>();
+    private final Map<Integer, int[]> categoryIdRanges = new HashMap<>();
+    private final Map<Integer, long[]> difficultyBitmaps = new HashMap<>();
+    private final Map<String, Integer> firstByCategoryName = new HashMap<>();
+    //dificultate -> pozitii sortate dupa categorie, calculate la prima cerere
+    private final Map<Integer, int[]> sortedByCategoryForDifficulty = new HashMap<>();
 
     public QuestionService(List<Question> questions) {
-        this.questions = questions;
+        this(questions, sharedPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    public QuestionService(List<Question> questions, ForkJoinPool pool, int parallelThreshold) {
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+        this.questions = questions.toArray(new Question[0]);
+        int n = this.questions.length;
+        this.difficulty = new int[n];
+        this.categoryIds = new int[n];
+
+        Map<String, Integer> nameCodes = new HashMap<>();
+        Map<Integer, Integer> difficultyCodes = new HashMap<>();
+        Map<Integer, Integer> categoryIdCodes = new HashMap<>();
+        int[] nameCode = new int[n];
+        int[] difficultyCode = new int[n];
+        int[] categoryIdCode = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            Question q = this.questions[i];
+            difficulty[i] = q.getDifficultyLevel();
+            categoryIds[i] = q.getCategoryId();
+            String name = q.getCategoryName();
+            nameCode[i] = name == null ? -1 : nameCodes.computeIfAbsent(name, k -> nameCodes.size());
+            difficultyCode[i] = difficultyCodes.computeIfAbsent(difficulty[i], k -> difficultyCodes.size());
+            categoryIdCode[i] = categoryIdCodes.computeIfAbsent(categoryIds[i], k -> categoryIdCodes.size());
+            if (name != null) {
+                firstByCategoryName.putIfAbsent(name, i);
+            }
+        }
+
+        //codurile devin ranguri in ordinea sortarii; categoria null la final
+        String[] names = nameCodes.keySet().toArray(new String[0]);
+        Arrays.sort(names);
+        int[] nameRank = new int[names.length + 1];
+        for (int r = 0; r < names.length; r++) {
+            nameRank[nameCodes.get(names[r])] = r;
+        }
+        for (int i = 0; i < n; i++) {
+            nameCode[i] = nameCode[i] == -1 ? names.length : nameRank[nameCode[i]];
+        }
+        this.byCategoryName = countingSort(nameCode, names.length + 1, null);
+
+        Integer[] levels = difficultyCodes.keySet().toArray(new Integer[0]);
+        Arrays.sort(levels);
+        int[] levelRank = new int[levels.length];
+        for (int r = 0; r < levels.length; r++) {
+            levelRank[difficultyCodes.get(levels[r])] = r;
+        }
+        for (int i = 0; i < n; i++) {
+            difficultyCode[i] = levelRank[difficultyCode[i]];
+        }
+        int[] levelStarts = new int[levels.length + 1];
+        this.byDifficulty = countingSort(difficultyCode, levels.length, levelStarts);
+        for (int r = 0; r < levels.length; r++) {
+            difficultyRanges.put(levels[r], new int[]{levelStarts[r], levelStarts[r + 1]});
+            long[] bitmap = new long[(n + 63) >>> 6];
+            for (int p = levelStarts[r]; p < levelStarts[r + 1]; p++) {
+                int i = byDifficulty[p];
+                bitmap[i >>> 6] |= 1L << i;
+            }
+            difficultyBitmaps.put(levels[r], bitmap);
+        }
+
+        int[] categoryStarts = new int[categoryIdCodes.size() + 1];
+        this.byCategoryId = countingSort(categoryIdCode, categoryIdCodes.size(), categoryStarts);
+        for (Map.Entry<Integer, Integer> e : categoryIdCodes.entrySet()) {
+            categoryIdRanges.put(e.getKey(), new int[]{categoryStarts[e.getValue()], categoryStarts[e.getValue() + 1]});
+        }
     }
 
     // filtrare intrebari dupa dificultate
     public List<Question> getQuestionsByDifficulty(int difficultyLevel) {
-        return questions.stream()
-            .filter(q -> q.getDifficultyLevel() == difficultyLevel)
-            .collect(Collectors.toList());
+        return rangeView(byDifficulty, difficultyRanges.get(difficultyLevel));
     }
 
     // sortare intrebari dupa categorie
     public List<Question> getQuestionsSortedByCategory() {
-        return questions.stream()
-            .sorted(Comparator.comparing(Question::getCategoryName))
-            .collect(Collectors.toList());
+        return new IndexView(questions, byCategoryName, 0, byCategoryName.length);
     }
 
     // Filtrare întrebări dificile (nivel 3), sortate după categorie
     public List<Question> getHardQuestionsSorted() {
-        return questions.stream()
-            .filter(q -> q.getDifficultyLevel() == 3) // presupun că 3 = dificil
-            .sorted(Comparator.comparing(Question::getCategoryName))
-            .collect(Collectors.toList());
+        return getQuestionsByDifficultySortedByCategory(3); // presupun că 3 = dificil
+    }
+
+    //permutarea pe categorie filtrata cu bitmap-ul dificultatii
+    public synchronized List<Question> getQuestionsByDifficultySortedByCategory(int difficultyLevel) {
+        int[] positions = sortedByCategoryForDifficulty.get(difficultyLevel);
+        if (positions == null) {
+            long[] bitmap = difficultyBitmaps.get(difficultyLevel);
+            int[] range = difficultyRanges.get(difficultyLevel);
+            positions = new int[range == null ? 0 : range[1] - range[0]];
+            if (bitmap != null) {
+                int k = 0;
+                for (int i : byCategoryName) {
+                    if ((bitmap[i >>> 6] & (1L << i)) != 0) {
+                        positions[k++] = i;
+                    }
+                }
+            }
+            sortedByCategoryForDifficulty.put(difficultyLevel, positions);
+        }
+        return new IndexView(questions, positions, 0, positions.length);
     }
 
     // Găsirea primei întrebări dintr-o anumită categorie
     public Optional<Question> findFirstQuestionByCategory(String category) {
-        return questions.stream()
-            .filter(q -> q.getCategoryName().equals(category))
-            .findFirst();
+        Integer index = firstByCategoryName.get(category);
+        return index == null ? Optional.empty() : Optional.of(questions[index]);
     }
 
     // Filtrare după ID-ul categoriei
     public List<Question> getQuestionsByCategoryId(int categoryId) {
-        return questions.stream()
-            .filter(q -> q.getCategoryId() == categoryId)
-            .collect(Collectors.toList());
+        return rangeView(byCategoryId, categoryIdRanges.get(categoryId));
     }
 
     // Sortare după nivel de dificultate
     public List<Question> getQuestionsSortedByDifficulty() {
-        return questions.stream()
-            .sorted(Comparator.comparing(Question::getDifficultyLevel))
-            .collect(Collectors.toList());
+        return new IndexView(questions, byDifficulty, 0, byDifficulty.length);
+    }
+
+    public int size() {
+        return questions.length;
+    }
+
+    //filtru arbitrar peste toate intrebarile, in ordinea initiala; in paralel peste pragul configurat
+    public List<Question> filter(Predicate<? super Question> predicate) {
+        int[] positions = isParallel()
+                ? pool.invoke(new FilterTask(Arrays.spliterator(questions), 0, predicate))
+                : filterRange(Arrays.spliterator(questions), 0, predicate);
+        return new IndexView(questions, positions, 0, positions.length);
+    }
+
+    //sortare stabila: intrebarile egale raman in ordinea initiala si in modul paralel
+    public List<Question> sorted(Comparator<? super Question> comparator) {
+        Question[] sorted = questions.clone();
+        if (isParallel()) {
+            pool.invoke(new SortTask(sorted, new Question[sorted.length], 0, sorted.length, comparator));
+        } else {
+            Arrays.sort(sorted, comparator);
+        }
+        return Collections.unmodifiableList(Arrays.asList(sorted));
+    }
+
+    public boolean isParallel() {
+        return questions.length >= parallelThreshold && pool.getParallelism() > 1;
+    }
+
+    private static synchronized ForkJoinPool sharedPool() {
+        if (sharedPool == null) {
+            sharedPool = PARALLELISM == ForkJoinPool.getCommonPoolParallelism()
+                    ? ForkJoinPool.commonPool() : new ForkJoinPool(Math.max(1, PARALLELISM));
+        }
+        return sharedPool;
+    }
+
+    //parcurge bucata din spliterator; start = indexul primului element din bucata
+    private static int[] filterRange(Spliterator<Question> spliterator, int start, Predicate<? super Question> predicate) {
+        int[] matches = new int[(int) spliterator.estimateSize()];
+        int[] count = new int[1];
+        int[] index = {start};
+        spliterator.forEachRemaining(q -> {
+            if (predicate.test(q)) {
+                matches[count[0]++] = index[0];
+            }
+            index[0]++;
+        });
+        return count[0] == matches.length ? matches : Arrays.copyOf(matches, count[0]);
+    }
+
+    //imparte spliterator-ul (SIZED/SUBSIZED, deci dimensiunile sunt exacte) pana la LEAF_SIZE;
+    //rezultatele se concateneaza in ordine, deci ordinea initiala se pastreaza
+    private static final class FilterTask extends RecursiveTask<int[]> {
+        private final Spliterator<Question> spliterator;
+        private final int start;
+        private final Predicate<? super Question> predicate;
+
+        private FilterTask(Spliterator<Question> spliterator, int start, Predicate<? super Question> predicate) {
+            this.spliterator = spliterator;
+            this.start = start;
+            this.predicate = predicate;
+        }
+
+        @Override
+        protected int[] compute() {
+            Spliterator<Question> prefix;
+            if (spliterator.estimateSize() <= LEAF_SIZE || (prefix = spliterator.trySplit()) == null) {
+                return filterRange(spliterator, start, predicate);
+            }
+            FilterTask left = new FilterTask(prefix, start, predicate);
+            FilterTask right = new FilterTask(spliterator, start + (int) prefix.estimateSize(), predicate);
+            right.fork();
+            int[] leftMatches = left.compute();
+            int[] rightMatches = right.join();
+            int[] merged = Arrays.copyOf(leftMatches, leftMatches.length + rightMatches.length);
+            System.arraycopy(rightMatches, 0, merged, leftMatches.length, rightMatches.length);
+            return merged;
+        }
+    }
+
+    //merge sort: bucatile mici cu Arrays.sort (stabil), interclasare care prefera stanga la egalitate
+    private static final class SortTask extends RecursiveAction {
+        private final Question[] array;
+        private final Question[] buffer;
+        private final int from;
+        private final int to;
+        private final Comparator<? super Question> comparator;
+
+        private SortTask(Question[] array, Question[] buffer, int from, int to, Comparator<? super Question> comparator) {
+            this.array = array;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                Arrays.sort(array, from, to, comparator);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SortTask(array, buffer, from, mid, comparator), new SortTask(array, buffer, mid, to, comparator));
+            if (comparator.compare(array[mid - 1], array[mid]) <= 0) {
+                return;
+            }
+            System.arraycopy(array, from, buffer, from, to - from);
+            int i = from;
+            int j = mid;
+            int k = from;
+            while (i < mid && j < to) {
+                array[k++] = comparator.compare(buffer[j], buffer[i]) < 0 ? buffer[j++] : buffer[i++];
+            }
+            while (i < mid) {
+                array[k++] = buffer[i++];
+            }
+            while (j < to) {
+                array[k++] = buffer[j++];
+            }
+        }
+    }
+
+    private List<Question> rangeView(int[] permutation, int[] range) {
+        if (range == null) {
+            return List.of();
+        }
+        return new IndexView(questions, permutation, range[0], range[1]);
+    }
+
+    //sortare stabila prin numarare dupa chei 0..buckets-1; starts (optional) primeste inceputul fiecarui grup
+    private static int[] countingSort(int[] keys, int buckets, int[] starts) {
+        int[] offsets = new int[buckets + 1];
+        for (int key : keys) {
+            offsets[key + 1]++;
+        }
+        for (int b = 0; b < buckets; b++) {
+            offsets[b + 1] += offsets[b];
+        }
+        if (starts != null) {
+            System.arraycopy(offsets, 0, starts, 0, buckets + 1);
+        }
+        int[] permutation = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            permutation[offsets[keys[i]]++] = i;
+        }
+        return permutation;
+    }
+
+    //lista read-only peste o portiune dintr-o permutare; nu copiaza intrebarile
+    private static final class IndexView extends AbstractList<Question> implements RandomAccess {
+        private final Question[] store;
+        private final int[] positions;
+        private final int from;
+        private final int to;
+
+        private IndexView(Question[] store, int[] positions, int from, int to) {
+            this.store = store;
+            this.positions = positions;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Question get(int index) {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + (to - from));
+            }
+            return store[positions[from + index]];
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public List<Question> subList(int fromIndex, int toIndex) {
+            if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+                throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex);
+            }
+            return new IndexView(store, positions, from + fromIndex, from + toIndex);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,109 @@
+package quiz.service;
+
+import quiz.dao.AchievementDAO;
+import quiz.dao.AnalyticsDAO;
+import quiz.dao.QuizSessionDAO;
+import quiz.dao.ScoreDAO;
+import quiz.exceptions.DatabaseException;
+import quiz.model.QuizCompletionResult;
+import quiz.model.QuizSession;
+import quiz.model.Score;
+import quiz.model.UserPerformanceSnapshot;
+import util.DBUtil;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+//finalizarea unui quiz pe o singura conexiune si intr-o singura tranzactie:
+//raspunsuri ramase in coada, sesiune, achievements si performanta
+public class QuizCompletionPipeline {
+    private static final long DRAIN_TIMEOUT_MILLIS = 10_000;
+
+    private final ScoreWriteBehindQueue scoreQueue;
+    private final ScoreDAO scoreDAO;
+    private final QuizSessionDAO quizSessionDAO;
+    private final AchievementDAO achievementDAO;
+    private final AnalyticsDAO analyticsDAO;
+
+    public QuizCompletionPipeline(ScoreWriteBehindQueue scoreQueue, ScoreDAO scoreDAO, QuizSessionDAO quizSessionDAO,
+                                  AchievementDAO achievementDAO, AnalyticsDAO analyticsDAO) {
+        this.scoreQueue = scoreQueue;
+        this.scoreDAO = scoreDAO;
+        this.quizSessionDAO = quizSessionDAO;
+        this.achievementDAO = achievementDAO;
+        this.analyticsDAO = analyticsDAO;
+    }
+
+    public QuizCompletionResult complete(int userId, int sessionId, int correctAnswers, int totalQuestions,
+                                         int timeTaken) throws DatabaseException {
+        //doar raspunsurile acestei sesiuni; restul raman in coada
+        List<Score> pendingScores = scoreQueue.drainPending(sessionId, userId, DRAIN_TIMEOUT_MILLIS);
+        boolean committed = false;
+        boolean announced = false;
+
+        try (Connection conn = DBUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int owner = quizSessionDAO.lockSessionOwner(conn, sessionId);
+                if (owner != userId) {
+                    throw new DatabaseException(owner == 0 ? "Quiz session " + sessionId + " does not exist"
+                            : "Quiz session " + sessionId + " does not belong to user " + userId);
+                }
+                if (!pendingScores.isEmpty()) {
+                    scoreDAO.saveScores(conn, pendingScores);
+                }
+                QuizSession completed = quizSessionDAO.completeQuizSession(conn, sessionId, correctAnswers, correctAnswers, timeTaken);
+                if (completed != null) {
+                    //clasamentul afla de sesiune inainte de commit, ca o reconstruire care o vede sa nu fie dublata
+                    LeaderboardService.getInstance().beginCompletion(sessionId);
+                    announced = true;
+                }
+                int awarded = achievementDAO.checkAndAwardAchievements(conn, userId);
+                //performanta si totalurile din user_stats (deja actualizate mai sus) intr-un singur query
+                UserPerformanceSnapshot snapshot = analyticsDAO.getPerformanceSnapshot(conn, userId);
+
+                QuizCompletionResult result = new QuizCompletionResult();
+                result.setSessionId(sessionId);
+                result.setCorrectAnswers(correctAnswers);
+                result.setTotalQuestions(totalQuestions);
+                result.setTimeTaken(timeTaken);
+                result.setAchievementsAwarded(awarded);
+                result.setNewAchievements(awarded > 0
+                        ? achievementDAO.getUserAchievements(conn, userId, awarded)
+                        : new ArrayList<>());
+                result.setPerformance(snapshot.getPerformance());
+                result.setPerformanceLevel(snapshot.getPerformanceLevel());
+
+                conn.commit();
+                committed = true;
+                scoreQueue.markWritten(pendingScores);
+                //dashboard-ul si profilul vad imediat valorile noi, fara sa astepte expirarea cache-ului
+                UserPerformanceService.getInstance().put(snapshot);
+                //o sesiune terminata deja (completed = null) nu mai urca in clasament a doua oara
+                if (completed != null) {
+                    LeaderboardService.getInstance().recordCompletion(completed);
+                }
+                System.out.println("User " + userId + " got " + awarded + " new achievements!");
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                if (!committed) {
+                    conn.rollback();
+                }
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error completing quiz session: " + e.getMessage(), e);
+        } finally {
+            //orice iesire fara commit (eroare sql, sesiune straina, exceptie neasteptata):
+            //raspunsurile scoase din coada nu se pierd, revin in coada (sau in fisierul local)
+            if (!committed) {
+                scoreQueue.requeue(pendingScores);
+                if (announced) {
+                    LeaderboardService.getInstance().abortCompletion(sessionId);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package quiz.service;
+
+import quiz.dao.QuestionDAO;
+import quiz.exceptions.DatabaseException;
+import quiz.model.Question;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+//pregateste in fundal intrebarile pentru urmatorul quiz cat timp cel curent e in desfasurare
+//(acelasi mod, aceeasi categorie, fara intrebarile deja vazute in modul respectiv)
+//setul pregatit expira dupa ttl si se arunca atunci cand jucatorul schimba modul sau categoria
+public class QuizPrefetcher {
+    private static final long DEFAULT_TTL_MILLIS = Long.getLong("quiz.prefetch.ttlMillis", 5 * 60 * 1000L);
+    //dupa atatea intrebari vazute se reporneste excluderea (categoriile mici s-ar epuiza)
+    private static final int MAX_SEEN = Integer.getInteger("quiz.prefetch.maxSeen", 500);
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final QuestionDAO questionDAO;
+    private final long ttlMillis;
+
+    private String mode;
+    private int categoryId;
+    private final Set<Integer> seenIds = new HashSet<>();
+    private Prefetch pending;
+
+    private long hits;
+    private long misses;
+
+    public QuizPrefetcher(QuestionDAO questionDAO, long ttlMillis) {
+        this.questionDAO = questionDAO;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public QuizPrefetcher(QuestionDAO questionDAO) {
+        this(questionDAO, DEFAULT_TTL_MILLIS);
+    }
+
+    //doar quiz-urile din bd ("random", "category"); cele ai au deja rezerva lor (AiQuestionPool)
+    public static boolean supports(String quizType) {
+        return "random".equalsIgnoreCase(quizType) || "category".equalsIgnoreCase(quizType);
+    }
+
+    //intrebarile pentru quiz-ul care porneste acum: setul pregatit daca se potriveste si nu a expirat,
+    //altfel o citire directa; apoi se pregateste urmatorul set
+    public List<Question> next(String quizType, int categoryId, int count) throws DatabaseException {
+        Prefetch prefetch;
+        Set<Integer> exclude;
+        synchronized (this) {
+            selectMode(quizType, categoryId);
+            prefetch = pending;
+            pending = null;
+            exclude = new HashSet<>(seenIds);
+        }
+
+        List<Question> questions = prefetch != null && prefetch.count == count ? prefetch.get(ttlMillis) : null;
+        synchronized (this) {
+            if (questions != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+        }
+        if (questions == null) {
+            questions = fetch(quizType, categoryId, count, exclude);
+        }
+
+        synchronized (this) {
+            //intre timp alt apel poate sa fi schimbat modul; atunci setul nu mai e urmarit
+            if (isCurrent(quizType, categoryId)) {
+                markSeen(questions);
+                startPrefetch(quizType, categoryId, count);
+            }
+        }
+        return questions;
+    }
+
+    //jucatorul a ales alt tip de quiz (ex. ai): setul pregatit si istoricul nu mai sunt de folos
+    public synchronized void selectMode(String quizType, int categoryId) {
+        if (!isCurrent(quizType, categoryId)) {
+            clear();
+            this.mode = quizType.toLowerCase();
+            this.categoryId = categoryId;
+        }
+    }
+
+    public synchronized void clear() {
+        pending = null;
+        seenIds.clear();
+        mode = null;
+    }
+
+    private boolean isCurrent(String quizType, int categoryId) {
+        return mode != null && mode.equalsIgnoreCase(quizType) && this.categoryId == categoryId;
+    }
+
+    private void markSeen(List<Question> questions) {
+        if (seenIds.size() + questions.size() > MAX_SEEN) {
+            seenIds.clear();
+        }
+        for (Question question : questions) {
+            seenIds.add(question.getId());
+        }
+    }
+
+    private void startPrefetch(String quizType, int categoryId, int count) {
+        Set<Integer> exclude = new HashSet<>(seenIds);
+        CompletableFuture<List<Question>> future = CompletableFuture.supplyAsync(() -> {
+            try {
+                return fetch(quizType, categoryId, count, exclude);
+            } catch (DatabaseException e) {
+                throw new CompletionException(e);
+            }
+        }, EXECUTOR);
+        pending = new Prefetch(count, future);
+    }
+
+    private List<Question> fetch(String quizType, int categoryId, int count, Set<Integer> exclude) throws DatabaseException {
+        boolean byCategory = "category".equalsIgnoreCase(quizType) && categoryId != -1;
+        List<Question> questions = byCategory
+                ? questionDAO.getQuestionsByCategory(categoryId, count, exclude)
+                : questionDAO.getRandomQuestions(count, exclude);
+        if (questions.size() < count && !exclude.isEmpty()) {
+            //nu mai sunt destule intrebari nevazute: se completeaza din toate
+            Set<Integer> taken = new HashSet<>();
+            for (Question question : questions) {
+                taken.add(question.getId());
+            }
+            List<Question> refill = byCategory
+                    ? questionDAO.getQuestionsByCategory(categoryId, count - questions.size(), taken)
+                    : questionDAO.getRandomQuestions(count - questions.size(), taken);
+            questions = new ArrayList<>(questions);
+            questions.addAll(refill);
+        }
+        return questions;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    private static final class Prefetch {
+        private final int count;
+        private final CompletableFuture<List<Question>> future;
+        private volatile long completedAt;
+
+        private Prefetch(int count, CompletableFuture<List<Question>> future) {
+            this.count = count;
+            this.future = future.whenComplete((questions, error) -> completedAt = System.currentTimeMillis());
+        }
+
+        //null daca citirea a esuat sau setul a expirat; daca inca ruleaza, se asteapta (oricum ar fi o citire noua)
+        private List<Question> get(long ttlMillis) {
+            try {
+                List<Question> questions = future.join();
+                if (System.currentTimeMillis() - completedAt > ttlMillis || questions.isEmpty()) {
+                    return null;
+                }
+                return questions;
+            } catch (CompletionException e) {
+                System.err.println("Quiz prefetch failed: " + e.getCause().getMessage());
+                return null;
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package quiz.service;
 
+import quiz.ai.AiQuestionPool;
 import quiz.ai.GeminiQuestionGeneratorService;
 import quiz.dao.QuestionDAO;
 import quiz.dao.ScoreDAO;
@@ -11,7 +12,6 @@ import quiz.dao.AchievementDAO;
 
 import java.util.List;
 
-import java.util.stream.Collectors;
 import java.util.ArrayList;
 import java.util.Collections;
 
@@ -21,7 +21,9 @@ public class QuizService {
     private final QuizSessionDAO sessionDAO;
     private final AnalyticsDAO analyticsDAO;
     private final AchievementDAO achievementDAO;
+    private final QuestionBankCache questionBank;
     private GeminiQuestionGeneratorService geminiService;
+    private AiQuestionPool aiQuestionPool;
 
     public QuizService() {
         //initializare dao
@@ -30,6 +32,7 @@ public class QuizService {
         this.sessionDAO = new QuizSessionDAO();
         this.analyticsDAO = new AnalyticsDAO();
         this.achievementDAO = new AchievementDAO();
+        this.questionBank = QuestionBankCache.getInstance();
 
         //verif daca exista api key pt ai
         String apiKey = System.getenv("GEMINI_API_KEY"); // SCHIMBĂ AICI
@@ -38,7 +41,8 @@ public class QuizService {
         System.out.println("API Key found: " + (apiKey != null ? "YES (length: " + apiKey.length() + ")" : "NO"));
 
         if (apiKey != null && !apiKey.isEmpty()) {
-            this.geminiService = new GeminiQuestionGeneratorService(apiKey);
+            this.geminiService = GeminiQuestionGeneratorService.getInstance(apiKey);
+            this.aiQuestionPool = AiQuestionPool.getInstance(geminiService);
             System.out.println("Gemini AI Service initialized successfully!");
         } else {
             System.out.println("No Gemini API key found. AI features will use fallback questions.");
@@ -47,6 +51,11 @@ public class QuizService {
 
     public List<Question> startAIRandomQuiz(int userId, int questionCount, int difficultyLevel) throws DatabaseException {
         if (geminiService != null) {
+            //intai din rezerva generata dinainte, apelul live doar la miss
+            List<Question> pooled = aiQuestionPool.takeRandom(difficultyLevel, questionCount);
+            if (!pooled.isEmpty()) {
+                return pooled;
+            }
             try {
                 System.out.println("Generating " + questionCount + " random AI questions (difficulty: " + difficultyLevel + ")");
                 return geminiService.generateRandomQuestions(questionCount, difficultyLevel);
@@ -90,7 +99,10 @@ public class QuizService {
 
         if (geminiService != null) { // SCHIMBĂ AICI
             try {
-                List<Question> aiQuestionsList = geminiService.generateRandomQuestions(aiQuestions, difficultyLevel);
+                List<Question> aiQuestionsList = aiQuestionPool.takeRandom(difficultyLevel, aiQuestions);
+                if (aiQuestionsList.isEmpty()) {
+                    aiQuestionsList = geminiService.generateRandomQuestions(aiQuestions, difficultyLevel);
+                }
                 questions.addAll(aiQuestionsList);
             } catch (DatabaseException e) {
                 System.err.println("AI generation failed, adding more DB questions: " + e.getMessage());
@@ -116,39 +128,32 @@ public class QuizService {
             }
         }
 
-        List<Question> allQuestions = questionDAO.getRandomQuestions(100);
-        //filtreaza intrebarile din bd
-        List<Question> filteredQuestions = allQuestions.stream()
-                .filter(q -> q.getDifficultyLevel() == difficultyLevel)
-                .filter(q -> category == null || q.getCategoryName() != null && q.getCategoryName().equals(category))
-                .limit(questionCount)
-                .collect(Collectors.toList());
-
-        return filteredQuestions;
+        //filtrarea se face pe indecsii din memorie, fara query
+        return questionBank.sample(category, difficultyLevel, questionCount);
     }
 
     public List<Question> getFilteredQuestionsByDifficulty(int difficultyLevel) throws DatabaseException {
-        List<Question> allQuestions = questionDAO.getRandomQuestions(100);
-        QuestionService service = new QuestionService(allQuestions);
-        return service.getQuestionsByDifficulty(difficultyLevel);
+        return questionBank.sample(-1, difficultyLevel, 100);
     }
 
     public List<Question> startSortedCategoryQuiz(int questionCount) throws DatabaseException {
-        List<Question> allQuestions = questionDAO.getRandomQuestions(questionCount * 2);
+        List<Question> allQuestions = questionBank.sample(-1, -1, questionCount * 2);
         QuestionService service = new QuestionService(allQuestions);
 
-        return service.getQuestionsSortedByCategory().stream()
-                .limit(questionCount)
-                .collect(Collectors.toList());
+        List<Question> sorted = service.getQuestionsSortedByCategory();
+        return new ArrayList<>(sorted.subList(0, Math.min(questionCount, sorted.size())));
     }
 
     public List<Question> startHardQuiz(int questionCount) throws DatabaseException {
-        List<Question> allQuestions = questionDAO.getRandomQuestions(100);
-        QuestionService service = new QuestionService(allQuestions);
+        List<Question> hardQuestions = questionBank.sample(-1, 3, questionCount);
+        QuestionService service = new QuestionService(hardQuestions);
+
+        return new ArrayList<>(service.getHardQuestionsSorted());
+    }
 
-        return service.getHardQuestionsSorted().stream()
-                .limit(questionCount)
-                .collect(Collectors.toList());
+    //metrici pentru rezerva ai (null daca nu exista cheie api)
+    public AiQuestionPool getAiQuestionPool() {
+        return aiQuestionPool;
     }
 
     public List<Question> getQuestionsByDifficultyDirect(int difficultyLevel) throws DatabaseException {
@@ -0,0 +1,162 @@
+package quiz.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+//skip list indexabila (fiecare legatura stie peste cate noduri sare), ordonata dupa scor descrescator, apoi userId
+//insert, remove, rank si acces dupa pozitie in O(log n) in medie; nu e thread-safe, o protejeaza apelantul
+final class RankedSkipList {
+    private static final int MAX_LEVEL = 32;
+    private static final double P = 0.25;
+
+    private final Node head = new Node(0, 0, MAX_LEVEL);
+    private int level = 1;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    void insert(int userId, long score) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && before(x.next[i], userId, score)) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        int newLevel = randomLevel();
+        if (newLevel > level) {
+            for (int i = level; i < newLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                update[i].span[i] = size;
+            }
+            level = newLevel;
+        }
+
+        Node node = new Node(userId, score, newLevel);
+        for (int i = 0; i < newLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = newLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        size++;
+    }
+
+    boolean remove(int userId, long score) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && before(x.next[i], userId, score)) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        Node target = x.next[0];
+        if (target == null || target.userId != userId || target.score != score) {
+            return false;
+        }
+
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == target) {
+                update[i].span[i] += target.span[i] - 1;
+                update[i].next[i] = target.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+        return true;
+    }
+
+    //pozitia (de la 1) a perechii (userId, score); 0 daca nu e in lista
+    int rank(int userId, long score) {
+        int rank = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && !before(userId, score, x.next[i])) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x != head && x.userId == userId && x.score == score) {
+                return rank;
+            }
+        }
+        return 0;
+    }
+
+    //nodul de pe pozitia data (de la 1); de aici se merge mai departe cu next()
+    Node byRank(int rank) {
+        if (rank < 1 || rank > size) {
+            return null;
+        }
+        int traversed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= rank) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == rank) {
+                return x;
+            }
+        }
+        return null;
+    }
+
+    //scor mai mare inainte; la egalitate, userId mai mic inainte
+    private static boolean before(Node node, int userId, long score) {
+        return node.score > score || (node.score == score && node.userId < userId);
+    }
+
+    private static boolean before(int userId, long score, Node node) {
+        return score > node.score || (score == node.score && userId < node.userId);
+    }
+
+    private static int randomLevel() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int level = 1;
+        while (level < MAX_LEVEL && random.nextDouble() < P) {
+            level++;
+        }
+        return level;
+    }
+
+    static final class Node {
+        private final int userId;
+        private final long score;
+        private final Node[] next;
+        private final int[] span;
+
+        private Node(int userId, long score, int level) {
+            this.userId = userId;
+            this.score = score;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+
+        int userId() {
+            return userId;
+        }
+
+        long score() {
+            return score;
+        }
+
+        Node next() {
+            return next[0];
+        }
+    }
+}
@@ -0,0 +1,421 @@
+package quiz.service;
+
+import quiz.dao.ScoreDAO;
+import quiz.exceptions.DatabaseException;
+import quiz.model.Score;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+//scrierea raspunsurilor in fundal: coada limitata golita de un worker cu insert in batch
+//daca baza de date nu raspunde, raspunsurile ajung intr-un fisier local si sunt reluate mai tarziu
+//randurile respinse definitiv de bd (constrangeri, date invalide) ajung in score-rejected.csv, nu se reiau
+//fisierul e comun tuturor proceselor (aplicatia, ApiServer, QuizServer); accesul se face sub un FileLock
+public class ScoreWriteBehindQueue {
+    private static final int CAPACITY = Integer.getInteger("quiz.scores.queueCapacity", 10_000);
+    private static final int MAX_BATCH = 500;
+    private static final long OFFER_TIMEOUT_MILLIS = 2_000;
+    private static final Path DEFAULT_SPILL_FILE = Paths.get(System.getProperty("user.home"), ".quizgame", "score-spill.csv");
+
+    private static final ScoreWriteBehindQueue INSTANCE = new ScoreWriteBehindQueue(new ScoreDAO(), DEFAULT_SPILL_FILE);
+
+    private final ScoreDAO scoreDAO;
+    private final Path spillFile;
+    private final Path rejectedFile;
+    private final Path lockFile;
+    private final BlockingQueue<Score> queue = new ArrayBlockingQueue<>(CAPACITY);
+    private final Object spillLock = new Object();
+    private final Object progressLock = new Object();
+    //tinut de worker cat scoate si scrie un batch; drainPending il ia ca sa nu rateze un batch aflat in scriere
+    private final ReentrantLock batchLock = new ReentrantLock();
+    private final Condition notEmpty = batchLock.newCondition();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    //raspunsuri puse in coada / procesate (scrise sau salvate in fisier), pentru flush()
+    private final AtomicLong enqueued = new AtomicLong();
+    private long processed;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+
+    public ScoreWriteBehindQueue(ScoreDAO scoreDAO, Path spillFile) {
+        this.scoreDAO = scoreDAO;
+        this.spillFile = spillFile;
+        this.rejectedFile = spillFile.resolveSibling("score-rejected.csv");
+        this.lockFile = spillFile.resolveSibling(spillFile.getFileName() + ".lock");
+        this.worker = new Thread(this::drainLoop, "score-write-behind");
+        this.worker.setDaemon(true);
+        this.worker.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "score-write-behind-shutdown"));
+    }
+
+    public static ScoreWriteBehindQueue getInstance() {
+        return INSTANCE;
+    }
+
+    //backpressure: asteapta putin daca e plina, apoi scrie direct in fisier ca sa nu se piarda
+    public void enqueue(Score score) {
+        try {
+            if (running && queue.offer(score, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                enqueued.incrementAndGet();
+                wakeWorker();
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.err.println("Score queue full or stopped, spilling answer for question " + score.getQuestionId());
+        spill(List.of(score));
+    }
+
+    //asteapta pana cand tot ce era in coada la momentul apelului a fost procesat
+    public boolean flush(long timeoutMillis) {
+        long target = enqueued.get();
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (progressLock) {
+            while (processed < target) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    progressLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    //scoate din coada raspunsurile nescrise ale unei sesiuni, ca apelantul sa le insereze in propria tranzactie
+    //dupa ce intoarce, niciun raspuns al sesiunii nu mai e in curs de scriere in worker
+    //apelantul confirma cu markWritten dupa commit sau le da inapoi cu requeue
+    public List<Score> drainPending(int sessionId, int userId, long timeoutMillis) {
+        boolean locked = false;
+        try {
+            locked = batchLock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!locked) {
+            System.err.println("Timed out waiting for in-flight score batch");
+        }
+        try {
+            List<Score> pending = new ArrayList<>();
+            for (Iterator<Score> it = queue.iterator(); it.hasNext(); ) {
+                Score score = it.next();
+                if (score.getQuizSessionId() == sessionId && score.getUserId() == userId && queue.remove(score)) {
+                    pending.add(score);
+                }
+            }
+            return pending;
+        } finally {
+            if (locked) {
+                batchLock.unlock();
+            }
+        }
+    }
+
+    //raspunsuri scoase cu drainPending si scrise de apelant (dupa commit)
+    public void markWritten(List<Score> scores) {
+        written.addAndGet(scores.size());
+        markProcessed(scores.size());
+    }
+
+    //raspunsuri scoase cu drainPending care nu au putut fi scrise; sunt deja numarate in enqueued
+    public void requeue(List<Score> scores) {
+        List<Score> overflow = new ArrayList<>();
+        for (Score score : scores) {
+            if (!running || !queue.offer(score)) {
+                overflow.add(score);
+            }
+        }
+        if (!overflow.isEmpty()) {
+            System.err.println("Score queue full or stopped, spilling " + overflow.size() + " requeued answers");
+            spill(overflow);
+            markProcessed(overflow.size());
+        }
+        wakeWorker();
+    }
+
+    //fara asteptare: daca lock-ul e ocupat, workerul verifica oricum coada inainte sa astepte din nou
+    private void wakeWorker() {
+        if (batchLock.tryLock()) {
+            try {
+                notEmpty.signal();
+            } finally {
+                batchLock.unlock();
+            }
+        }
+    }
+
+    private void drainLoop() {
+        replaySpillFile();
+        List<Score> batch = new ArrayList<>(MAX_BATCH);
+        while (running || !queue.isEmpty()) {
+            batchLock.lock();
+            try {
+                if (queue.isEmpty()) {
+                    notEmpty.await(250, TimeUnit.MILLISECONDS);
+                }
+                queue.drainTo(batch, MAX_BATCH);
+                if (!batch.isEmpty()) {
+                    writeBatch(batch);
+                }
+            } catch (InterruptedException e) {
+                if (!running) {
+                    break;
+                }
+            } catch (RuntimeException e) {
+                //workerul nu are voie sa moara: batch-ul ajunge in fisier si bucla continua
+                System.err.println("Unexpected error writing " + batch.size() + " scores, spilling to disk: " + e);
+                e.printStackTrace();
+                spill(batch);
+            } finally {
+                batchLock.unlock();
+                markProcessed(batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<Score> batch) {
+        List<String> rejected = new ArrayList<>();
+        List<Score> failed = write(batch, rejected);
+        if (!rejected.isEmpty()) {
+            reject(rejected);
+        }
+        if (failed.isEmpty()) {
+            replaySpillFile();
+        } else {
+            spill(failed);
+        }
+    }
+
+    //un singur insert in batch; daca bd respinge definitiv un rand, se reia rand cu rand
+    //si randurile respinse se adauga in rejected; intoarce ce nu s-a scris din cauza unei erori trecatoare
+    private List<Score> write(List<Score> scores, List<String> rejected) {
+        try {
+            scoreDAO.saveScores(scores);
+            written.addAndGet(scores.size());
+            return List.of();
+        } catch (DatabaseException e) {
+            if (!isPermanent(e)) {
+                System.err.println("Could not write " + scores.size() + " scores, keeping them for later: " + e.getMessage());
+                return scores;
+            }
+        }
+        for (int i = 0; i < scores.size(); i++) {
+            Score score = scores.get(i);
+            try {
+                scoreDAO.saveScores(List.of(score));
+                written.incrementAndGet();
+            } catch (DatabaseException e) {
+                if (!isPermanent(e)) {
+                    System.err.println("Could not write scores, keeping them for later: " + e.getMessage());
+                    return new ArrayList<>(scores.subList(i, scores.size()));
+                }
+                System.err.println("Score rejected by the database, moving it to " + rejectedFile + ": " + e.getMessage());
+                rejected.add(toLine(score));
+            }
+        }
+        return List.of();
+    }
+
+    //constrangeri incalcate (23xxx) sau date invalide (22xxx): insertul nu va reusi la nicio reincercare
+    private static boolean isPermanent(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof SQLException) {
+                for (SQLException e = (SQLException) t; e != null; e = e.getNextException()) {
+                    String state = e.getSQLState();
+                    if (state != null && (state.startsWith("22") || state.startsWith("23"))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private void markProcessed(int count) {
+        if (count == 0) {
+            return;
+        }
+        synchronized (progressLock) {
+            processed += count;
+            progressLock.notifyAll();
+        }
+    }
+
+    private void spill(List<Score> scores) {
+        List<String> lines = new ArrayList<>(scores.size());
+        for (Score s : scores) {
+            lines.add(toLine(s));
+        }
+        synchronized (spillLock) {
+            try {
+                withFileLock(() -> append(spillFile, lines));
+                spilled.addAndGet(scores.size());
+            } catch (IOException e) {
+                System.err.println("Failed to spill " + scores.size() + " scores to " + spillFile + ": " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void reject(List<String> lines) {
+        synchronized (spillLock) {
+            try {
+                withFileLock(() -> append(rejectedFile, lines));
+            } catch (IOException e) {
+                System.err.println("Failed to write " + lines.size() + " rejected scores to " + rejectedFile + ": " + e.getMessage());
+            }
+        }
+    }
+
+    //reia raspunsurile salvate local (de orice proces); in fisier raman doar cele care tot nu s-au putut scrie
+    //liniile care nu se pot citi si randurile respinse de bd merg in score-rejected.csv
+    private void replaySpillFile() {
+        synchronized (spillLock) {
+            if (!Files.exists(spillFile)) {
+                return;
+            }
+            try {
+                withFileLock(this::replayLocked);
+            } catch (IOException e) {
+                System.err.println("Error replaying score spill file " + spillFile + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void replayLocked() throws IOException {
+        if (!Files.exists(spillFile)) {
+            return;
+        }
+        List<Score> pending = new ArrayList<>();
+        List<String> rejected = new ArrayList<>();
+        for (String line : Files.readAllLines(spillFile, StandardCharsets.UTF_8)) {
+            Score score = parseLine(line);
+            if (score != null) {
+                pending.add(score);
+            } else if (!line.isBlank()) {
+                System.err.println("Unreadable spilled score, moving it to " + rejectedFile + ": " + line);
+                rejected.add(line);
+            }
+        }
+
+        List<Score> failed = write(pending, rejected);
+        if (!rejected.isEmpty()) {
+            append(rejectedFile, rejected);
+        }
+        if (failed.isEmpty()) {
+            Files.delete(spillFile);
+        } else {
+            List<String> lines = new ArrayList<>(failed.size());
+            for (Score s : failed) {
+                lines.add(toLine(s));
+            }
+            Files.write(spillFile, lines, StandardCharsets.UTF_8);
+        }
+        if (failed.size() < pending.size()) {
+            System.out.println("Replayed " + (pending.size() - failed.size()) + " spilled scores");
+        }
+    }
+
+    private static String toLine(Score s) {
+        return s.getUserId() + "," + s.getQuizSessionId() + "," + s.getQuestionId() + ","
+                + s.getSelectedOption() + "," + s.isCorrect() + "," + s.getTimeTaken();
+    }
+
+    //null daca linia nu are formatul scris de toLine
+    private static Score parseLine(String line) {
+        String[] parts = line.split(",");
+        if (parts.length != 6 || parts[3].length() != 1) {
+            return null;
+        }
+        try {
+            return new Score(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]),
+                    parts[3].charAt(0), Boolean.parseBoolean(parts[4]), Integer.parseInt(parts[5]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void append(Path file, List<String> lines) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+    }
+
+    private interface FileAction {
+        void run() throws IOException;
+    }
+
+    //lock exclusiv intre procese pe fisierele din ~/.quizgame; in acelasi proces ordinea o da spillLock
+    private void withFileLock(FileAction action) throws IOException {
+        Files.createDirectories(spillFile.getParent());
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock fileLock = channel.lock();
+            try {
+                action.run();
+            } finally {
+                fileLock.release();
+            }
+        }
+    }
+
+    //la oprire: goleste coada; ce nu se poate scrie ajunge in fisier
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            worker.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Score> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            spill(remaining);
+            markProcessed(remaining.size());
+        }
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getSpilledCount() {
+        return spilled.get();
+    }
+}
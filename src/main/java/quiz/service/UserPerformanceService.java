@@ -0,0 +1,70 @@
+package quiz.service;
+
+import quiz.dao.AnalyticsDAO;
+import quiz.exceptions.DatabaseException;
+import quiz.model.UserPerformanceSnapshot;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+//snapshot-ul de performanta per utilizator, tinut putin timp in memorie
+//dashboard-ul si profilul il citesc la fiecare afisare; finalul unui quiz il inlocuieste cu valoarea noua
+//fiecare intrare are o versiune luata inainte de citirea din bd, ca o incarcare inceputa mai devreme
+//sa nu suprascrie un put/invalidate facut intre timp
+public class UserPerformanceService {
+    private static final long DEFAULT_TTL_MILLIS = Long.getLong("quiz.performanceCache.ttlMillis", 30_000L);
+
+    private static final UserPerformanceService INSTANCE = new UserPerformanceService(new AnalyticsDAO(), DEFAULT_TTL_MILLIS);
+
+    private final AnalyticsDAO analyticsDAO;
+    private final long ttlMillis;
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    public UserPerformanceService(AnalyticsDAO analyticsDAO, long ttlMillis) {
+        this.analyticsDAO = analyticsDAO;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public static UserPerformanceService getInstance() {
+        return INSTANCE;
+    }
+
+    public UserPerformanceSnapshot getSnapshot(int userId) throws DatabaseException {
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.snapshot != null && entry.expiresAt > System.currentTimeMillis()) {
+            return entry.snapshot;
+        }
+        long version = versions.incrementAndGet();
+        UserPerformanceSnapshot snapshot = analyticsDAO.getPerformanceSnapshot(userId);
+        store(userId, new Entry(snapshot, System.currentTimeMillis() + ttlMillis, version));
+        return snapshot;
+    }
+
+    //intrare fara snapshot, ca o incarcare deja pornita sa nu puna la loc valoarea veche
+    public void invalidate(int userId) {
+        store(userId, new Entry(null, 0, versions.incrementAndGet()));
+    }
+
+    //valoare calculata in tranzactia de final de quiz, deja commit-uita
+    public void put(UserPerformanceSnapshot snapshot) {
+        store(snapshot.getUserId(), new Entry(snapshot, System.currentTimeMillis() + ttlMillis, versions.incrementAndGet()));
+    }
+
+    private void store(int userId, Entry entry) {
+        entries.merge(userId, entry, (current, candidate) -> candidate.version > current.version ? candidate : current);
+    }
+
+    private static final class Entry {
+        private final UserPerformanceSnapshot snapshot;
+        private final long expiresAt;
+        private final long version;
+
+        private Entry(UserPerformanceSnapshot snapshot, long expiresAt, long version) {
+            this.snapshot = snapshot;
+            this.expiresAt = expiresAt;
+            this.version = version;
+        }
+    }
+}
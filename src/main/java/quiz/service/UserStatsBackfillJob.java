@@ -0,0 +1,42 @@
+package quiz.service;
+
+import quiz.dao.UserStatsDAO;
+import quiz.exceptions.DatabaseException;
+
+//construieste user_stats pentru utilizatorii existenti, din quiz_sessions
+//se ruleaza o data dupa crearea tabelei (db/user_stats.sql); poate fi rulat din nou oricand, rescrie totalurile
+//(fiecare lot isi blocheaza randurile, ca sesiunile create/terminate in timpul rularii sa nu se piarda)
+public class UserStatsBackfillJob {
+    private static final int DEFAULT_BATCH_SIZE = Integer.getInteger("quiz.userStats.backfillBatch", 500);
+
+    private final UserStatsDAO userStatsDAO;
+    private final int batchSize;
+
+    public UserStatsBackfillJob(UserStatsDAO userStatsDAO, int batchSize) {
+        this.userStatsDAO = userStatsDAO;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    //fiecare lot de utilizatori e o tranzactie separata, ca blocarile sa ramana scurte
+    public int run() throws DatabaseException {
+        int maxUserId = userStatsDAO.getMaxUserId();
+        int rebuilt = 0;
+        long start = System.currentTimeMillis();
+        for (int from = 0; from <= maxUserId; from += batchSize) {
+            rebuilt += userStatsDAO.rebuildUserStats(from, from + batchSize);
+            System.out.println("User stats backfill: " + rebuilt + " users (up to id " + Math.min(from + batchSize - 1, maxUserId) + ")");
+        }
+        System.out.println("User stats backfill finished in " + (System.currentTimeMillis() - start) + " ms");
+        return rebuilt;
+    }
+
+    public static void main(String[] args) {
+        int batchSize = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_BATCH_SIZE;
+        try {
+            new UserStatsBackfillJob(new UserStatsDAO(), batchSize).run();
+        } catch (DatabaseException e) {
+            System.err.println("User stats backfill failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package quiz.ui;
+
+import quiz.exceptions.DatabaseException;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+//rulare in fundal pentru ecranele swing: lucrul (bd, gemini) pe thread-uri virtuale,
+//rezultatul inapoi pe EDT; componentele ocupate sunt dezactivate si cursorul arata ca se incarca
+//erorile ajung toate in handleError, daca apelantul nu le trateaza singur
+public class AsyncUi {
+    private static final ExecutorService IO = Executors.newVirtualThreadPerTaskExecutor();
+    public static final Executor EDT = SwingUtilities::invokeLater;
+    private static final String BUSY_COUNT = "quiz.asyncUi.busyCount";
+
+    private final Component owner;
+    private final Set<CompletableFuture<?>> cancellable = ConcurrentHashMap.newKeySet();
+    private int running;
+
+    public AsyncUi(Component owner) {
+        this.owner = owner;
+    }
+
+    public <T> CompletableFuture<T> submit(String action, Callable<T> work, Consumer<T> onSuccess, JComponent... busy) {
+        return submit(action, work, onSuccess, null, true, busy);
+    }
+
+    //onFailure == null -> eroarea e afisata de handleError; altfel apelantul decide ce arata
+    //cancelOnNavigate = false pentru operatii care trebuie sa ajunga la capat (ex. finalizarea quiz-ului)
+    public <T> CompletableFuture<T> submit(String action, Callable<T> work, Consumer<T> onSuccess,
+                                           Consumer<Throwable> onFailure, boolean cancelOnNavigate, JComponent... busy) {
+        setBusy(busy, true);
+        //task poate fi anulat de cancelAll; finished se termina doar cand lucrul din fundal chiar s-a oprit
+        CompletableFuture<T> task = new CompletableFuture<>();
+        CompletableFuture<Void> finished = CompletableFuture.runAsync(() -> {
+            if (task.isCancelled()) {
+                return;
+            }
+            try {
+                task.complete(work.call());
+            } catch (Exception e) {
+                task.completeExceptionally(e);
+            }
+        }, IO);
+        if (cancelOnNavigate) {
+            cancellable.add(task);
+        }
+
+        task.whenCompleteAsync((result, error) -> {
+            cancellable.remove(task);
+            if (task.isCancelled()) {
+                //componentele raman dezactivate pana se opreste lucrul anulat, ca un clic nou sa nu il dubleze
+                finished.whenCompleteAsync((ignored, failure) -> setBusy(busy, false), EDT);
+                return;
+            }
+            setBusy(busy, false);
+            if (error != null) {
+                Throwable cause = unwrap(error);
+                if (onFailure != null) {
+                    System.err.println("Error " + action + ": " + cause.getMessage());
+                    onFailure.accept(cause);
+                } else {
+                    handleError(action, cause);
+                }
+                return;
+            }
+            if (onSuccess != null) {
+                onSuccess.accept(result);
+            }
+        }, EDT);
+        return task;
+    }
+
+    //la schimbarea ecranului: rezultatele cererilor in curs nu mai ajung in ui
+    //lucrul din fundal nu e intrerupt; componentele lui se reactiveaza abia cand se termina (o tranzactie jdbc intrerupta la jumatate ar lasa conexiunea in stare proasta)
+    public void cancelAll() {
+        for (CompletableFuture<?> task : cancellable) {
+            task.cancel(false);
+        }
+    }
+
+    public void handleError(String action, Throwable error) {
+        System.err.println("Error " + action + ": " + error.getMessage());
+        String title = error instanceof DatabaseException ? "Database Error" : "Error";
+        JOptionPane.showMessageDialog(owner, "Error " + action + ": " + error.getMessage(), title, JOptionPane.ERROR_MESSAGE);
+    }
+
+    private void setBusy(JComponent[] components, boolean busy) {
+        running += busy ? 1 : -1;
+        owner.setCursor(Cursor.getPredefinedCursor(running > 0 ? Cursor.WAIT_CURSOR : Cursor.DEFAULT_CURSOR));
+        //contor pe componenta, ca doua operatii care folosesc acelasi buton sa nu il reactiveze prea devreme
+        for (JComponent component : components) {
+            Integer count = (Integer) component.getClientProperty(BUSY_COUNT);
+            int updated = (count == null ? 0 : count) + (busy ? 1 : -1);
+            component.putClientProperty(BUSY_COUNT, updated);
+            component.setEnabled(updated <= 0);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+}
@@ -1,14 +1,14 @@
 package quiz.ui;
 
-import quiz.dao.CategoryDAO;
+import quiz.service.CategoryCache;
 import quiz.dao.QuestionDAO;
 import quiz.dao.QuizSessionDAO;
 import quiz.dao.ScoreDAO;
 import quiz.dao.UserDAO;
 import quiz.model.Category;
 import quiz.model.Question;
+import quiz.model.QuizCompletionResult;
 import quiz.model.User;
-import quiz.exceptions.DatabaseException;
 import quiz.controller.QuizController;
 import quiz.controller.DashboardController;
 import quiz.dao.AchievementDAO;
@@ -19,7 +19,9 @@ import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 public class GameFrame extends JFrame {
@@ -28,6 +30,7 @@ public class GameFrame extends JFrame {
     private int currentQuestionIndex = 0;
     private int score = 0;
     private int quizSessionId;
+    private String quizType;
     private long questionStartTime;
 
     private JPanel cardPanel;
@@ -44,6 +47,9 @@ public class GameFrame extends JFrame {
     private JPanel categoryPanel;
     private JComboBox<Category> categoryComboBox;
     private JButton startCategoryQuizButton;
+    private JButton startRandomQuizButton;
+    private JButton startAIQuizButton;
+    private JButton startAdaptiveQuizButton;
     private JButton backToWelcomeButton;
 
     private JPanel quizPanel;
@@ -57,11 +63,14 @@ public class GameFrame extends JFrame {
 
     private QuizController quizController;
     private DashboardController dashboardController;
+    //apelurile catre bd/gemini ruleaza in fundal; pe EDT se face doar actualizarea ui
+    private final AsyncUi asyncUi;
+    //raspunsurile trimise in coada pentru quiz-ul curent; finishQuiz asteapta sa ajunga toate acolo
+    private final List<CompletableFuture<Void>> pendingAnswers = new ArrayList<>();
 
     private QuestionDAO questionDAO;
     private QuizSessionDAO quizSessionDAO;
     private ScoreDAO scoreDAO;
-    private CategoryDAO categoryDAO;
     private UserDAO userDAO;
     private AchievementDAO achievementDAO;
     private AnalyticsDAO analyticsDAO;
@@ -75,10 +84,10 @@ public class GameFrame extends JFrame {
 
     public GameFrame(User user) {
         this.currentUser = user;
+        this.asyncUi = new AsyncUi(this);
         this.questionDAO = new QuestionDAO();
         this.quizSessionDAO = new QuizSessionDAO();
         this.scoreDAO = new ScoreDAO();
-        this.categoryDAO = new CategoryDAO();
         this.userDAO = new UserDAO();
         this.achievementDAO = new AchievementDAO();
         this.analyticsDAO = new AnalyticsDAO();
@@ -173,19 +182,22 @@ public class GameFrame extends JFrame {
         categoryComboBox.setFont(new Font("Arial", Font.PLAIN, 16));
         categoryComboBox.setMaximumSize(new Dimension(300, 40));
         categoryComboBox.setAlignmentX(Component.CENTER_ALIGNMENT);
-        loadCategories(); // Populate categories
 
         startCategoryQuizButton = createStyledButton("Start Quiz in Category", SECONDARY_COLOR);
         startCategoryQuizButton.addActionListener(e -> startCategoryQuiz());
 
-        JButton startRandomQuizButton = createStyledButton("Start Random Quiz", SECONDARY_COLOR);
+        startRandomQuizButton = createStyledButton("Start Random Quiz", SECONDARY_COLOR);
         startRandomQuizButton.addActionListener(e -> startRandomQuiz());
 
-        JButton startAIQuizButton = createStyledButton("Start AI Random Quiz", ACCENT_COLOR);
+        startAIQuizButton = createStyledButton("Start AI Random Quiz", ACCENT_COLOR);
         startAIQuizButton.addActionListener(e -> startAIRandomQuiz());
 
+        startAdaptiveQuizButton = createStyledButton("Start Adaptive Quiz", ACCENT_COLOR);
+        startAdaptiveQuizButton.addActionListener(e -> startAdaptiveQuiz());
+
         backToWelcomeButton = createStyledButton("Back to Welcome", PRIMARY_COLOR);
         backToWelcomeButton.addActionListener(e -> showWelcomePanel());
+        loadCategories(); // Populate categories
 
         categoryPanel.add(Box.createVerticalGlue());
         categoryPanel.add(categoryLabel);
@@ -197,6 +209,8 @@ public class GameFrame extends JFrame {
         categoryPanel.add(startRandomQuizButton);
         categoryPanel.add(Box.createRigidArea(new Dimension(0, 10)));
         categoryPanel.add(startAIQuizButton);
+        categoryPanel.add(Box.createRigidArea(new Dimension(0, 10)));
+        categoryPanel.add(startAdaptiveQuizButton);
         categoryPanel.add(Box.createRigidArea(new Dimension(0, 20)));
         categoryPanel.add(backToWelcomeButton);
         categoryPanel.add(Box.createVerticalGlue());
@@ -276,6 +290,7 @@ public class GameFrame extends JFrame {
     }
 
     public void showWelcomePanel() {
+        asyncUi.cancelAll();
         cardLayout.show(cardPanel, "Welcome");
         updateWelcomeLabel();
     }
@@ -286,13 +301,14 @@ public class GameFrame extends JFrame {
     }
 
     public void showProfilePanel() {
+        asyncUi.cancelAll();
         ProfileFrame profileFrame = new ProfileFrame(currentUser, userDAO, this, exitButton);
         cardPanel.add(profileFrame, "Profile");
         cardLayout.show(cardPanel, "Profile");
-        profileFrame.loadUserProfileData();
     }
 
     public void showDashboardPanel() {
+        asyncUi.cancelAll();
         JPanel dashboardPanel = new JPanel();
         dashboardPanel.setLayout(new BorderLayout());
         dashboardPanel.setBorder(new EmptyBorder(50, 50, 50, 50));
@@ -320,22 +336,14 @@ public class GameFrame extends JFrame {
 
         // Initialize and use DashboardController
         this.dashboardController = new DashboardController(analyticsDAO, currentUser, levelLabel);
-        dashboardController.updateDashboard();
+        DashboardController controller = dashboardController;
+        asyncUi.submit("updating dashboard", controller::loadSnapshot, controller::showSnapshot,
+                e -> controller.showLoadError(), true);
     }
 
 
     private void startRandomQuiz() {
-        try {
-            quizController.startQuiz(currentUser.getId(), "random", 10, -1); // 10 questions, no category
-            this.questions = quizController.getQuestions();
-            this.quizSessionId = quizController.getQuizSessionId();
-            this.currentQuestionIndex = 0;
-            this.score = 0;
-            loadQuestion();
-            showQuizPanel();
-        } catch (DatabaseException ex) {
-            JOptionPane.showMessageDialog(this, "Error starting random quiz: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        startQuiz("random", -1, "starting random quiz"); // 10 questions, no category
     }
 
     private void startCategoryQuiz() {
@@ -344,17 +352,47 @@ public class GameFrame extends JFrame {
             JOptionPane.showMessageDialog(this, "Please select a category.", "No Category Selected", JOptionPane.WARNING_MESSAGE);
             return;
         }
-        try {
-            quizController.startQuiz(currentUser.getId(), "category", 10, selectedCategory.getId());
-            this.questions = quizController.getQuestions();
-            this.quizSessionId = quizController.getQuizSessionId();
+        startQuiz("category", selectedCategory.getId(), "starting category quiz");
+    }
+
+    private void startAIRandomQuiz() {
+        startQuiz("ai_random", -1, "starting AI quiz");
+    }
+
+    private void startAdaptiveQuiz() {
+        startQuiz("adaptive", -1, "starting adaptive quiz");
+    }
+
+    //intrebarile se aleg in fundal; butoanele de start raman dezactivate pana atunci
+    //"Back to Welcome" ramane activ si anuleaza asteptarea
+    private void startQuiz(String quizType, int categoryId, String action) {
+        int userId = currentUser.getId();
+        JComponent[] startButtons = {startCategoryQuizButton, startRandomQuizButton, startAIQuizButton, startAdaptiveQuizButton};
+        asyncUi.submit(action, () -> {
+            //controller-ul tine starea quiz-ului curent: doua porniri nu trebuie sa se intercaleze
+            synchronized (quizController) {
+                return quizController.selectQuestions(userId, quizType, 10, categoryId);
+            }
+        }, selected -> beginQuiz(userId, quizType, categoryId, selected, action, startButtons), startButtons);
+    }
+
+    //sesiunea se creeaza doar dupa ce alegerea a ajuns in ui, ca o pornire anulata sa nu lase sesiuni fara raspunsuri;
+    //pasul asta nu se mai anuleaza la navigare: sesiunea exista deja cand rezultatul ar fi ignorat
+    private void beginQuiz(int userId, String quizType, int categoryId, List<Question> selected, String action, JComponent[] startButtons) {
+        asyncUi.submit(action, () -> {
+            synchronized (quizController) {
+                return quizController.beginSession(userId, quizType, 10, categoryId, selected);
+            }
+        }, sessionId -> {
+            this.questions = selected;
+            this.quizSessionId = sessionId;
+            this.quizType = quizType;
             this.currentQuestionIndex = 0;
             this.score = 0;
+            pendingAnswers.clear();
             loadQuestion();
             showQuizPanel();
-        } catch (DatabaseException ex) {
-            JOptionPane.showMessageDialog(this, "Error starting category quiz: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, null, false, startButtons);
     }
 
     private void loadQuestion() {
@@ -392,13 +430,29 @@ public class GameFrame extends JFrame {
             score++;
         }
 
-        try {
-            quizController.handleAnswerSubmission(currentUser.getId(), quizSessionId, currentQuestion.getId(), selectedOption, isCorrect, (int) timeTaken);
-        } catch (DatabaseException ex) {
-            JOptionPane.showMessageDialog(this, "Error saving score: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
-
+        //coada poate bloca putin cand e plina, asa ca punerea in coada se face tot in fundal
+        int userId = currentUser.getId();
+        int sessionId = quizSessionId;
+        char option = selectedOption;
         currentQuestionIndex++;
+        int nextIndex = currentQuestionIndex;
+        List<Question> quizQuestions = questions;
+        //quiz adaptiv: urmatoarea intrebare se alege dupa ce raspunsul acesta a actualizat ratingul
+        boolean adaptNext = "adaptive".equals(quizType) && nextIndex < quizQuestions.size();
+        pendingAnswers.add(asyncUi.submit("saving score", () -> {
+            quizController.handleAnswerSubmission(userId, sessionId, currentQuestion, option, isCorrect, (int) timeTaken);
+            if (adaptNext) {
+                quizController.adaptQuestion(userId, quizQuestions, nextIndex, -1);
+            }
+            return null;
+        }, adaptNext ? ignored -> loadAdaptedQuestion(sessionId) : null, adaptNext ? error -> {
+            asyncUi.handleError("saving score", error);
+            loadAdaptedQuestion(sessionId);
+        } : null, false, adaptNext ? new JComponent[]{submitButton} : new JComponent[0]));
+
+        if (adaptNext) {
+            return;
+        }
         if (currentQuestionIndex < questions.size()) {
             loadQuestion();
         } else {
@@ -406,27 +460,43 @@ public class GameFrame extends JFrame {
         }
     }
 
+    //raspunsul nu se anuleaza la navigare; daca intre timp a inceput alt quiz, intrebarea nu se mai afiseaza
+    private void loadAdaptedQuestion(int sessionId) {
+        if (sessionId == quizSessionId) {
+            loadQuestion();
+        }
+    }
+
     private void finishQuiz() {
         stopQuizTimer();
         int totalQuestions = questions.size();
-        double percentage = (double) score / totalQuestions * 100;
+        int finalScore = score;
+        double percentage = (double) finalScore / totalQuestions * 100;
         int totalTimeTaken = timeElapsed; // Use the total time from the timer
-
-        try {
-            quizController.finishQuiz(quizSessionId, score, totalTimeTaken);
-        } catch (DatabaseException ex) {
-            JOptionPane.showMessageDialog(this, "Error completing quiz session: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
-
-        showQuizResultsDialog(score, totalQuestions, totalTimeTaken, percentage);
-        showNewAchievements();
-        updateDashboardFromGameFrame();
+        int sessionId = quizSessionId;
+        CompletableFuture<Void> answersQueued = CompletableFuture.allOf(pendingAnswers.toArray(new CompletableFuture<?>[0]));
+        pendingAnswers.clear();
+
+        //finalizarea nu se anuleaza la navigare: sesiunea trebuie inchisa oricum
+        asyncUi.submit("completing quiz session", () -> {
+            //erorile de la raspunsuri au fost deja afisate; aici conteaza doar sa fie in coada inaintea finalizarii
+            answersQueued.exceptionally(e -> null).join();
+            return quizController.finishQuiz(sessionId, finalScore, totalTimeTaken);
+        }, result -> {
+            showQuizResultsDialog(finalScore, totalQuestions, totalTimeTaken, percentage, result);
+            showNewAchievements(result.getNewAchievements());
+            updateDashboardFromGameFrame();
+        }, error -> {
+            asyncUi.handleError("completing quiz session", error);
+            showQuizResultsDialog(finalScore, totalQuestions, totalTimeTaken, percentage, null);
+            updateDashboardFromGameFrame();
+        }, false, submitButton);
     }
 
-    private void showQuizResultsDialog(int score, int totalQuestions, int totalTimeMillis, double percentage) {
+    private void showQuizResultsDialog(int score, int totalQuestions, int totalTimeMillis, double percentage, QuizCompletionResult result) {
         JDialog resultsDialog = new JDialog(this, "Quiz Results", true);
         resultsDialog.setLayout(new BorderLayout());
-        resultsDialog.setSize(400, 300);
+        resultsDialog.setSize(400, 330);
         resultsDialog.setLocationRelativeTo(this);
         resultsDialog.getContentPane().setBackground(BACKGROUND_COLOR);
 
@@ -468,6 +538,13 @@ public class GameFrame extends JFrame {
         performanceLabel.setForeground(ACCENT_COLOR);
         performanceLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
 
+        JLabel levelLabel = new JLabel(result != null
+                ? String.format("Your Level: %s (%.1f%%)", result.getPerformanceLevel(), result.getPerformance() * 100)
+                : " ", SwingConstants.CENTER);
+        levelLabel.setFont(new Font("Arial", Font.PLAIN, 16));
+        levelLabel.setForeground(TEXT_COLOR);
+        levelLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+
         JButton okButton = createStyledButton("OK", PRIMARY_COLOR);
         okButton.setAlignmentX(Component.CENTER_ALIGNMENT);
         okButton.addActionListener(e -> {
@@ -482,25 +559,23 @@ public class GameFrame extends JFrame {
         contentPanel.add(timeLabel);
         contentPanel.add(Box.createRigidArea(new Dimension(0, 20)));
         contentPanel.add(performanceLabel);
-        contentPanel.add(Box.createRigidArea(new Dimension(0, 30)));
+        contentPanel.add(Box.createRigidArea(new Dimension(0, 10)));
+        contentPanel.add(levelLabel);
+        contentPanel.add(Box.createRigidArea(new Dimension(0, 20)));
         contentPanel.add(okButton);
 
         resultsDialog.add(contentPanel, BorderLayout.CENTER);
         resultsDialog.setVisible(true);
     }
 
-    private void showNewAchievements() {
-        try {
-            List<quiz.model.Achievement> newAchievements = achievementDAO.getUserAchievements(currentUser.getId());
-            if (!newAchievements.isEmpty()) {
-                StringBuilder sb = new StringBuilder("Congratulations! You've earned new achievements:\n");
-                for (quiz.model.Achievement ach : newAchievements) {
-                    sb.append("- ").append(ach.getAchievementName()).append(": ").append(ach.getDescription()).append("\n");
-                }
-                JOptionPane.showMessageDialog(this, sb.toString(), "New Achievements!", JOptionPane.INFORMATION_MESSAGE);
+    //doar achievement-urile acordate la finalul acestui quiz
+    private void showNewAchievements(List<quiz.model.Achievement> newAchievements) {
+        if (!newAchievements.isEmpty()) {
+            StringBuilder sb = new StringBuilder("Congratulations! You've earned new achievements:\n");
+            for (quiz.model.Achievement ach : newAchievements) {
+                sb.append("- ").append(ach.getAchievementName()).append(": ").append(ach.getDescription()).append("\n");
             }
-        } catch (DatabaseException e) {
-            JOptionPane.showMessageDialog(this, "Error fetching achievements: " + e.getMessage(), "Achievement Error", JOptionPane.ERROR_MESSAGE);
+            JOptionPane.showMessageDialog(this, sb.toString(), "New Achievements!", JOptionPane.INFORMATION_MESSAGE);
         }
     }
 
@@ -514,15 +589,12 @@ public class GameFrame extends JFrame {
 
 
     private void loadCategories() {
-        try {
-            List<Category> categories = categoryDAO.getAllCategories();
+        asyncUi.submit("loading categories", () -> CategoryCache.getInstance().getAllCategories(), categories -> {
             categoryComboBox.removeAllItems(); // Clear existing items
             for (Category category : categories) {
                 categoryComboBox.addItem(category);
             }
-        } catch (DatabaseException e) {
-            JOptionPane.showMessageDialog(this, "Error loading categories: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, null, false, categoryComboBox, startCategoryQuizButton);
     }
 
     private void startQuizTimer() {
@@ -547,18 +619,4 @@ public class GameFrame extends JFrame {
             quizTimer.stop();
         }
     }
-
-    private void startAIRandomQuiz() {
-        try {
-            quizController.startQuiz(currentUser.getId(), "ai_random", 10, -1);
-            this.questions = quizController.getQuestions();
-            this.quizSessionId = quizController.getQuizSessionId();
-            this.currentQuestionIndex = 0;
-            this.score = 0;
-            loadQuestion();
-            showQuizPanel();
-        } catch (DatabaseException ex) {
-            JOptionPane.showMessageDialog(this, "Error starting AI quiz: " + ex.getMessage(), "AI Error", JOptionPane.ERROR_MESSAGE);
-        }
-    }
 }
\ No newline at end of file
@@ -11,13 +11,10 @@ import quiz.dao.AnalyticsDAO;
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.util.List;
 import java.util.concurrent.TimeUnit;
 
-import quiz.dao.CategoryDAO;
-import quiz.model.Category;
+import quiz.service.CategoryCache;
 
 
 public class ProfileFrame extends JPanel {
@@ -36,7 +33,7 @@ public class ProfileFrame extends JPanel {
     private final JLabel bestScoreLabel;
     private final JLabel totalTimeLabel;
     private JTable recentQuizzesTable;
-    private final DefaultTableModel tableModel;
+    private final SessionHistoryTableModel tableModel;
     private JScrollPane tableScrollPane;
 
     private JButton backToGameButton;
@@ -151,12 +148,7 @@ public class ProfileFrame extends JPanel {
 
 
         String[] columnNames = {"Date", "Category", "Score", "Time", "Result"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new SessionHistoryTableModel(columnNames, this::toTableRow);
         recentQuizzesTable = new JTable(tableModel);
         recentQuizzesTable.setFont(new Font("Arial", Font.PLAIN, 14));
         recentQuizzesTable.setRowHeight(25);
@@ -259,32 +251,29 @@ public class ProfileFrame extends JPanel {
         return String.format("%02d:%02d", minutes, seconds);
     }
 
-    public void updateRecentQuizzesTable(List<QuizSession> sessions) {
-        DefaultTableModel model = (DefaultTableModel) recentQuizzesTable.getModel();
-        model.setRowCount(0);
-
-        for (QuizSession session : sessions) {
-            if (session.getStartedAt() != null) {
-                String dateStr = session.getStartedAt().toLocalDate().toString();
+    //tabelul cere paginile de la loader pe masura ce randurile devin vizibile
+    public void updateRecentQuizzesTable(int expectedSessions, SessionHistoryTableModel.PageLoader loader) {
+        tableModel.reset(expectedSessions, loader);
+    }
 
-                // Obține numele categoriei în funcție de tipul de quiz
-                String categoryName = getCategoryDisplayName(session);
+    private Object[] toTableRow(QuizSession session) {
+        String dateStr = session.getStartedAt().toLocalDate().toString();
 
-                double percentage = 0.0;
-                if (session.getTotalQuestions() > 0) {
-                    percentage = (double)session.getCorrectAnswers() / session.getTotalQuestions() * 100;
-                }
+        // Obține numele categoriei în funcție de tipul de quiz
+        String categoryName = getCategoryDisplayName(session);
 
-                Object[] row = {
-                        dateStr,
-                        categoryName,
-                        session.getCorrectAnswers() + "/" + session.getTotalQuestions(),
-                        formatTime(session.getTimeTaken()),
-                        String.format("%.1f%%", percentage)
-                };
-                model.addRow(row);
-            }
+        double percentage = 0.0;
+        if (session.getTotalQuestions() > 0) {
+            percentage = (double)session.getCorrectAnswers() / session.getTotalQuestions() * 100;
         }
+
+        return new Object[]{
+                dateStr,
+                categoryName,
+                session.getCorrectAnswers() + "/" + session.getTotalQuestions(),
+                formatTime(session.getTimeTaken()),
+                String.format("%.1f%%", percentage)
+        };
     }
 
     // Metodă helper pentru a obține numele categoriei
@@ -302,15 +291,13 @@ public class ProfileFrame extends JPanel {
             case "random":
                 return "Random Questions";
             case "category":
-                // Aici trebuie să obții numele real al categoriei din DB
+                //numele vine din join-ul din QuizSessionDAO; cache-ul acopera sesiunile citite altfel
+                if (session.getCategoryName() != null) {
+                    return session.getCategoryName();
+                }
                 if (session.getCategoryId() > 0) {
-                    try {
-                        CategoryDAO categoryDAO = new CategoryDAO();
-                        Category category = categoryDAO.getCategoryById(session.getCategoryId());
-                        return (category != null) ? category.getName() : "Unknown Category";
-                    } catch (Exception e) {
-                        return "Category " + session.getCategoryId();
-                    }
+                    String name = CategoryCache.getInstance().getCategoryName(session.getCategoryId());
+                    return (name != null) ? name : "Category " + session.getCategoryId();
                 }
                 return "General Category";
             default:
@@ -0,0 +1,238 @@
+package quiz.ui;
+
+import quiz.exceptions.DatabaseException;
+import quiz.model.QuizSession;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+//model de tabel pentru istoricul de quiz-uri care incarca paginile doar cand devin vizibile
+//in memorie raman cel mult MAX_CACHED_PAGES pagini + cursorul (started_at, id) de inceput al fiecarei pagini vizitate
+public class SessionHistoryTableModel extends AbstractTableModel {
+    private static final int PAGE_SIZE = 50;
+    private static final int MAX_CACHED_PAGES = 8;
+    private static final String LOADING = "...";
+    //dupa o eroare pagina se cere din nou dupa 1s, 2s, 4s ... cel mult 30s
+    private static final int RETRY_BASE_MILLIS = 1_000;
+    private static final int RETRY_MAX_MILLIS = 30_000;
+
+    //sursa paginilor: sesiunile de dupa cursor, cele mai noi primele
+    public interface PageLoader {
+        List<QuizSession> load(LocalDateTime afterStartedAt, int afterId, int limit) throws DatabaseException;
+    }
+
+    private final String[] columnNames;
+    private final Function<QuizSession, Object[]> rowMapper;
+    private PageLoader loader;
+    private int rowCount;
+
+    //cursors.get(p) = ultima sesiune de dinaintea paginii p (null pentru pagina 0)
+    private final List<Cursor> cursors = new ArrayList<>();
+    private final Map<Integer, Object[][]> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Object[][]> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    private final Set<Integer> loading = new HashSet<>();
+    //pagina -> erori consecutive, pentru intarzierea reincercarii
+    private final Map<Integer, Integer> failures = new HashMap<>();
+    //creste la fiecare reset, ca rezultatele cererilor vechi sa fie ignorate
+    private int generation;
+
+    public SessionHistoryTableModel(String[] columnNames, Function<QuizSession, Object[]> rowMapper) {
+        this.columnNames = columnNames;
+        this.rowMapper = rowMapper;
+    }
+
+    //expectedRows e doar o estimare (ex. din user_stats); se corecteaza cand se ajunge la capat
+    public void reset(int expectedRows, PageLoader loader) {
+        this.loader = loader;
+        this.rowCount = Math.max(0, expectedRows);
+        generation++;
+        cursors.clear();
+        cursors.add(null);
+        pages.clear();
+        loading.clear();
+        failures.clear();
+        fireTableDataChanged();
+        if (rowCount == 0) {
+            //estimarea poate lipsi (statistici inca necalculate): se verifica prima pagina
+            requestPage(0);
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int page = row / PAGE_SIZE;
+        Object[][] rows = pages.get(page);
+        if (rows == null) {
+            requestPage(page);
+            return column == 0 ? LOADING : "";
+        }
+        int offset = row % PAGE_SIZE;
+        return offset < rows.length ? rows[offset][column] : "";
+    }
+
+    private void requestPage(int page) {
+        if (loader == null || !loading.add(page)) {
+            return;
+        }
+        //se porneste de la cea mai apropiata pagina cu cursor cunoscut; paginile intermediare dau doar cursorii
+        int startPage = Math.min(page, cursors.size() - 1);
+        Cursor startCursor = cursors.get(startPage);
+        PageLoader pageLoader = loader;
+        int requestGeneration = generation;
+
+        new SwingWorker<PageResult, Void>() {
+            @Override
+            protected PageResult doInBackground() throws DatabaseException {
+                PageResult result = new PageResult();
+                Cursor cursor = startCursor;
+                for (int p = startPage; p <= page; p++) {
+                    List<QuizSession> sessions = pageLoader.load(cursor == null ? null : cursor.startedAt,
+                            cursor == null ? 0 : cursor.id, PAGE_SIZE + 1);
+                    int pageRows = Math.min(sessions.size(), PAGE_SIZE);
+                    if (p == page) {
+                        result.sessions = sessions;
+                    } else if (sessions.size() <= PAGE_SIZE) {
+                        //istoricul se termina inainte de pagina ceruta
+                        result.totalRows = p * PAGE_SIZE + pageRows;
+                        break;
+                    }
+                    if (pageRows > 0) {
+                        QuizSession last = sessions.get(pageRows - 1);
+                        cursor = new Cursor(last.getStartedAt(), last.getId());
+                        result.cursors.add(cursor);
+                    }
+                }
+                return result;
+            }
+
+            @Override
+            protected void done() {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                try {
+                    PageResult result = get();
+                    loading.remove(page);
+                    failures.remove(page);
+                    for (int i = 0; i < result.cursors.size(); i++) {
+                        if (startPage + i + 1 == cursors.size()) {
+                            cursors.add(result.cursors.get(i));
+                        }
+                    }
+                    if (result.sessions == null) {
+                        updateRowCount(result.totalRows);
+                    } else {
+                        storePage(page, result.sessions);
+                    }
+                } catch (Exception e) {
+                    System.err.println("Error loading quiz history page " + page + ": " + e.getMessage());
+                    scheduleRetry(page, requestGeneration);
+                }
+            }
+        }.execute();
+    }
+
+    //pagina ramane marcata ca in curs pana expira intarzierea, ca repaint-urile sa nu repete cererea imediat;
+    //apoi randurile ei se redeseneaza si getValueAt o cere din nou daca e inca vizibila
+    private void scheduleRetry(int page, int requestGeneration) {
+        int attempt = failures.merge(page, 1, Integer::sum);
+        int delay = (int) Math.min(RETRY_MAX_MILLIS, (long) RETRY_BASE_MILLIS << Math.min(attempt - 1, 16));
+        Timer timer = new Timer(delay, event -> {
+            if (requestGeneration != generation) {
+                return;
+            }
+            loading.remove(page);
+            int firstRow = page * PAGE_SIZE;
+            if (firstRow < rowCount) {
+                fireTableRowsUpdated(firstRow, Math.min(rowCount, firstRow + PAGE_SIZE) - 1);
+            } else if (page == 0) {
+                //tabel gol (fara estimare): nu exista randuri de redesenat, se cere direct
+                requestPage(0);
+            }
+        });
+        timer.setRepeats(false);
+        timer.start();
+    }
+
+    private void storePage(int page, List<QuizSession> sessions) {
+        int pageRows = Math.min(sessions.size(), PAGE_SIZE);
+        Object[][] rows = new Object[pageRows][];
+        for (int i = 0; i < pageRows; i++) {
+            rows[i] = rowMapper.apply(sessions.get(i));
+        }
+        pages.put(page, rows);
+
+        int firstRow = page * PAGE_SIZE;
+        if (sessions.size() <= PAGE_SIZE) {
+            updateRowCount(firstRow + pageRows);
+        } else if (rowCount <= firstRow + PAGE_SIZE) {
+            //estimarea era prea mica: exista cel putin inca un rand
+            updateRowCount(firstRow + PAGE_SIZE + 1);
+        }
+        if (pageRows > 0 && firstRow < rowCount) {
+            fireTableRowsUpdated(firstRow, Math.min(rowCount, firstRow + pageRows) - 1);
+        }
+    }
+
+    private void updateRowCount(int newCount) {
+        int oldCount = rowCount;
+        if (newCount == oldCount) {
+            return;
+        }
+        rowCount = newCount;
+        if (newCount > oldCount) {
+            fireTableRowsInserted(oldCount, newCount - 1);
+        } else {
+            fireTableRowsDeleted(newCount, oldCount - 1);
+        }
+    }
+
+    private static final class PageResult {
+        private final List<Cursor> cursors = new ArrayList<>();
+        private List<QuizSession> sessions;
+        private int totalRows;
+    }
+
+    private static final class Cursor {
+        private final LocalDateTime startedAt;
+        private final int id;
+
+        private Cursor(LocalDateTime startedAt, int id) {
+            this.startedAt = startedAt;
+            this.id = id;
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package util;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class DBUtil {
@@ -9,7 +8,30 @@ public class DBUtil {
     private static final String USER = "postgres";
     private static final String PASSWORD = "password";
 
+    //setari pool, pot fi suprascrise cu -Dquiz.db.pool.*
+    private static final int POOL_MAX_SIZE = Integer.getInteger("quiz.db.pool.maxSize", 10);
+    private static final long CONNECTION_TIMEOUT_MILLIS = Long.getLong("quiz.db.pool.connectionTimeoutMillis", 10_000L);
+    private static final long IDLE_TIMEOUT_MILLIS = Long.getLong("quiz.db.pool.idleTimeoutMillis", 300_000L);
+    private static final long MAX_LIFETIME_MILLIS = Long.getLong("quiz.db.pool.maxLifetimeMillis", 1_800_000L);
+    //0 = dezactivata; activata, fiecare imprumut captureaza stiva apelantului (scump, doar pentru depanare)
+    private static final long LEAK_DETECTION_MILLIS = Long.getLong("quiz.db.pool.leakDetectionMillis", 0L);
+    //conexiunile inactive mai putin de atat se dau fara isValid()
+    private static final long VALIDATE_IDLE_MILLIS = Long.getLong("quiz.db.pool.validateIdleMillis", 30_000L);
+
+    private static final ConnectionPool POOL = new ConnectionPool(URL, USER, PASSWORD, POOL_MAX_SIZE,
+            CONNECTION_TIMEOUT_MILLIS, IDLE_TIMEOUT_MILLIS, MAX_LIFETIME_MILLIS, LEAK_DETECTION_MILLIS,
+            VALIDATE_IDLE_MILLIS);
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(POOL::close, "db-pool-shutdown"));
+    }
+
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        return POOL.getConnection();
+    }
+
+    //expune metricile pool-ului (active, idle, timp de asteptare)
+    public static ConnectionPool getPool() {
+        return POOL;
     }
 }
@@ -0,0 +1,6 @@
+-- index pentru istoricul paginat (QuizSessionDAO.getUserQuizSessions cu keyset pe started_at, id)
+CREATE INDEX IF NOT EXISTS quiz_sessions_user_started_idx
+    ON quiz_sessions (user_id, started_at DESC, id DESC);
+
+-- categoria quiz-urilor de tip "category"; numele se citeste cu LEFT JOIN in QuizSessionDAO
+ALTER TABLE quiz_sessions ADD COLUMN IF NOT EXISTS category_id INTEGER REFERENCES categories(id);
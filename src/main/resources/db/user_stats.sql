@@ -0,0 +1,14 @@
+-- statistici agregate pe utilizator, actualizate incremental de QuizSessionDAO
+-- (createQuizSession -> total_sessions, completeQuizSession -> restul coloanelor)
+-- pentru utilizatorii existenti: java -cp ... quiz.service.UserStatsBackfillJob
+
+CREATE TABLE IF NOT EXISTS user_stats (
+    user_id              INTEGER PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    total_sessions       INTEGER NOT NULL DEFAULT 0,
+    completed_sessions   INTEGER NOT NULL DEFAULT 0,
+    total_correct        BIGINT  NOT NULL DEFAULT 0,
+    total_questions      BIGINT  NOT NULL DEFAULT 0,
+    best_percentage      INTEGER NOT NULL DEFAULT 0,
+    total_time_millis    BIGINT  NOT NULL DEFAULT 0,
+    updated_at           TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);